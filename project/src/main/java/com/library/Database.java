@@ -11,12 +11,21 @@ import java.util.List;
  */
 public class Database {
     
-    private static Connection connection;
+    // Opened in the background at startup; callers that need it first wait on the class lock
+    private static volatile Connection connection;
+    
+    /**
+     * Unit of work executed inside a database transaction
+     */
+    @FunctionalInterface
+    public interface TransactionWork {
+        void execute(Connection connection) throws SQLException;
+    }
     
     /**
      * Initialize database connection
      */
-    public static void initializeConnection() {
+    public static synchronized void initializeConnection() {
         try {
             Class.forName(DatabaseConstants.DRIVER);
             connection = DriverManager.getConnection(
@@ -31,10 +40,27 @@ public class Database {
         }
     }
     
+    /**
+     * Open a separate connection for background work
+     * Caller is responsible for closing it
+     */
+    public static Connection openConnection() throws SQLException {
+        try {
+            Class.forName(DatabaseConstants.DRIVER);
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("Database driver not found: " + DatabaseConstants.DRIVER, e);
+        }
+        return DriverManager.getConnection(
+            DatabaseConstants.URL, 
+            DatabaseConstants.USERNAME, 
+            DatabaseConstants.PASSWORD
+        );
+    }
+    
     /**
      * Get current database connection
      */
-    public static Connection getConnection() {
+    public static synchronized Connection getConnection() {
         try {
             if (connection == null || connection.isClosed()) {
                 initializeConnection();
@@ -45,6 +71,25 @@ public class Database {
         return connection;
     }
     
+    /**
+     * Check if the database can be reached, reconnecting if needed
+     */
+    public static boolean isAvailable() {
+        try {
+            Connection conn = getConnection();
+            if (conn != null && conn.isValid(DatabaseConstants.VALIDATION_TIMEOUT_SECONDS)) {
+                return true;
+            }
+            
+            // Connection dropped without being closed; open a fresh one
+            closeConnection();
+            initializeConnection();
+            return connection != null && connection.isValid(DatabaseConstants.VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+    
     /**
      * Execute SELECT query and return ResultSet
      */
@@ -61,6 +106,18 @@ public class Database {
         }
     }
     
+    /**
+     * Current time on the database server
+     * Used as a watermark when fetching rows changed since an earlier load
+     */
+    public static Timestamp serverTime() throws SQLException {
+        ResultSet rs = executeQuery("SELECT CURRENT_TIMESTAMP");
+        if (rs == null || !rs.next()) {
+            throw new SQLException("Database is not available.");
+        }
+        return rs.getTimestamp(1);
+    }
+    
     /**
      * Execute INSERT, UPDATE, DELETE queries
      */
@@ -100,10 +157,70 @@ public class Database {
         return -1;
     }
     
+    /**
+     * Check if an error lost the connection or the open transaction, as
+     * opposed to rejecting a single statement
+     */
+    public static boolean isConnectionFailure(SQLException e) {
+        String state = e.getSQLState();
+        return e instanceof SQLTransientConnectionException
+            || e instanceof SQLNonTransientConnectionException
+            || e instanceof SQLTransactionRollbackException
+            || (state != null && state.startsWith("08"));
+    }
+    
+    /**
+     * Prepare statement on given connection with parameters bound
+     */
+    public static PreparedStatement prepare(Connection conn, String query, Object... params) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS);
+        for (int i = 0; i < params.length; i++) {
+            stmt.setObject(i + 1, params[i]);
+        }
+        return stmt;
+    }
+    
+    /**
+     * Execute work in a single transaction, rolling back on failure
+     */
+    public static boolean executeInTransaction(TransactionWork work) {
+        Connection conn = getConnection();
+        if (conn == null) {
+            return false;
+        }
+        return executeInTransaction(conn, work);
+    }
+    
+    /**
+     * Execute work in a single transaction on the given connection, rolling back on failure
+     */
+    public static boolean executeInTransaction(Connection conn, TransactionWork work) {
+        try {
+            conn.setAutoCommit(false);
+            work.execute(conn);
+            conn.commit();
+            return true;
+        } catch (SQLException | RuntimeException e) {
+            try {
+                conn.rollback();
+            } catch (SQLException ex) {
+                ex.printStackTrace();
+            }
+            e.printStackTrace();
+            return false;
+        } finally {
+            try {
+                conn.setAutoCommit(true);
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+    
     /**
      * Close database connection
      */
-    public static void closeConnection() {
+    public static synchronized void closeConnection() {
         try {
             if (connection != null && !connection.isClosed()) {
                 connection.close();
@@ -1,9 +1,15 @@
 package com.library;
 
+import com.library.utils.CirculationMetrics;
+import com.library.utils.OfflineJournal;
+import com.library.utils.PopularityTracker;
+import com.library.utils.StartupTimer;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
 import javafx.stage.Stage;
 
 /**
@@ -16,13 +22,56 @@ public class Main extends Application {
     
     @Override
     public void start(Stage primaryStage) throws Exception {
+        StartupTimer.mark("JavaFX started");
         Main.primaryStage = primaryStage;
         
-        // Initialize database connection
-        Database.initializeConnection();
+        // Connect while the login screen renders; the first query waits for the connection
+        startInBackground("database-connect", "database connection", Database::initializeConnection);
+        
+        // Replay circulation recorded while the database was unreachable
+        OfflineJournal.addListener(report -> Platform.runLater(() -> showReplayReport(report)));
+        startInBackground("journal-open", "offline journal", OfflineJournal::start);
+        
+        // Roll desk activity counters into per-minute and per-hour buffers
+        CirculationMetrics.start();
+        
+        // Keep most-borrowed summaries and snapshot them per month
+        PopularityTracker.start();
         
         // Load login screen
+        long loginStarted = StartupTimer.start();
         showLoginScreen();
+        StartupTimer.finish("login screen", loginStarted);
+        
+        // Log once the first frame has been laid out
+        Scene loginScene = primaryStage.getScene();
+        Runnable firstPulse = new Runnable() {
+            private boolean logged = false;
+            
+            @Override
+            public void run() {
+                if (!logged) {
+                    logged = true;
+                    StartupTimer.ready();
+                    // Listeners cannot be removed while the pulse iterates them
+                    Platform.runLater(() -> loginScene.removePostLayoutPulseListener(this));
+                }
+            }
+        };
+        loginScene.addPostLayoutPulseListener(firstPulse);
+    }
+    
+    /**
+     * Run a startup phase on its own daemon thread and log how long it took
+     */
+    private static void startInBackground(String threadName, String phase, Runnable work) {
+        long started = StartupTimer.start();
+        Thread thread = new Thread(() -> {
+            work.run();
+            StartupTimer.finish(phase, started);
+        }, threadName);
+        thread.setDaemon(true);
+        thread.start();
     }
     
     /**
@@ -64,6 +113,38 @@ public class Main extends Application {
         primaryStage.setScene(scene);
     }
     
+    /**
+     * Summarize an offline journal replay for the librarian
+     */
+    private static void showReplayReport(OfflineJournal.ReplayReport report) {
+        if (report.getApplied() == 0 && report.getConflicts().isEmpty()) {
+            return;
+        }
+        
+        StringBuilder message = new StringBuilder();
+        message.append(report.getApplied()).append(" offline operation(s) were synchronized with the database.");
+        if (!report.isComplete()) {
+            message.append("\nSome operations are still pending and will be retried.");
+        }
+        
+        Alert alert;
+        if (report.getConflicts().isEmpty()) {
+            alert = new Alert(Alert.AlertType.INFORMATION);
+        } else {
+            alert = new Alert(Alert.AlertType.WARNING);
+            message.append("\n\n").append(report.getConflicts().size()).append(" operation(s) could not be applied:");
+            report.getConflicts().stream().limit(10)
+                .forEach(conflict -> message.append("\n").append(conflict));
+            if (report.getConflictFile() != null) {
+                message.append("\n\nFull list saved to ").append(report.getConflictFile());
+            }
+        }
+        alert.setTitle("Offline Synchronization");
+        alert.setHeaderText(null);
+        alert.setContentText(message.toString());
+        alert.show();
+    }
+    
     public static Stage getPrimaryStage() {
         return primaryStage;
     }
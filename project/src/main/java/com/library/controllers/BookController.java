@@ -3,21 +3,33 @@ package com.library.controllers;
 import com.library.Database;
 import com.library.models.Book;
 import com.library.models.UserRole;
+import com.library.utils.CatalogImporter;
+import com.library.utils.CirculationMetrics;
+import com.library.utils.ProgressiveLoader;
+import com.library.utils.ViewManager;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 
+import java.io.File;
 import java.net.URL;
+import java.nio.file.Path;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
 
@@ -25,7 +37,7 @@ import java.util.ResourceBundle;
  * Controller for books management
  * Handles book CRUD operations and search functionality
  */
-public class BookController implements Initializable {
+public class BookController implements Initializable, ViewManager.Refreshable {
     
     @FXML private TableView<Book> booksTable;
     @FXML private TableColumn<Book, Integer> idColumn;
@@ -45,10 +57,19 @@ public class BookController implements Initializable {
     @FXML private Button addBookButton;
     @FXML private Button editBookButton;
     @FXML private Button deleteBookButton;
+    @FXML private Button importCatalogButton;
     @FXML private Button refreshButton;
     
     private ObservableList<Book> allBooks;
     private ObservableList<Book> filteredBooks;
+    private ProgressiveLoader<Book> bookLoader;
+    
+    // Server time the loaded books are current as of; null forces a full reload
+    private Timestamp booksSince;
+    
+    // Add/edit form, built on first use and reused
+    private Stage bookFormStage;
+    private BookFormController bookFormController;
     
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -64,25 +85,23 @@ public class BookController implements Initializable {
         addBookButton.setVisible(canModify);
         editBookButton.setVisible(canModify);
         deleteBookButton.setVisible(canModify);
+        importCatalogButton.setVisible(canModify);
     }
     
     /**
      * Setup table columns
      */
     private void setupTable() {
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("bookId"));
-        titleColumn.setCellValueFactory(new PropertyValueFactory<>("title"));
-        authorColumn.setCellValueFactory(new PropertyValueFactory<>("author"));
-        categoryColumn.setCellValueFactory(new PropertyValueFactory<>("category"));
-        isbnColumn.setCellValueFactory(new PropertyValueFactory<>("isbn"));
-        totalCopiesColumn.setCellValueFactory(new PropertyValueFactory<>("totalCopies"));
-        availableCopiesColumn.setCellValueFactory(new PropertyValueFactory<>("availableCopies"));
+        idColumn.setCellValueFactory(cellData -> cellData.getValue().bookIdProperty().asObject());
+        titleColumn.setCellValueFactory(cellData -> cellData.getValue().titleProperty());
+        authorColumn.setCellValueFactory(cellData -> cellData.getValue().authorProperty());
+        categoryColumn.setCellValueFactory(cellData -> cellData.getValue().categoryProperty());
+        isbnColumn.setCellValueFactory(cellData -> cellData.getValue().isbnProperty());
+        totalCopiesColumn.setCellValueFactory(cellData -> cellData.getValue().totalCopiesProperty().asObject());
+        availableCopiesColumn.setCellValueFactory(cellData -> cellData.getValue().availableCopiesProperty().asObject());
         
-        // Custom cell factory for status column
-        statusColumn.setCellValueFactory(cellData -> 
-            cellData.getValue().availableCopiesProperty().asString().concat("/")
-            .concat(cellData.getValue().totalCopiesProperty().asString())
-        );
+        // "available/total" is kept on the book itself
+        statusColumn.setCellValueFactory(cellData -> cellData.getValue().availabilityProperty());
         
         // Initialize lists
         allBooks = FXCollections.observableArrayList();
@@ -113,14 +132,26 @@ public class BookController implements Initializable {
         addBookButton.setOnAction(e -> addBook());
         editBookButton.setOnAction(e -> editBook());
         deleteBookButton.setOnAction(e -> deleteBook());
+        importCatalogButton.setOnAction(e -> importCatalog());
         refreshButton.setOnAction(e -> loadBooks());
     }
     
     /**
      * Load all books from database
+     * Rows stream in from a background cursor so the first screenful shows
+     * before the rest of the catalog has arrived.
      */
     private void loadBooks() {
+        if (bookLoader != null) {
+            bookLoader.cancel();
+        }
         allBooks.clear();
+        filteredBooks.clear();
+        try {
+            booksSince = Database.serverTime();
+        } catch (SQLException e) {
+            booksSince = null;
+        }
         
         String query = """
             SELECT book_id, title, author, category, isbn, 
@@ -130,35 +161,124 @@ public class BookController implements Initializable {
             ORDER BY title
             """;
         
+        ProgressiveLoader<Book> loader = new ProgressiveLoader<>(query, this::mapBook, batch -> {
+            allBooks.addAll(batch);
+            
+            // Keep an active search applied to rows that arrive after it
+            String searchText = searchField.getText().trim().toLowerCase();
+            if (searchText.isEmpty()) {
+                filteredBooks.addAll(batch);
+            } else {
+                String searchType = searchTypeCombo.getValue();
+                filteredBooks.addAll(batch.stream()
+                    .filter(book -> matchesSearch(book, searchText, searchType))
+                    .toList());
+            }
+        });
+        loader.setOnFailed(e -> {
+            booksSince = null;
+            Throwable error = loader.getException();
+            showError("Error loading books: " + error.getMessage());
+            error.printStackTrace();
+        });
+        loader.setOnCancelled(e -> {
+            if (bookLoader == loader) {
+                booksSince = null;
+            }
+        });
+        bookLoader = loader.start();
+    }
+    
+    /**
+     * Bring the catalog up to date when the cached window is shown again
+     * Only books changed since the last load are fetched and merged in place.
+     */
+    @Override
+    public void refresh() {
+        if (booksSince == null) {
+            loadBooks();
+            return;
+        }
+        if (bookLoader != null && bookLoader.isRunning()) {
+            return;
+        }
+        
+        String query = """
+            SELECT book_id, title, author, category, isbn, 
+                   total_copies, available_copies, is_active
+            FROM books 
+            WHERE updated_at >= ?
+            """;
+        
         try {
-            ResultSet rs = Database.executeQuery(query);
+            Timestamp since = booksSince;
+            booksSince = Database.serverTime();
+            
+            Map<Integer, Book> changed = new HashMap<>();
+            ResultSet rs = Database.executeQuery(query, since);
             while (rs != null && rs.next()) {
-                Book book = new Book(
-                    rs.getInt("book_id"),
-                    rs.getString("title"),
-                    rs.getString("author"),
-                    rs.getString("category"),
-                    rs.getString("isbn"),
-                    rs.getInt("total_copies"),
-                    rs.getInt("available_copies"),
-                    rs.getBoolean("is_active")
-                );
-                allBooks.add(book);
+                Book book = mapBook(rs);
+                changed.put(book.getBookId(), book);
+            }
+            if (changed.isEmpty()) {
+                return;
             }
             
-            // Show all books initially
-            filteredBooks.setAll(allBooks);
+            // Replace changed books, dropping deleted ones, and keep title order
+            allBooks.removeIf(book -> changed.containsKey(book.getBookId()));
+            Comparator<Book> byTitle = Comparator.comparing(Book::getTitle, String.CASE_INSENSITIVE_ORDER);
+            for (Book book : changed.values()) {
+                if (book.getIsActive()) {
+                    int index = Collections.binarySearch(allBooks, book, byTitle);
+                    allBooks.add(index < 0 ? -index - 1 : index, book);
+                }
+            }
+            applySearch();
             
         } catch (SQLException e) {
-            showError("Error loading books: " + e.getMessage());
+            booksSince = null;
+            showError("Error refreshing books: " + e.getMessage());
             e.printStackTrace();
         }
     }
     
+    /**
+     * Stop streaming while the window is hidden
+     */
+    @Override
+    public void suspend() {
+        if (bookLoader != null && bookLoader.isRunning()) {
+            bookLoader.cancel();
+        }
+    }
+    
+    private Book mapBook(ResultSet rs) throws SQLException {
+        return new Book(
+            rs.getInt("book_id"),
+            rs.getString("title"),
+            rs.getString("author"),
+            rs.getString("category"),
+            rs.getString("isbn"),
+            rs.getInt("total_copies"),
+            rs.getInt("available_copies"),
+            rs.getBoolean("is_active")
+        );
+    }
+    
     /**
      * Perform search based on search criteria
      */
     private void performSearch() {
+        if (!searchField.getText().isBlank()) {
+            CirculationMetrics.record(CirculationMetrics.Event.SEARCH);
+        }
+        applySearch();
+    }
+    
+    /**
+     * Show the loaded books matching the search criteria
+     */
+    private void applySearch() {
         String searchText = searchField.getText().trim().toLowerCase();
         String searchType = searchTypeCombo.getValue();
         
@@ -167,21 +287,19 @@ public class BookController implements Initializable {
             return;
         }
         
-        filteredBooks.clear();
-        
-        for (Book book : allBooks) {
-            boolean matches = switch (searchType) {
-                case "Title" -> book.getTitle().toLowerCase().contains(searchText);
-                case "Author" -> book.getAuthor().toLowerCase().contains(searchText);
-                case "Category" -> book.getCategory().toLowerCase().contains(searchText);
-                case "ISBN" -> book.getIsbn().toLowerCase().contains(searchText);
-                default -> false;
-            };
-            
-            if (matches) {
-                filteredBooks.add(book);
-            }
-        }
+        filteredBooks.setAll(allBooks.stream()
+            .filter(book -> matchesSearch(book, searchText, searchType))
+            .toList());
+    }
+    
+    private boolean matchesSearch(Book book, String searchText, String searchType) {
+        return switch (searchType) {
+            case "Title" -> book.getTitle().toLowerCase().contains(searchText);
+            case "Author" -> book.getAuthor().toLowerCase().contains(searchText);
+            case "Category" -> book.getCategory().toLowerCase().contains(searchText);
+            case "ISBN" -> book.getIsbn().toLowerCase().contains(searchText);
+            default -> false;
+        };
     }
     
     /**
@@ -196,24 +314,7 @@ public class BookController implements Initializable {
      * Add new book
      */
     private void addBook() {
-        try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/BookForm.fxml"));
-            Parent root = loader.load();
-            
-            BookFormController controller = loader.getController();
-            controller.setBookController(this);
-            
-            Stage stage = new Stage();
-            stage.setTitle("Add New Book");
-            stage.initModality(Modality.WINDOW_MODAL);
-            stage.initOwner(booksTable.getScene().getWindow());
-            stage.setScene(new Scene(root));
-            stage.showAndWait();
-            
-        } catch (Exception e) {
-            showError("Error opening book form: " + e.getMessage());
-            e.printStackTrace();
-        }
+        showBookForm(null);
     }
     
     /**
@@ -226,20 +327,35 @@ public class BookController implements Initializable {
             return;
         }
         
+        showBookForm(selectedBook);
+    }
+    
+    /**
+     * Open the book form for a new book, or for editing when a book is given
+     */
+    private void showBookForm(Book book) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/BookForm.fxml"));
-            Parent root = loader.load();
-            
-            BookFormController controller = loader.getController();
-            controller.setBookController(this);
-            controller.setBook(selectedBook);
+            if (bookFormStage == null) {
+                FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/BookForm.fxml"));
+                Parent root = loader.load();
+                
+                bookFormController = loader.getController();
+                bookFormController.setBookController(this);
+                
+                bookFormStage = new Stage();
+                bookFormStage.initModality(Modality.WINDOW_MODAL);
+                bookFormStage.initOwner(booksTable.getScene().getWindow());
+                bookFormStage.setScene(new Scene(root));
+            }
             
-            Stage stage = new Stage();
-            stage.setTitle("Edit Book");
-            stage.initModality(Modality.WINDOW_MODAL);
-            stage.initOwner(booksTable.getScene().getWindow());
-            stage.setScene(new Scene(root));
-            stage.showAndWait();
+            if (book == null) {
+                bookFormController.clearForm();
+                bookFormStage.setTitle("Add New Book");
+            } else {
+                bookFormController.setBook(book);
+                bookFormStage.setTitle("Edit Book");
+            }
+            bookFormStage.showAndWait();
             
         } catch (Exception e) {
             showError("Error opening book form: " + e.getMessage());
@@ -277,6 +393,90 @@ public class BookController implements Initializable {
         }
     }
     
+    /**
+     * Ingest a CSV or MARC catalog feed in the background
+     * The librarian chooses whether feed copies set or add to holdings.
+     * Rejected records are written next to the source file.
+     */
+    private void importCatalog() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Import Catalog");
+        fileChooser.getExtensionFilters().addAll(
+            new FileChooser.ExtensionFilter("Catalog Files", "*.csv", "*.mrc", "*.marc"),
+            new FileChooser.ExtensionFilter("CSV Files", "*.csv"),
+            new FileChooser.ExtensionFilter("MARC Files", "*.mrc", "*.marc"));
+        File file = fileChooser.showOpenDialog(importCatalogButton.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        
+        CatalogImporter.Mode mode = chooseImportMode();
+        if (mode == null) {
+            return;
+        }
+        
+        String name = file.getName().replaceFirst("\\.[^.]*$", "");
+        Path rejectFile = file.toPath().resolveSibling(name + "-rejected.csv");
+        
+        Task<CatalogImporter.Result> task = new Task<>() {
+            @Override
+            protected CatalogImporter.Result call() throws Exception {
+                CatalogImporter.Result result = CatalogImporter.importFile(file.toPath(), 
+                    CatalogImporter.Format.of(file.toPath()), mode, null);
+                if (!result.getRejected().isEmpty()) {
+                    CatalogImporter.writeRejections(rejectFile, result.getRejected());
+                }
+                return result;
+            }
+        };
+        
+        importCatalogButton.disableProperty().bind(task.runningProperty());
+        task.setOnSucceeded(e -> {
+            CatalogImporter.Result result = task.getValue();
+            loadBooks();
+            
+            String message = String.format("Read %,d records in %.1f seconds.%n%,d books added or restocked, %,d duplicate ISBNs merged.", 
+                result.getRecords(), result.getElapsedMillis() / 1000.0, result.getBooks(), result.getMerged());
+            if (result.getRejected().isEmpty()) {
+                showInfo(message);
+            } else {
+                showWarning(message + String.format("%n%,d records were rejected. See %s for the reasons.", 
+                    result.getRejected().size(), rejectFile.getFileName()));
+            }
+        });
+        task.setOnFailed(e -> {
+            task.getException().printStackTrace();
+            loadBooks();
+            showError("Error importing catalog: " + task.getException().getMessage());
+        });
+        
+        Thread thread = new Thread(task, "catalog-import-task");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    /**
+     * Ask how the feed's copies combine with existing holdings
+     * @return chosen mode, or null if the import was cancelled
+     */
+    private CatalogImporter.Mode chooseImportMode() {
+        ButtonType set = new ButtonType(CatalogImporter.Mode.SET_HOLDINGS.getDisplayName());
+        ButtonType add = new ButtonType(CatalogImporter.Mode.ADD_COPIES.getDisplayName());
+        
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION, "", set, add, ButtonType.CANCEL);
+        alert.setTitle("Import Catalog");
+        alert.setHeaderText("How should copies in the file be counted?");
+        alert.setContentText("Set holdings: each book's total becomes the number of copies in the file, "
+            + "so importing the same file again changes nothing.\n\n"
+            + "Add copies: copies in the file are added to each book's total, e.g. for a delivery of new stock.");
+        
+        Optional<ButtonType> result = alert.showAndWait();
+        if (result.isEmpty() || result.get() == ButtonType.CANCEL) {
+            return null;
+        }
+        return result.get() == add ? CatalogImporter.Mode.ADD_COPIES : CatalogImporter.Mode.SET_HOLDINGS;
+    }
+    
     /**
      * Check if book has active issues
      */
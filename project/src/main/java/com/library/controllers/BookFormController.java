@@ -66,6 +66,23 @@ public class BookFormController implements Initializable {
         this.parentController = controller;
     }
     
+    /**
+     * Reset the form for a new book
+     */
+    public void clearForm() {
+        this.currentBook = null;
+        this.isEditMode = false;
+        
+        titleLabel.setText("Add New Book");
+        
+        titleField.clear();
+        authorField.clear();
+        categoryField.clear();
+        isbnField.clear();
+        totalCopiesSpinner.getValueFactory().setValue(1);
+        availableCopiesSpinner.getValueFactory().setValue(1);
+    }
+    
     /**
      * Set book for editing
      */
@@ -5,25 +5,42 @@ import com.library.Main;
 import com.library.models.Issue;
 import com.library.models.User;
 import com.library.models.UserRole;
-import com.library.utils.DateUtils;
+import com.library.utils.CirculationMetrics;
+import com.library.utils.DatabaseConstants;
+import com.library.utils.DayClock;
+import com.library.utils.DueDateScheduler;
+import com.library.utils.HoldQueue;
+import com.library.utils.LoginRateLimiter;
+import com.library.utils.ViewManager;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
+import javafx.geometry.Insets;
 import javafx.scene.control.*;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
 import javafx.scene.layout.VBox;
-import javafx.stage.Modality;
+import javafx.scene.shape.Polyline;
 import javafx.stage.Stage;
 
 import java.net.URL;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Controller for the main dashboard
@@ -50,23 +67,68 @@ public class DashboardController implements Initializable {
     @FXML private Label activeIssuesLabel;
     @FXML private Label overdueIssuesLabel;
     
+    // Desk activity area
+    @FXML private VBox activityArea;
+    @FXML private HBox activityCards;
+    @FXML private Label loginThrottleLabel;
+    
     // Notifications area
     @FXML private VBox notificationsArea;
     @FXML private ListView<String> notificationsList;
     
     private User currentUser;
+    private final DueDateScheduler.Listener loanStatusListener = this::onLoanStatusChanged;
+    
+    // Background refresh
+    private final InvalidationListener visibilityListener = obs -> onVisibilityChanged();
+    private ScheduledExecutorService refresher;
+    private Connection refreshConnection;
+    private volatile boolean refreshPaused;
+    private volatile int[] lastStats;
+    private volatile List<String> lastNotifications;
+    
+    // Desk activity sparklines
+    private static final double SPARKLINE_WIDTH = 180;
+    private static final double SPARKLINE_HEIGHT = 36;
+    private final Map<CirculationMetrics.Event, Polyline> minuteSparklines = new EnumMap<>(CirculationMetrics.Event.class);
+    private final Map<CirculationMetrics.Event, Polyline> hourSparklines = new EnumMap<>(CirculationMetrics.Event.class);
+    private final Map<CirculationMetrics.Event, Label> activitySummaries = new EnumMap<>(CirculationMetrics.Event.class);
     
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         currentUser = LoginController.getCurrentUser();
         
         if (currentUser != null) {
+            // Students only see their own loans
+            DueDateScheduler.start(currentUser.getRole() == UserRole.STUDENT ? currentUser.getUserId() : null);
+            HoldQueue.start();
+            DueDateScheduler.addListener(loanStatusListener);
+            
             setupUserInterface();
             loadDashboardStatistics();
             loadNotifications();
+            setupActivityPanel();
+            startAutoRefresh();
+            preloadWindows();
         }
     }
     
+    /**
+     * Build the windows this user can open while the dashboard is idle
+     */
+    private void preloadWindows() {
+        List<ViewManager.View> views = new ArrayList<>();
+        views.add(ViewManager.View.ISSUE_RETURN);
+        views.add(ViewManager.View.BOOKS);
+        if (usersButton.isVisible()) {
+            views.add(ViewManager.View.USERS);
+        }
+        if (reportsButton.isVisible()) {
+            views.add(ViewManager.View.REPORTS);
+        }
+        ViewManager.preload(views);
+    }
+    
     /**
      * Setup UI based on user role
      */
@@ -86,192 +148,312 @@ public class DashboardController implements Initializable {
         reportsButton.setVisible(role == UserRole.LIBRARIAN || role == UserRole.FACULTY);
         
         // Set button actions
-        booksButton.setOnAction(e -> openBooksWindow());
-        usersButton.setOnAction(e -> openUsersWindow());
-        issueReturnButton.setOnAction(e -> openIssueReturnWindow());
-        reportsButton.setOnAction(e -> openReportsWindow());
-        logoutButton.setOnAction(e -> LoginController.logout());
+        booksButton.setOnAction(e -> openWindow(ViewManager.View.BOOKS));
+        usersButton.setOnAction(e -> openWindow(ViewManager.View.USERS));
+        issueReturnButton.setOnAction(e -> openWindow(ViewManager.View.ISSUE_RETURN));
+        reportsButton.setOnAction(e -> openWindow(ViewManager.View.REPORTS));
+        logoutButton.setOnAction(e -> {
+            dispose();
+            LoginController.logout();
+        });
     }
     
     /**
      * Load dashboard statistics
      */
     private void loadDashboardStatistics() {
+        Connection conn = Database.getConnection();
+        if (conn == null) {
+            return;
+        }
+        
         try {
-            // Total books
-            ResultSet rs = Database.executeQuery("SELECT COUNT(*) as count FROM books WHERE is_active = 1");
-            if (rs != null && rs.next()) {
-                totalBooksLabel.setText(String.valueOf(rs.getInt("count")));
+            int[] stats = readStatistics(conn);
+            if (stats != null) {
+                applyStatistics(stats);
             }
-            
-            // Available books
-            rs = Database.executeQuery("SELECT SUM(available_copies) as count FROM books WHERE is_active = 1");
-            if (rs != null && rs.next()) {
-                availableBooksLabel.setText(String.valueOf(rs.getInt("count")));
-            }
-            
-            // Total users
-            rs = Database.executeQuery("SELECT COUNT(*) as count FROM users WHERE is_active = 1");
-            if (rs != null && rs.next()) {
-                totalUsersLabel.setText(String.valueOf(rs.getInt("count")));
-            }
-            
-            // Active issues
-            rs = Database.executeQuery("SELECT COUNT(*) as count FROM book_issues WHERE is_returned = 0");
-            if (rs != null && rs.next()) {
-                activeIssuesLabel.setText(String.valueOf(rs.getInt("count")));
-            }
-            
-            // Overdue issues
-            rs = Database.executeQuery("SELECT COUNT(*) as count FROM book_issues WHERE is_returned = 0 AND due_date < CURDATE()");
-            if (rs != null && rs.next()) {
-                overdueIssuesLabel.setText(String.valueOf(rs.getInt("count")));
-            }
-            
         } catch (SQLException e) {
             e.printStackTrace();
         }
     }
     
     /**
-     * Load user notifications
+     * Read dashboard counters
+     * Counters come from the trigger-maintained library_stats row;
+     * the overdue count is counted on the idx_open_due_date index, since
+     * the due date scheduler only holds this desk's scope of loans
      */
-    private void loadNotifications() {
-        ObservableList<String> notifications = FXCollections.observableArrayList();
+    private int[] readStatistics(Connection conn) throws SQLException {
+        String query = "SELECT s.total_books, s.available_copies, s.total_users, s.active_issues, "
+            + "(SELECT COUNT(*) FROM book_issues WHERE is_returned = 0 AND due_date < ?) AS overdue_issues "
+            + "FROM " + DatabaseConstants.TABLE_LIBRARY_STATS + " s WHERE s.stats_id = 1";
         
-        try {
-            // Get user's overdue books
-            String overdueQuery = """
-                SELECT b.title, bi.due_date 
-                FROM book_issues bi 
-                JOIN books b ON bi.book_id = b.book_id 
-                WHERE bi.user_id = ? AND bi.is_returned = 0 AND bi.due_date < CURDATE()
-                """;
-            
-            ResultSet rs = Database.executeQuery(overdueQuery, currentUser.getUserId());
-            while (rs != null && rs.next()) {
-                String title = rs.getString("title");
-                LocalDate dueDate = rs.getDate("due_date").toLocalDate();
-                notifications.add("OVERDUE: \"" + title + "\" was due on " + DateUtils.formatForDisplay(dueDate));
+        try (PreparedStatement stmt = Database.prepare(conn, query, DayClock.today());
+             ResultSet rs = stmt.executeQuery()) {
+            if (!rs.next()) {
+                return null;
             }
-            
-            // Get books due soon
-            String dueSoonQuery = """
-                SELECT b.title, bi.due_date 
-                FROM book_issues bi 
-                JOIN books b ON bi.book_id = b.book_id 
-                WHERE bi.user_id = ? AND bi.is_returned = 0 
-                AND bi.due_date BETWEEN CURDATE() AND DATE_ADD(CURDATE(), INTERVAL 2 DAY)
-                """;
-            
-            rs = Database.executeQuery(dueSoonQuery, currentUser.getUserId());
-            while (rs != null && rs.next()) {
-                String title = rs.getString("title");
-                LocalDate dueDate = rs.getDate("due_date").toLocalDate();
-                notifications.add("DUE SOON: \"" + title + "\" is due on " + DateUtils.formatForDisplay(dueDate));
+            return new int[] {
+                rs.getInt("total_books"),
+                rs.getInt("available_copies"),
+                rs.getInt("total_users"),
+                rs.getInt("active_issues"),
+                rs.getInt("overdue_issues")
+            };
+        }
+    }
+    
+    /**
+     * Update only the statistic labels whose values changed
+     */
+    private void applyStatistics(int[] stats) {
+        Label[] labels = { totalBooksLabel, availableBooksLabel, totalUsersLabel, activeIssuesLabel, overdueIssuesLabel };
+        for (int i = 0; i < labels.length; i++) {
+            if (lastStats == null || lastStats[i] != stats[i]) {
+                labels[i].setText(String.valueOf(stats[i]));
             }
-            
-            if (notifications.isEmpty()) {
-                notifications.add("No notifications at this time.");
+        }
+        lastStats = stats;
+    }
+    
+    /**
+     * Start polling statistics in the background
+     * Polling pauses while the main window is minimized or hidden
+     */
+    private void startAutoRefresh() {
+        Stage stage = Main.getPrimaryStage();
+        refreshPaused = stage.isIconified() || !stage.isShowing();
+        stage.iconifiedProperty().addListener(visibilityListener);
+        stage.showingProperty().addListener(visibilityListener);
+        
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "dashboard-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refreshInBackground,
+            DatabaseConstants.DASHBOARD_REFRESH_SECONDS, DatabaseConstants.DASHBOARD_REFRESH_SECONDS, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Pause or resume polling as the main window is minimized or restored
+     */
+    private void onVisibilityChanged() {
+        Stage stage = Main.getPrimaryStage();
+        boolean paused = stage.isIconified() || !stage.isShowing();
+        boolean resumed = refreshPaused && !paused;
+        refreshPaused = paused;
+        
+        // Catch up immediately instead of waiting for the next tick
+        if (resumed && refresher != null) {
+            refresher.execute(this::refreshInBackground);
+        }
+    }
+    
+    /**
+     * Poll statistics on the refresher thread's own connection
+     */
+    private void refreshInBackground() {
+        if (refreshPaused) {
+            return;
+        }
+        
+        try {
+            if (refreshConnection == null || !refreshConnection.isValid(DatabaseConstants.VALIDATION_TIMEOUT_SECONDS)) {
+                closeRefreshConnection();
+                refreshConnection = Database.openConnection();
             }
             
-            notificationsList.setItems(notifications);
-            
+            int[] stats = readStatistics(refreshConnection);
+            if (stats != null && !Arrays.equals(stats, lastStats)) {
+                Platform.runLater(() -> applyStatistics(stats));
+            }
         } catch (SQLException e) {
-            e.printStackTrace();
-            notifications.add("Error loading notifications.");
-            notificationsList.setItems(notifications);
+            // Database unreachable; try again on the next tick
+            closeRefreshConnection();
+        }
+        
+        if (!activitySummaries.isEmpty()) {
+            Platform.runLater(this::loadActivityMetrics);
+        }
+        
+        List<String> notifications = DueDateScheduler.getNotifications(currentUser.getUserId());
+        if (!notifications.equals(lastNotifications)) {
+            Platform.runLater(this::loadNotifications);
+        }
+    }
+    
+    private void closeRefreshConnection() {
+        if (refreshConnection != null) {
+            try {
+                refreshConnection.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+            refreshConnection = null;
         }
     }
     
     /**
-     * Open books management window
+     * Build desk activity sparklines for librarians
      */
-    private void openBooksWindow() {
-        try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/BookTable.fxml"));
-            Parent root = loader.load();
+    private void setupActivityPanel() {
+        boolean librarian = currentUser.getRole() == UserRole.LIBRARIAN;
+        activityArea.setVisible(librarian);
+        activityArea.setManaged(librarian);
+        if (!librarian) {
+            return;
+        }
+        
+        for (CirculationMetrics.Event event : CirculationMetrics.Event.values()) {
+            Polyline minuteLine = createSparkline();
+            Polyline hourLine = createSparkline();
+            Label summary = new Label();
+            summary.getStyleClass().add("sparkline-caption");
             
-            Stage stage = new Stage();
-            stage.setTitle("Books Management");
-            stage.initModality(Modality.WINDOW_MODAL);
-            stage.initOwner(Main.getPrimaryStage());
+            Label title = new Label(event.getDisplayName());
+            title.getStyleClass().add("stat-label");
+            Label minuteCaption = new Label("Last 60 minutes");
+            minuteCaption.getStyleClass().add("sparkline-caption");
+            Label hourCaption = new Label("Last 24 hours");
+            hourCaption.getStyleClass().add("sparkline-caption");
             
-            Scene scene = new Scene(root, 1000, 700);
-            stage.setScene(scene);
-            stage.show();
+            VBox card = new VBox(6, title, summary, sparklinePane(minuteLine), minuteCaption, 
+                                 sparklinePane(hourLine), hourCaption);
+            card.getStyleClass().add("stat-card");
+            card.setPadding(new Insets(15));
+            activityCards.getChildren().add(card);
             
-        } catch (Exception e) {
-            showError("Error opening books window: " + e.getMessage());
-            e.printStackTrace();
+            minuteSparklines.put(event, minuteLine);
+            hourSparklines.put(event, hourLine);
+            activitySummaries.put(event, summary);
         }
+        
+        loadActivityMetrics();
     }
     
     /**
-     * Open users management window
+     * Redraw sparklines from the in-process metrics
      */
-    private void openUsersWindow() {
-        try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/UserForm.fxml"));
-            Parent root = loader.load();
-            
-            Stage stage = new Stage();
-            stage.setTitle("Users Management");
-            stage.initModality(Modality.WINDOW_MODAL);
-            stage.initOwner(Main.getPrimaryStage());
+    private void loadActivityMetrics() {
+        for (Map.Entry<CirculationMetrics.Event, Label> entry : activitySummaries.entrySet()) {
+            CirculationMetrics.Event event = entry.getKey();
+            long[] minutes = CirculationMetrics.getMinuteSeries(event);
+            long[] hours = CirculationMetrics.getHourSeries(event);
             
-            Scene scene = new Scene(root, 800, 600);
-            stage.setScene(scene);
-            stage.show();
+            plotSparkline(minuteSparklines.get(event), minutes);
+            plotSparkline(hourSparklines.get(event), hours);
             
-        } catch (Exception e) {
-            showError("Error opening users window: " + e.getMessage());
-            e.printStackTrace();
+            // Peak hour over the last day, as local hour of day
+            int peak = 0;
+            for (int i = 1; i < hours.length; i++) {
+                if (hours[i] > hours[peak]) {
+                    peak = i;
+                }
+            }
+            String summary = hours[hours.length - 1] + " this hour";
+            if (hours[peak] > 0) {
+                int peakHour = LocalDateTime.now().minusHours(hours.length - 1 - peak).getHour();
+                summary += String.format(", peak %02d:00 (%d)", peakHour, hours[peak]);
+            }
+            entry.getValue().setText(summary);
         }
+        
+        loginThrottleLabel.setText(String.format("Logins: %d allowed, %d failed, %d rejected while locked out, %d lockouts",
+            LoginRateLimiter.getAllowedCount(), LoginRateLimiter.getFailureCount(),
+            LoginRateLimiter.getRejectedCount(), LoginRateLimiter.getLockoutCount()));
+    }
+    
+    private Polyline createSparkline() {
+        Polyline line = new Polyline();
+        line.getStyleClass().add("sparkline");
+        return line;
+    }
+    
+    private Pane sparklinePane(Polyline line) {
+        Pane pane = new Pane(line);
+        pane.setMinSize(SPARKLINE_WIDTH, SPARKLINE_HEIGHT);
+        pane.setPrefSize(SPARKLINE_WIDTH, SPARKLINE_HEIGHT);
+        pane.setMaxSize(SPARKLINE_WIDTH, SPARKLINE_HEIGHT);
+        return pane;
     }
     
     /**
-     * Open issue/return window
+     * Scale a series into the sparkline's fixed box
      */
-    private void openIssueReturnWindow() {
-        try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/IssueReturn.fxml"));
-            Parent root = loader.load();
-            
-            Stage stage = new Stage();
-            stage.setTitle("Issue & Return Books");
-            stage.initModality(Modality.WINDOW_MODAL);
-            stage.initOwner(Main.getPrimaryStage());
-            
-            Scene scene = new Scene(root, 900, 650);
-            stage.setScene(scene);
-            stage.show();
-            
-        } catch (Exception e) {
-            showError("Error opening issue/return window: " + e.getMessage());
-            e.printStackTrace();
+    private void plotSparkline(Polyline line, long[] series) {
+        long max = 1;
+        for (long value : series) {
+            max = Math.max(max, value);
+        }
+        
+        Double[] points = new Double[series.length * 2];
+        double step = SPARKLINE_WIDTH / (series.length - 1);
+        for (int i = 0; i < series.length; i++) {
+            points[i * 2] = i * step;
+            points[i * 2 + 1] = SPARKLINE_HEIGHT - 1 - (SPARKLINE_HEIGHT - 2) * series[i] / max;
+        }
+        line.getPoints().setAll(points);
+    }
+    
+    /**
+     * Load user notifications
+     */
+    private void loadNotifications() {
+        lastNotifications = DueDateScheduler.getNotifications(currentUser.getUserId());
+        ObservableList<String> notifications = FXCollections.observableArrayList(lastNotifications);
+        
+        if (notifications.isEmpty()) {
+            notifications.add("No notifications at this time.");
+        }
+        
+        notificationsList.setItems(notifications);
+    }
+    
+    /**
+     * Refresh overdue count and notifications when a loan changes status
+     */
+    private void onLoanStatusChanged(DueDateScheduler.Loan loan, String oldStatus) {
+        if (DueDateScheduler.STATUS_OVERDUE.equals(loan.getStatus())) {
+            // Recount across all desks rather than this desk's scheduler
+            Platform.runLater(() -> {
+                if (refresher != null && !refresher.isShutdown()) {
+                    refresher.execute(this::refreshInBackground);
+                }
+            });
+        }
+        if (loan.getUserId() == currentUser.getUserId()) {
+            Platform.runLater(this::loadNotifications);
+        }
+    }
+    
+    /**
+     * Release scheduler listeners and cached windows before leaving the dashboard
+     */
+    private void dispose() {
+        DueDateScheduler.removeListener(loanStatusListener);
+        ViewManager.clear();
+        
+        Stage stage = Main.getPrimaryStage();
+        stage.iconifiedProperty().removeListener(visibilityListener);
+        stage.showingProperty().removeListener(visibilityListener);
+        
+        if (refresher != null) {
+            // Periodic polling is cancelled on shutdown; the close still runs
+            refresher.execute(this::closeRefreshConnection);
+            refresher.shutdown();
+            refresher = null;
         }
     }
     
     /**
-     * Open reports window
+     * Open a management window, reusing it if it was opened before
      */
-    private void openReportsWindow() {
+    private void openWindow(ViewManager.View view) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/Report.fxml"));
-            Parent root = loader.load();
-            
-            Stage stage = new Stage();
-            stage.setTitle("Reports");
-            stage.initModality(Modality.WINDOW_MODAL);
-            stage.initOwner(Main.getPrimaryStage());
-            
-            Scene scene = new Scene(root, 1000, 700);
-            stage.setScene(scene);
-            stage.show();
-            
+            ViewManager.show(view);
         } catch (Exception e) {
-            showError("Error opening reports window: " + e.getMessage());
+            showError("Error opening " + view.getTitle() + " window: " + e.getMessage());
             e.printStackTrace();
         }
     }
@@ -3,27 +3,45 @@ package com.library.controllers;
 import com.library.Database;
 import com.library.models.Book;
 import com.library.models.Issue;
+import com.library.models.IssueStatus;
 import com.library.models.User;
-import com.library.models.UserRole;
 import com.library.utils.DateUtils;
+import com.library.utils.CirculationService;
+import com.library.utils.DatabaseConstants;
+import com.library.utils.DayClock;
+import com.library.utils.HoldQueue;
+import com.library.utils.OfflineJournal;
+import com.library.utils.ProgressiveLoader;
+import com.library.utils.UserDirectory;
+import com.library.utils.ViewManager;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.util.Duration;
 
+import java.io.IOException;
 import java.net.URL;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.function.Consumer;
 
 /**
  * Controller for book issue and return operations
  * Handles borrowing and returning books with fine calculations
  */
-public class IssueReturnController implements Initializable {
+public class IssueReturnController implements Initializable, ViewManager.Refreshable {
     
     // Issue Book Tab
     @FXML private Tab issueTab;
@@ -42,21 +60,38 @@ public class IssueReturnController implements Initializable {
     @FXML private Button returnBookButton;
     @FXML private Button calculateFineButton;
     
+    // Reserve Book Tab
+    @FXML private Tab reserveTab;
+    @FXML private ComboBox<User> userComboReserve;
+    @FXML private ComboBox<Book> bookComboReserve;
+    @FXML private Label holdStatusLabel;
+    @FXML private Button placeHoldButton;
+    
     // Active Issues Table
     @FXML private TableView<Issue> activeIssuesTable;
     @FXML private TableColumn<Issue, Integer> issueIdColumn;
     @FXML private TableColumn<Issue, String> bookTitleColumn;
     @FXML private TableColumn<Issue, String> userNameColumn;
-    @FXML private TableColumn<Issue, String> issueDateColumn;
-    @FXML private TableColumn<Issue, String> dueDateColumn;
-    @FXML private TableColumn<Issue, String> statusColumn;
+    @FXML private TableColumn<Issue, LocalDate> issueDateColumn;
+    @FXML private TableColumn<Issue, LocalDate> dueDateColumn;
+    @FXML private TableColumn<Issue, IssueStatus> statusColumn;
     
     @FXML private Button refreshButton;
     
-    private ObservableList<User> users;
     private ObservableList<Book> availableBooks;
+    private ObservableList<Book> unavailableBooks;
     private ObservableList<Issue> userIssues;
     private ObservableList<Issue> activeIssues;
+    private ProgressiveLoader<Issue> issueLoader;
+    
+    // Server time the active issues are current as of; null forces a full reload
+    private Timestamp issuesSince;
+    
+    private final Consumer<LocalDate> dayListener = day -> Platform.runLater(() -> {
+        for (Issue issue : activeIssues) {
+            issue.refreshStatus();
+        }
+    });
     
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -75,15 +110,17 @@ public class IssueReturnController implements Initializable {
      * Setup form controls
      */
     private void setupControls() {
-        users = FXCollections.observableArrayList();
         availableBooks = FXCollections.observableArrayList();
+        unavailableBooks = FXCollections.observableArrayList();
         userIssues = FXCollections.observableArrayList();
         activeIssues = FXCollections.observableArrayList();
         
-        userComboIssue.setItems(users);
+        setupUserPicker(userComboIssue);
         bookComboIssue.setItems(availableBooks);
-        userComboReturn.setItems(users);
+        setupUserPicker(userComboReturn);
         issueComboReturn.setItems(userIssues);
+        setupUserPicker(userComboReserve);
+        bookComboReserve.setItems(unavailableBooks);
         
         // Auto-calculate due date when issue date changes
         issueDatePicker.valueProperty().addListener((obs, oldDate, newDate) -> {
@@ -102,29 +139,24 @@ public class IssueReturnController implements Initializable {
         // Calculate fine when return date or issue is changed
         returnDatePicker.valueProperty().addListener((obs, oldDate, newDate) -> calculateFine());
         issueComboReturn.valueProperty().addListener((obs, oldIssue, newIssue) -> calculateFine());
+        
+        // Show queue position for the selected user and book
+        userComboReserve.valueProperty().addListener((obs, oldUser, newUser) -> updateHoldStatus());
+        bookComboReserve.valueProperty().addListener((obs, oldBook, newBook) -> updateHoldStatus());
     }
     
     /**
      * Setup active issues table
      */
     private void setupTable() {
-        issueIdColumn.setCellValueFactory(new PropertyValueFactory<>("issueId"));
-        bookTitleColumn.setCellValueFactory(new PropertyValueFactory<>("bookTitle"));
-        userNameColumn.setCellValueFactory(new PropertyValueFactory<>("userFullName"));
+        issueIdColumn.setCellValueFactory(cellData -> cellData.getValue().issueIdProperty().asObject());
+        bookTitleColumn.setCellValueFactory(cellData -> cellData.getValue().bookTitleProperty());
+        userNameColumn.setCellValueFactory(cellData -> cellData.getValue().userFullNameProperty());
+        issueDateColumn.setCellValueFactory(cellData -> cellData.getValue().issueDateProperty());
+        dueDateColumn.setCellValueFactory(cellData -> cellData.getValue().dueDateProperty());
         
-        issueDateColumn.setCellValueFactory(cellData -> 
-            cellData.getValue().issueDateProperty().asString()
-        );
-        dueDateColumn.setCellValueFactory(cellData -> 
-            cellData.getValue().dueDateProperty().asString()
-        );
-        statusColumn.setCellValueFactory(cellData -> 
-            javafx.beans.binding.Bindings.createStringBinding(
-                () -> cellData.getValue().getStatus(),
-                cellData.getValue().dueDateProperty(),
-                cellData.getValue().isReturnedProperty()
-            )
-        );
+        // Status is kept on the issue and refreshed when the date rolls over
+        statusColumn.setCellValueFactory(cellData -> cellData.getValue().statusProperty());
         
         activeIssuesTable.setItems(activeIssues);
     }
@@ -136,6 +168,7 @@ public class IssueReturnController implements Initializable {
         issueBookButton.setOnAction(e -> issueBook());
         returnBookButton.setOnAction(e -> returnBook());
         calculateFineButton.setOnAction(e -> calculateFine());
+        placeHoldButton.setOnAction(e -> placeHold());
         refreshButton.setOnAction(e -> loadData());
     }
     
@@ -143,58 +176,170 @@ public class IssueReturnController implements Initializable {
      * Load all necessary data
      */
     private void loadData() {
-        loadUsers();
+        refreshUserPickers();
         loadAvailableBooks();
+        loadUnavailableBooks();
         loadActiveIssues();
     }
     
     /**
-     * Load all active users
+     * Bring the window up to date when it is shown again
+     * Active issues are merged incrementally; the book pickers are reloaded.
+     */
+    @Override
+    public void refresh() {
+        for (Issue issue : activeIssues) {
+            issue.refreshStatus();
+        }
+        
+        LocalDate today = DayClock.today();
+        issueDatePicker.setValue(today);
+        dueDatePicker.setValue(DateUtils.calculateDueDate(today));
+        returnDatePicker.setValue(today);
+        
+        refreshUserPickers();
+        loadAvailableBooks();
+        loadUnavailableBooks();
+        loadActiveIssueChanges();
+    }
+    
+    /**
+     * Follow date rollovers while the window is showing
+     */
+    @Override
+    public void resume() {
+        DayClock.addListener(dayListener);
+    }
+    
+    /**
+     * Stop date rollover updates and streaming while the window is hidden
+     */
+    @Override
+    public void suspend() {
+        DayClock.removeListener(dayListener);
+        if (issueLoader != null && issueLoader.isRunning()) {
+            issueLoader.cancel();
+        }
+    }
+    
+    /**
+     * Make a user combo searchable by name, username or email
+     * Only the first active matches are offered, fetched as the librarian types
+     */
+    private void setupUserPicker(ComboBox<User> combo) {
+        combo.setEditable(true);
+        combo.setItems(FXCollections.observableArrayList());
+        combo.setConverter(new javafx.util.StringConverter<>() {
+            @Override
+            public String toString(User user) {
+                return user == null ? "" : user.toString();
+            }
+            
+            @Override
+            public User fromString(String text) {
+                for (User user : combo.getItems()) {
+                    if (user.toString().equals(text)) {
+                        return user;
+                    }
+                }
+                return null;
+            }
+        });
+        
+        PauseTransition searchDelay = new PauseTransition(Duration.millis(DatabaseConstants.USER_SEARCH_DELAY_MS));
+        searchDelay.setOnFinished(e -> searchUsers(combo));
+        combo.getEditor().textProperty().addListener((obs, oldText, newText) -> {
+            // Picking a user fills in its own text; only typing searches
+            User user = combo.getValue();
+            if (user == null || !user.toString().equals(newText)) {
+                searchDelay.playFromStart();
+            }
+        });
+    }
+    
+    /**
+     * Offer the users matching the text typed into a picker
+     */
+    private void searchUsers(ComboBox<User> combo) {
+        String text = combo.getEditor().getText();
+        int caret = combo.getEditor().getCaretPosition();
+        try {
+            List<User> matches = UserDirectory.search(text, true, null, DatabaseConstants.USER_SEARCH_LIMIT);
+            combo.getItems().setAll(matches);
+            
+            // Replacing the items may rewrite the editor from the old value
+            if (!combo.getEditor().getText().equals(text)) {
+                combo.getEditor().setText(text);
+                combo.getEditor().positionCaret(caret);
+            }
+            if (combo.getEditor().isFocused() && !matches.isEmpty()) {
+                combo.show();
+            }
+        } catch (SQLException e) {
+            showError("Error loading users: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Reload the first matches of pickers with no user chosen
+     */
+    private void refreshUserPickers() {
+        for (ComboBox<User> combo : List.of(userComboIssue, userComboReturn, userComboReserve)) {
+            if (combo.getValue() == null) {
+                searchUsers(combo);
+            }
+        }
+    }
+    
+    /**
+     * Load available books (books with available copies > 0 or a copy on the hold shelf)
      */
-    private void loadUsers() {
-        users.clear();
+    private void loadAvailableBooks() {
+        availableBooks.clear();
         
         String query = """
-            SELECT user_id, username, first_name, last_name, email, 
-                   phone_number, role, is_active
-            FROM users 
+            SELECT book_id, title, author, category, isbn, 
+                   total_copies, available_copies, is_active
+            FROM books 
             WHERE is_active = 1 
-            ORDER BY first_name, last_name
+              AND (available_copies > 0 
+                   OR book_id IN (SELECT book_id FROM book_reservations WHERE status = 'Ready'))
+            ORDER BY title
             """;
         
         try {
             ResultSet rs = Database.executeQuery(query);
             while (rs != null && rs.next()) {
-                User user = new User(
-                    rs.getInt("user_id"),
-                    rs.getString("username"),
-                    "", // Don't load password
-                    rs.getString("first_name"),
-                    rs.getString("last_name"),
-                    rs.getString("email"),
-                    rs.getString("phone_number"),
-                    UserRole.fromString(rs.getString("role")),
+                Book book = new Book(
+                    rs.getInt("book_id"),
+                    rs.getString("title"),
+                    rs.getString("author"),
+                    rs.getString("category"),
+                    rs.getString("isbn"),
+                    rs.getInt("total_copies"),
+                    rs.getInt("available_copies"),
                     rs.getBoolean("is_active")
                 );
-                users.add(user);
+                availableBooks.add(book);
             }
         } catch (SQLException e) {
-            showError("Error loading users: " + e.getMessage());
+            showError("Error loading available books: " + e.getMessage());
             e.printStackTrace();
         }
     }
     
     /**
-     * Load available books (books with available copies > 0)
+     * Load books with no copies on the shelf, which can be reserved
      */
-    private void loadAvailableBooks() {
-        availableBooks.clear();
+    private void loadUnavailableBooks() {
+        unavailableBooks.clear();
         
         String query = """
             SELECT book_id, title, author, category, isbn, 
                    total_copies, available_copies, is_active
             FROM books 
-            WHERE is_active = 1 AND available_copies > 0
+            WHERE is_active = 1 AND available_copies = 0
             ORDER BY title
             """;
         
@@ -211,19 +356,28 @@ public class IssueReturnController implements Initializable {
                     rs.getInt("available_copies"),
                     rs.getBoolean("is_active")
                 );
-                availableBooks.add(book);
+                unavailableBooks.add(book);
             }
         } catch (SQLException e) {
-            showError("Error loading available books: " + e.getMessage());
+            showError("Error loading unavailable books: " + e.getMessage());
             e.printStackTrace();
         }
     }
     
     /**
      * Load active issues for display
+     * Issues stream in from a background cursor, most urgent first.
      */
     private void loadActiveIssues() {
+        if (issueLoader != null) {
+            issueLoader.cancel();
+        }
         activeIssues.clear();
+        try {
+            issuesSince = Database.serverTime();
+        } catch (SQLException e) {
+            issuesSince = null;
+        }
         
         String query = """
             SELECT bi.issue_id, bi.book_id, bi.user_id, bi.issue_date, 
@@ -237,29 +391,91 @@ public class IssueReturnController implements Initializable {
             ORDER BY bi.due_date
             """;
         
+        ProgressiveLoader<Issue> loader = new ProgressiveLoader<>(query, this::mapActiveIssue, activeIssues::addAll);
+        loader.setOnFailed(e -> {
+            issuesSince = null;
+            Throwable error = loader.getException();
+            showError("Error loading active issues: " + error.getMessage());
+            error.printStackTrace();
+        });
+        loader.setOnCancelled(e -> {
+            if (issueLoader == loader) {
+                issuesSince = null;
+            }
+        });
+        issueLoader = loader.start();
+    }
+    
+    /**
+     * Merge issues made or returned since the last load
+     */
+    private void loadActiveIssueChanges() {
+        if (issuesSince == null) {
+            loadActiveIssues();
+            return;
+        }
+        if (issueLoader != null && issueLoader.isRunning()) {
+            return;
+        }
+        
+        String query = """
+            SELECT bi.issue_id, bi.book_id, bi.user_id, bi.issue_date, 
+                   bi.due_date, bi.return_date, bi.fine_amount, bi.is_returned,
+                   b.title as book_title, 
+                   CONCAT(u.first_name, ' ', u.last_name) as user_name
+            FROM book_issues bi
+            JOIN books b ON bi.book_id = b.book_id
+            JOIN users u ON bi.user_id = u.user_id
+            WHERE bi.updated_at >= ?
+            """;
+        
         try {
-            ResultSet rs = Database.executeQuery(query);
+            Timestamp since = issuesSince;
+            issuesSince = Database.serverTime();
+            
+            Map<Integer, Issue> changed = new HashMap<>();
+            ResultSet rs = Database.executeQuery(query, since);
             while (rs != null && rs.next()) {
-                Issue issue = new Issue(
-                    rs.getInt("issue_id"),
-                    rs.getInt("book_id"),
-                    rs.getInt("user_id"),
-                    rs.getDate("issue_date").toLocalDate(),
-                    rs.getDate("due_date").toLocalDate(),
-                    rs.getDate("return_date") != null ? rs.getDate("return_date").toLocalDate() : null,
-                    rs.getDouble("fine_amount"),
-                    rs.getBoolean("is_returned")
-                );
-                issue.setBookTitle(rs.getString("book_title"));
-                issue.setUserFullName(rs.getString("user_name"));
-                activeIssues.add(issue);
+                Issue issue = mapActiveIssue(rs);
+                changed.put(issue.getIssueId(), issue);
+            }
+            if (changed.isEmpty()) {
+                return;
+            }
+            
+            // Replace changed issues, dropping returned ones, and keep due date order
+            activeIssues.removeIf(issue -> changed.containsKey(issue.getIssueId()));
+            Comparator<Issue> byDueDate = Comparator.comparing(Issue::getDueDate);
+            for (Issue issue : changed.values()) {
+                if (!issue.getIsReturned()) {
+                    int index = Collections.binarySearch(activeIssues, issue, byDueDate);
+                    activeIssues.add(index < 0 ? -index - 1 : index, issue);
+                }
             }
+            
         } catch (SQLException e) {
-            showError("Error loading active issues: " + e.getMessage());
+            issuesSince = null;
+            showError("Error refreshing active issues: " + e.getMessage());
             e.printStackTrace();
         }
     }
     
+    private Issue mapActiveIssue(ResultSet rs) throws SQLException {
+        Issue issue = new Issue(
+            rs.getInt("issue_id"),
+            rs.getInt("book_id"),
+            rs.getInt("user_id"),
+            rs.getDate("issue_date").toLocalDate(),
+            rs.getDate("due_date").toLocalDate(),
+            rs.getDate("return_date") != null ? rs.getDate("return_date").toLocalDate() : null,
+            rs.getDouble("fine_amount"),
+            rs.getBoolean("is_returned")
+        );
+        issue.setBookTitle(rs.getString("book_title"));
+        issue.setUserFullName(rs.getString("user_name"));
+        return issue;
+    }
+    
     /**
      * Load active issues for a specific user
      */
@@ -328,18 +544,27 @@ public class IssueReturnController implements Initializable {
             return;
         }
         
-        // Check if book is still available
-        if (!isBookAvailable(selectedBook.getBookId())) {
-            showError("This book is no longer available.");
+        // Journal the issue while the database is unreachable
+        if (!Database.isAvailable()) {
+            issueBookOffline(selectedUser, selectedBook, issueDate, dueDate);
+            return;
+        }
+        
+        // Check if book is still available or set aside for this user
+        boolean hasReadyHold = HoldQueue.findReadyHold(selectedUser.getUserId(), selectedBook.getBookId()) != null;
+        if (!hasReadyHold && !isBookAvailable(selectedBook.getBookId())) {
+            showError(HoldQueue.hasReadyHolds(selectedBook.getBookId())
+                ? "The remaining copies of this book are held for other users."
+                : "This book is no longer available.");
             return;
         }
         
         // Issue the book
-        if (createIssueRecord(selectedUser.getUserId(), selectedBook.getBookId(), issueDate, dueDate)) {
-            // Update book availability
-            updateBookAvailability(selectedBook.getBookId(), -1);
-            
-            showInfo("Book issued successfully!");
+        long issueId = CirculationService.issueBook(selectedUser.getUserId(), selectedBook.getBookId(),
+            selectedBook.getTitle(), issueDate, dueDate);
+        if (issueId > 0) {
+            showInfo(hasReadyHold ? "Book issued successfully! The user's hold has been fulfilled." 
+                                  : "Book issued successfully!");
             clearIssueForm();
             loadData();
         } else {
@@ -372,16 +597,27 @@ public class IssueReturnController implements Initializable {
         // Calculate fine
         double fine = DateUtils.calculateFine(selectedIssue.getDueDate(), returnDate);
         
-        // Update issue record
-        if (updateIssueReturn(selectedIssue.getIssueId(), returnDate, fine)) {
-            // Update book availability
-            updateBookAvailability(selectedIssue.getBookId(), 1);
-            
+        // Journal the return while the database is unreachable
+        if (!Database.isAvailable()) {
+            returnBookOffline(selectedIssue, returnDate, fine);
+            return;
+        }
+        
+        // Update issue record and allocate the copy to the next hold
+        CirculationService.ReturnResult result = CirculationService.returnBook(selectedIssue, returnDate, fine);
+        if (result.isSuccess()) {
+            StringBuilder message = new StringBuilder("Book returned successfully!");
             if (fine > 0) {
-                showInfo(String.format("Book returned successfully!\nFine amount: $%.2f", fine));
-            } else {
-                showInfo("Book returned successfully!");
+                message.append(String.format("\nFine amount: $%.2f", fine));
+            }
+            if (result.getAllocatedHold() != null) {
+                message.append("\nThis copy is reserved for ")
+                       .append(findUserName(result.getAllocatedHold().getUserId()))
+                       .append(" until ")
+                       .append(DateUtils.formatForDisplay(result.getAllocatedHold().getExpiryDate()))
+                       .append(". Please place it on the hold shelf.");
             }
+            showInfo(message.toString());
             
             clearReturnForm();
             loadData();
@@ -390,6 +626,122 @@ public class IssueReturnController implements Initializable {
         }
     }
     
+    /**
+     * Record an issue in the offline journal and update local lists
+     */
+    private void issueBookOffline(User user, Book book, LocalDate issueDate, LocalDate dueDate) {
+        if (book.getAvailableCopies() <= 0) {
+            showError("This book is no longer available.");
+            return;
+        }
+        
+        try {
+            OfflineJournal.recordIssue(user.getUserId(), book.getBookId(), issueDate, dueDate);
+        } catch (IOException e) {
+            e.printStackTrace();
+            showError("Database is unavailable and the offline journal could not be written: " + e.getMessage());
+            return;
+        }
+        
+        book.setAvailableCopies(book.getAvailableCopies() - 1);
+        if (book.getAvailableCopies() == 0) {
+            availableBooks.remove(book);
+        }
+        
+        showInfo("Database is unavailable. The issue was saved offline and will be synchronized when the connection is restored.");
+        clearIssueForm();
+    }
+    
+    /**
+     * Record a return in the offline journal and update local lists
+     */
+    private void returnBookOffline(Issue issue, LocalDate returnDate, double fine) {
+        try {
+            OfflineJournal.recordReturn(issue.getIssueId(), issue.getUserId(), issue.getBookId(), returnDate, fine);
+        } catch (IOException e) {
+            e.printStackTrace();
+            showError("Database is unavailable and the offline journal could not be written: " + e.getMessage());
+            return;
+        }
+        
+        userIssues.remove(issue);
+        activeIssues.removeIf(i -> i.getIssueId() == issue.getIssueId());
+        
+        StringBuilder message = new StringBuilder("Database is unavailable. The return was saved offline and will be synchronized when the connection is restored.");
+        if (fine > 0) {
+            message.append(String.format("\nFine amount: $%.2f", fine));
+        }
+        showInfo(message.toString());
+        clearReturnForm();
+    }
+    
+    /**
+     * Place a hold for the selected user on the selected book
+     */
+    private void placeHold() {
+        User selectedUser = userComboReserve.getValue();
+        Book selectedBook = bookComboReserve.getValue();
+        
+        if (selectedUser == null) {
+            showError("Please select a user.");
+            return;
+        }
+        
+        if (selectedBook == null) {
+            showError("Please select a book.");
+            return;
+        }
+        
+        if (HoldQueue.hasHold(selectedUser.getUserId(), selectedBook.getBookId())) {
+            showError("This user already has a hold on this book.");
+            return;
+        }
+        
+        int position = HoldQueue.placeHold(selectedUser.getUserId(), selectedBook.getBookId());
+        if (position > 0) {
+            showInfo("Hold placed successfully!\nQueue position: " + position);
+            updateHoldStatus();
+        } else {
+            showError("Error placing hold.");
+        }
+    }
+    
+    /**
+     * Show the selected user's hold status for the selected book
+     */
+    private void updateHoldStatus() {
+        User selectedUser = userComboReserve.getValue();
+        Book selectedBook = bookComboReserve.getValue();
+        
+        if (selectedUser == null || selectedBook == null) {
+            holdStatusLabel.setText("");
+            return;
+        }
+        
+        if (HoldQueue.findReadyHold(selectedUser.getUserId(), selectedBook.getBookId()) != null) {
+            holdStatusLabel.setText("A copy is ready for pickup.");
+            return;
+        }
+        
+        int position = HoldQueue.getQueuePosition(selectedUser.getUserId(), selectedBook.getBookId());
+        holdStatusLabel.setText(position > 0 ? "Queue position: " + position : "No hold placed.");
+    }
+    
+    /**
+     * Find display name for a user ID
+     */
+    private String findUserName(int userId) {
+        try {
+            User user = UserDirectory.findById(userId);
+            if (user != null) {
+                return user.getFullName();
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return "user #" + userId;
+    }
+    
     /**
      * Calculate and display fine
      */
@@ -419,39 +771,6 @@ public class IssueReturnController implements Initializable {
         }
     }
     
-    /**
-     * Create issue record in database
-     */
-    private boolean createIssueRecord(int userId, int bookId, LocalDate issueDate, LocalDate dueDate) {
-        String query = """
-            INSERT INTO book_issues (user_id, book_id, issue_date, due_date, is_returned, fine_amount)
-            VALUES (?, ?, ?, ?, 0, 0.0)
-            """;
-        
-        return Database.executeUpdate(query, userId, bookId, issueDate, dueDate) > 0;
-    }
-    
-    /**
-     * Update issue record for return
-     */
-    private boolean updateIssueReturn(int issueId, LocalDate returnDate, double fine) {
-        String query = """
-            UPDATE book_issues 
-            SET return_date = ?, fine_amount = ?, is_returned = 1
-            WHERE issue_id = ?
-            """;
-        
-        return Database.executeUpdate(query, returnDate, fine, issueId) > 0;
-    }
-    
-    /**
-     * Update book availability
-     */
-    private boolean updateBookAvailability(int bookId, int change) {
-        String query = "UPDATE books SET available_copies = available_copies + ? WHERE book_id = ?";
-        return Database.executeUpdate(query, change, bookId) > 0;
-    }
-    
     /**
      * Clear issue form
      */
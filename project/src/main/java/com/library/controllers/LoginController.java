@@ -4,6 +4,7 @@ import com.library.Database;
 import com.library.Main;
 import com.library.models.User;
 import com.library.models.UserRole;
+import com.library.utils.LoginRateLimiter;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
@@ -52,9 +53,26 @@ public class LoginController implements Initializable {
             return;
         }
         
-        // Authenticate user
-        User user = authenticateUser(username, password);
+        // Throttled attempts are turned away before reaching the database
+        long lockoutMillis = LoginRateLimiter.checkAllowed(username);
+        if (lockoutMillis > 0) {
+            showError("Too many failed attempts. Try again in " + (lockoutMillis + 999) / 1000 + " seconds.");
+            passwordField.clear();
+            return;
+        }
+        
+        // Authenticate user; database failures are not counted as failed attempts
+        User user;
+        try {
+            user = authenticateUser(username, password);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            showError("Database error occurred during authentication.");
+            return;
+        }
+        
         if (user != null) {
+            LoginRateLimiter.recordSuccess(username);
             currentUser = user;
             try {
                 Main.showDashboard(user.getRole().getDisplayName());
@@ -63,6 +81,7 @@ public class LoginController implements Initializable {
                 e.printStackTrace();
             }
         } else {
+            LoginRateLimiter.recordFailure(username);
             showError("Invalid username or password.");
             passwordField.clear();
         }
@@ -70,31 +89,30 @@ public class LoginController implements Initializable {
     
     /**
      * Authenticate user against database
+     * @return the user, or null if the credentials do not match
+     * @throws SQLException if the database could not be queried
      */
-    private User authenticateUser(String username, String password) {
+    private User authenticateUser(String username, String password) throws SQLException {
         String query = "SELECT * FROM users WHERE username = ? AND password = ? AND is_active = 1";
         
-        try {
-            ResultSet rs = Database.executeQuery(query, username, password);
-            if (rs != null && rs.next()) {
-                User user = new User();
-                user.setUserId(rs.getInt("user_id"));
-                user.setUsername(rs.getString("username"));
-                user.setPassword(rs.getString("password"));
-                user.setFirstName(rs.getString("first_name"));
-                user.setLastName(rs.getString("last_name"));
-                user.setEmail(rs.getString("email"));
-                user.setPhoneNumber(rs.getString("phone_number"));
-                user.setRole(UserRole.fromString(rs.getString("role")));
-                user.setIsActive(rs.getBoolean("is_active"));
-                
-                return user;
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showError("Database error occurred during authentication.");
+        ResultSet rs = Database.executeQuery(query, username, password);
+        if (rs == null) {
+            throw new SQLException("Database is not available");
+        }
+        if (rs.next()) {
+            User user = new User();
+            user.setUserId(rs.getInt("user_id"));
+            user.setUsername(rs.getString("username"));
+            user.setPassword(rs.getString("password"));
+            user.setFirstName(rs.getString("first_name"));
+            user.setLastName(rs.getString("last_name"));
+            user.setEmail(rs.getString("email"));
+            user.setPhoneNumber(rs.getString("phone_number"));
+            user.setRole(UserRole.fromString(rs.getString("role")));
+            user.setIsActive(rs.getBoolean("is_active"));
+            
+            return user;
         }
-        
         return null;
     }
     
@@ -2,30 +2,86 @@ package com.library.controllers;
 
 import com.library.Database;
 import com.library.models.Issue;
+import com.library.models.IssueStatus;
 import com.library.models.User;
+import com.library.utils.CirculationRollup;
+import com.library.utils.ColumnarExporter;
+import com.library.utils.CsvExporter;
+import com.library.utils.DatabaseConstants;
+import com.library.utils.DateUtils;
+import com.library.utils.DayClock;
+import com.library.utils.ExportJobManager;
+import com.library.utils.ExportJobManager.ExportJob;
+import com.library.utils.LoanDistribution;
+import com.library.utils.LogHistogram;
+import com.library.utils.PopularityTracker;
+import com.library.utils.ReportCache;
+import com.library.utils.SpaceSaving;
+import com.library.utils.ViewManager;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.XYChart;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.FileChooser;
+import javafx.util.Callback;
+import javafx.util.Duration;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
 import java.net.URL;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Controller for reports generation
  * Provides various library reports with export functionality
  */
-public class ReportController implements Initializable {
+public class ReportController implements Initializable, ViewManager.Refreshable {
+    
+    // Filter choices
+    private static final String ALL = "All";
+    private static final String STATUS_ACTIVE = "Active";
+    private static final String STATUS_OVERDUE = "Overdue";
+    private static final String STATUS_RETURNED = "Returned";
+    private static final String PERIOD_MONTHLY = "Month";
+    private static final String PERIOD_ANNUAL = "Year";
+    private static final String POPULAR_THIS_MONTH = "This Month";
+    private static final String POPULAR_LAST_3_MONTHS = "Last 3 Months";
+    private static final String POPULAR_LAST_12_MONTHS = "Last 12 Months";
+    private static final String POPULAR_ALL_TIME = "All Time";
+    private static final String MEASURE_LOAN_DAYS = "Loan length (days)";
+    private static final String MEASURE_LATE_DAYS = "Days late";
     
     @FXML private TabPane reportTabPane;
     
@@ -35,13 +91,22 @@ public class ReportController implements Initializable {
     @FXML private TableColumn<Issue, Integer> allIssueIdColumn;
     @FXML private TableColumn<Issue, String> allBookTitleColumn;
     @FXML private TableColumn<Issue, String> allUserNameColumn;
-    @FXML private TableColumn<Issue, String> allIssueDateColumn;
-    @FXML private TableColumn<Issue, String> allDueDateColumn;
-    @FXML private TableColumn<Issue, String> allReturnDateColumn;
+    @FXML private TableColumn<Issue, LocalDate> allIssueDateColumn;
+    @FXML private TableColumn<Issue, LocalDate> allDueDateColumn;
+    @FXML private TableColumn<Issue, LocalDate> allReturnDateColumn;
     @FXML private TableColumn<Issue, Double> allFineColumn;
-    @FXML private TableColumn<Issue, String> allStatusColumn;
+    @FXML private TableColumn<Issue, IssueStatus> allStatusColumn;
     @FXML private Button exportAllIssuesButton;
+    @FXML private Button exportBinaryButton;
     @FXML private Label allIssuesCountLabel;
+    @FXML private ProgressIndicator allIssuesProgress;
+    @FXML private DatePicker fromDatePicker;
+    @FXML private DatePicker toDatePicker;
+    @FXML private ComboBox<String> roleFilterCombo;
+    @FXML private ComboBox<String> categoryFilterCombo;
+    @FXML private ComboBox<String> statusFilterCombo;
+    @FXML private Button applyFiltersButton;
+    @FXML private Button clearFiltersButton;
     
     // Overdue Books Report
     @FXML private Tab overdueTab;
@@ -49,11 +114,12 @@ public class ReportController implements Initializable {
     @FXML private TableColumn<Issue, Integer> overdueIssueIdColumn;
     @FXML private TableColumn<Issue, String> overdueBookTitleColumn;
     @FXML private TableColumn<Issue, String> overdueUserNameColumn;
-    @FXML private TableColumn<Issue, String> overdueDueDateColumn;
+    @FXML private TableColumn<Issue, LocalDate> overdueDueDateColumn;
     @FXML private TableColumn<Issue, Long> overdueDaysColumn;
     @FXML private TableColumn<Issue, Double> overdueFineColumn;
     @FXML private Button exportOverdueButton;
     @FXML private Label overdueCountLabel;
+    @FXML private ProgressIndicator overdueProgress;
     
     // Active Users Report
     @FXML private Tab activeUsersTab;
@@ -65,18 +131,104 @@ public class ReportController implements Initializable {
     @FXML private TableColumn<UserActivity, Double> totalFinesColumn;
     @FXML private Button exportActiveUsersButton;
     @FXML private Label activeUsersCountLabel;
+    @FXML private ProgressIndicator activeUsersProgress;
+    
+    // Circulation Summary Report
+    @FXML private Tab summaryTab;
+    @FXML private TableView<RollupRow> summaryTable;
+    @FXML private TableColumn<RollupRow, String> summaryPeriodColumn;
+    @FXML private TableColumn<RollupRow, String> summaryCategoryColumn;
+    @FXML private TableColumn<RollupRow, String> summaryRoleColumn;
+    @FXML private TableColumn<RollupRow, Integer> summaryIssuesColumn;
+    @FXML private TableColumn<RollupRow, Integer> summaryReturnsColumn;
+    @FXML private TableColumn<RollupRow, Integer> summaryLateColumn;
+    @FXML private TableColumn<RollupRow, Double> summaryFinesColumn;
+    @FXML private ComboBox<String> summaryPeriodCombo;
+    @FXML private Button rebuildSummaryButton;
+    @FXML private Label summaryCountLabel;
+    @FXML private ProgressIndicator summaryProgress;
+    
+    // Popular Items Report
+    @FXML private Tab popularTab;
+    @FXML private TableView<PopularItem> popularTable;
+    @FXML private TableColumn<PopularItem, Integer> popularRankColumn;
+    @FXML private TableColumn<PopularItem, String> popularItemColumn;
+    @FXML private TableColumn<PopularItem, Long> popularBorrowsColumn;
+    @FXML private TableColumn<PopularItem, Long> popularErrorColumn;
+    @FXML private ComboBox<String> popularPeriodCombo;
+    @FXML private ComboBox<PopularityTracker.Dimension> popularDimensionCombo;
+    @FXML private Label popularCountLabel;
+    @FXML private ProgressIndicator popularProgress;
+    
+    // Loan Duration Report
+    @FXML private Tab durationTab;
+    @FXML private TableView<DurationRow> durationTable;
+    @FXML private TableColumn<DurationRow, String> durationCategoryColumn;
+    @FXML private TableColumn<DurationRow, String> durationRoleColumn;
+    @FXML private TableColumn<DurationRow, Long> durationCountColumn;
+    @FXML private TableColumn<DurationRow, String> durationMeanColumn;
+    @FXML private TableColumn<DurationRow, Long> durationP50Column;
+    @FXML private TableColumn<DurationRow, Long> durationP90Column;
+    @FXML private TableColumn<DurationRow, Long> durationP95Column;
+    @FXML private TableColumn<DurationRow, Long> durationP99Column;
+    @FXML private TableColumn<DurationRow, Long> durationMaxColumn;
+    @FXML private ComboBox<String> durationMeasureCombo;
+    @FXML private BarChart<String, Number> durationChart;
+    @FXML private Label durationCountLabel;
+    @FXML private ProgressIndicator durationProgress;
+    
+    // Export Jobs
+    @FXML private Tab exportsTab;
+    @FXML private TableView<ExportJob> exportJobsTable;
+    @FXML private TableColumn<ExportJob, String> jobNameColumn;
+    @FXML private TableColumn<ExportJob, String> jobFileColumn;
+    @FXML private TableColumn<ExportJob, String> jobStatusColumn;
+    @FXML private TableColumn<ExportJob, String> jobPartsColumn;
+    @FXML private TableColumn<ExportJob, Long> jobRowsColumn;
+    @FXML private TableColumn<ExportJob, Long> jobRateColumn;
+    @FXML private Button cancelExportButton;
+    @FXML private Button resumeExportButton;
+    @FXML private Button clearExportsButton;
+    @FXML private Label exportJobsCountLabel;
     
     @FXML private Button refreshAllButton;
+    @FXML private Label cacheAgeLabel;
     
     private ObservableList<Issue> allIssues;
     private ObservableList<Issue> overdueIssues;
+    private final Consumer<LocalDate> dayListener = day -> Platform.runLater(this::refreshForNewDay);
     private ObservableList<UserActivity> activeUsers;
+    private ObservableList<RollupRow> summaryRows;
+    private ObservableList<PopularItem> popularItems;
+    private ObservableList<DurationRow> durationRows;
+    private List<LoanDistribution.Group> loanGroups = new ArrayList<>();
+    private ObservableList<ExportJob> exportJobs;
+    private Timeline exportJobsRefresh;
+    
+    // Background report loading
+    private final ExecutorService reportExecutor = Executors.newFixedThreadPool(3, r -> {
+        Thread thread = new Thread(r, "report-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<Tab> loadedTabs = new HashSet<>();
+    private final List<Task<?>> runningTasks = new ArrayList<>();
+    private final Map<Tab, Long> tabDataTime = new HashMap<>();
+    
+    // All issues paging state; the generation discards pages from stale filters
+    private IssueFilter issueFilter = new IssueFilter();
+    private Issue lastIssueLoaded;
+    private boolean allIssuesExhausted;
+    private boolean allIssuesPageLoading;
+    private int allIssuesGeneration;
+    private long allIssuesTotal;
     
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         setupTables();
         setupButtons();
-        loadAllReports();
+        setupFilters();
+        setupLazyLoading();
     }
     
     /**
@@ -94,65 +246,199 @@ public class ReportController implements Initializable {
         allIssuesTable.setItems(allIssues);
         overdueTable.setItems(overdueIssues);
         activeUsersTable.setItems(activeUsers);
+        
+        setupSummaryTable();
+        summaryRows = FXCollections.observableArrayList();
+        summaryTable.setItems(summaryRows);
+        
+        setupPopularTable();
+        popularItems = FXCollections.observableArrayList();
+        popularTable.setItems(popularItems);
+        
+        setupDurationTable();
+        durationRows = FXCollections.observableArrayList();
+        durationTable.setItems(durationRows);
+        
+        setupExportJobsTable();
+        exportJobs = FXCollections.observableArrayList();
+        exportJobsTable.setItems(exportJobs);
+    }
+    
+    /**
+     * Setup export jobs table and its once-a-second progress refresh
+     * The refresh runs only while the window is showing; see resume()
+     */
+    private void setupExportJobsTable() {
+        jobNameColumn.setCellValueFactory(value(ExportJob::getName));
+        jobFileColumn.setCellValueFactory(value(ExportJob::getFileName));
+        jobStatusColumn.setCellValueFactory(cellData -> {
+            ExportJob job = cellData.getValue();
+            String status = job.getStatus().getDisplayName();
+            return new SimpleStringProperty(job.getError() != null ? status + ": " + job.getError() : status);
+        });
+        jobPartsColumn.setCellValueFactory(cellData -> new SimpleStringProperty(
+            cellData.getValue().getPartitionsDone() + " / " + cellData.getValue().getPartitionCount()));
+        jobRowsColumn.setCellValueFactory(value(ExportJob::getRows));
+        jobRateColumn.setCellValueFactory(value(ExportJob::getRowsPerSecond));
+        
+        exportJobsTable.getSelectionModel().selectedItemProperty().addListener(
+            (obs, oldJob, newJob) -> updateExportButtons());
+        
+        exportJobsRefresh = new Timeline(new KeyFrame(Duration.seconds(1), e -> refreshExportJobs()));
+        exportJobsRefresh.setCycleCount(Animation.INDEFINITE);
     }
     
     /**
      * Setup all issues table
      */
     private void setupAllIssuesTable() {
-        allIssueIdColumn.setCellValueFactory(new PropertyValueFactory<>("issueId"));
-        allBookTitleColumn.setCellValueFactory(new PropertyValueFactory<>("bookTitle"));
-        allUserNameColumn.setCellValueFactory(new PropertyValueFactory<>("userFullName"));
-        allIssueDateColumn.setCellValueFactory(cellData -> 
-            cellData.getValue().issueDateProperty().asString());
-        allDueDateColumn.setCellValueFactory(cellData -> 
-            cellData.getValue().dueDateProperty().asString());
-        allReturnDateColumn.setCellValueFactory(cellData -> 
-            cellData.getValue().returnDateProperty().asString());
-        allFineColumn.setCellValueFactory(new PropertyValueFactory<>("fineAmount"));
-        allStatusColumn.setCellValueFactory(cellData -> 
-            javafx.beans.binding.Bindings.createStringBinding(
-                () -> cellData.getValue().getStatus(),
-                cellData.getValue().isReturnedProperty()));
+        allIssueIdColumn.setCellValueFactory(cellData -> cellData.getValue().issueIdProperty().asObject());
+        allBookTitleColumn.setCellValueFactory(cellData -> cellData.getValue().bookTitleProperty());
+        allUserNameColumn.setCellValueFactory(cellData -> cellData.getValue().userFullNameProperty());
+        allIssueDateColumn.setCellValueFactory(cellData -> cellData.getValue().issueDateProperty());
+        allDueDateColumn.setCellValueFactory(cellData -> cellData.getValue().dueDateProperty());
+        allReturnDateColumn.setCellValueFactory(cellData -> cellData.getValue().returnDateProperty());
+        allFineColumn.setCellValueFactory(cellData -> cellData.getValue().fineAmountProperty().asObject());
+        allStatusColumn.setCellValueFactory(cellData -> cellData.getValue().statusProperty());
     }
     
     /**
      * Setup overdue table
      */
     private void setupOverdueTable() {
-        overdueIssueIdColumn.setCellValueFactory(new PropertyValueFactory<>("issueId"));
-        overdueBookTitleColumn.setCellValueFactory(new PropertyValueFactory<>("bookTitle"));
-        overdueUserNameColumn.setCellValueFactory(new PropertyValueFactory<>("userFullName"));
-        overdueDueDateColumn.setCellValueFactory(cellData -> 
-            cellData.getValue().dueDateProperty().asString());
-        
-        // Days overdue calculation
-        overdueDaysColumn.setCellValueFactory(cellData -> {
-            Issue issue = cellData.getValue();
-            long daysOverdue = java.time.temporal.ChronoUnit.DAYS.between(
-                issue.getDueDate(), LocalDate.now());
-            return javafx.beans.binding.Bindings.createObjectBinding(
-                () -> daysOverdue, issue.dueDateProperty());
-        });
+        overdueIssueIdColumn.setCellValueFactory(cellData -> cellData.getValue().issueIdProperty().asObject());
+        overdueBookTitleColumn.setCellValueFactory(cellData -> cellData.getValue().bookTitleProperty());
+        overdueUserNameColumn.setCellValueFactory(cellData -> cellData.getValue().userFullNameProperty());
+        overdueDueDateColumn.setCellValueFactory(cellData -> cellData.getValue().dueDateProperty());
         
-        overdueFineColumn.setCellValueFactory(cellData -> {
-            Issue issue = cellData.getValue();
-            double currentFine = com.library.utils.DateUtils.calculateFine(
-                issue.getDueDate(), LocalDate.now());
-            return javafx.beans.binding.Bindings.createObjectBinding(
-                () -> currentFine, issue.dueDateProperty());
-        });
+        // Computed from the shared day clock; the table is refreshed at midnight
+        overdueDaysColumn.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(
+            ChronoUnit.DAYS.between(cellData.getValue().getDueDate(), DayClock.today())));
+        overdueFineColumn.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(
+            DateUtils.calculateFine(cellData.getValue().getDueDate(), DayClock.today())));
     }
     
     /**
      * Setup active users table
      */
     private void setupActiveUsersTable() {
-        userNameColumn.setCellValueFactory(new PropertyValueFactory<>("userName"));
-        userRoleColumn.setCellValueFactory(new PropertyValueFactory<>("userRole"));
-        totalIssuesColumn.setCellValueFactory(new PropertyValueFactory<>("totalIssues"));
-        activeIssuesColumn.setCellValueFactory(new PropertyValueFactory<>("activeIssues"));
-        totalFinesColumn.setCellValueFactory(new PropertyValueFactory<>("totalFines"));
+        userNameColumn.setCellValueFactory(value(UserActivity::getUserName));
+        userRoleColumn.setCellValueFactory(value(UserActivity::getUserRole));
+        totalIssuesColumn.setCellValueFactory(value(UserActivity::getTotalIssues));
+        activeIssuesColumn.setCellValueFactory(value(UserActivity::getActiveIssues));
+        totalFinesColumn.setCellValueFactory(value(UserActivity::getTotalFines));
+    }
+    
+    /**
+     * Setup circulation summary table
+     */
+    private void setupSummaryTable() {
+        summaryPeriodColumn.setCellValueFactory(value(RollupRow::getPeriod));
+        summaryCategoryColumn.setCellValueFactory(value(RollupRow::getCategory));
+        summaryRoleColumn.setCellValueFactory(value(RollupRow::getRole));
+        summaryIssuesColumn.setCellValueFactory(value(RollupRow::getIssues));
+        summaryReturnsColumn.setCellValueFactory(value(RollupRow::getReturns));
+        summaryLateColumn.setCellValueFactory(value(RollupRow::getLateReturns));
+        summaryFinesColumn.setCellValueFactory(value(RollupRow::getFines));
+        
+        summaryPeriodCombo.setItems(FXCollections.observableArrayList(PERIOD_MONTHLY, PERIOD_ANNUAL));
+        summaryPeriodCombo.setValue(PERIOD_MONTHLY);
+        summaryPeriodCombo.valueProperty().addListener((obs, oldValue, newValue) -> {
+            if (loadedTabs.contains(summaryTab)) {
+                loadSummaryReport();
+            }
+        });
+    }
+    
+    /**
+     * Setup most borrowed items table
+     */
+    private void setupPopularTable() {
+        popularRankColumn.setCellValueFactory(value(PopularItem::getRank));
+        popularItemColumn.setCellValueFactory(value(PopularItem::getLabel));
+        popularBorrowsColumn.setCellValueFactory(value(PopularItem::getBorrows));
+        popularErrorColumn.setCellValueFactory(value(PopularItem::getError));
+        
+        popularPeriodCombo.setItems(FXCollections.observableArrayList(
+            POPULAR_THIS_MONTH, POPULAR_LAST_3_MONTHS, POPULAR_LAST_12_MONTHS, POPULAR_ALL_TIME));
+        popularPeriodCombo.setValue(POPULAR_THIS_MONTH);
+        popularDimensionCombo.setItems(FXCollections.observableArrayList(PopularityTracker.Dimension.values()));
+        popularDimensionCombo.setValue(PopularityTracker.Dimension.BOOK);
+        popularDimensionCombo.setConverter(new javafx.util.StringConverter<>() {
+            @Override
+            public String toString(PopularityTracker.Dimension dimension) {
+                return dimension == null ? "" : dimension.getDisplayName();
+            }
+            
+            @Override
+            public PopularityTracker.Dimension fromString(String text) {
+                return null;
+            }
+        });
+        
+        popularPeriodCombo.valueProperty().addListener((obs, oldValue, newValue) -> reloadPopularReport());
+        popularDimensionCombo.valueProperty().addListener((obs, oldValue, newValue) -> reloadPopularReport());
+    }
+    
+    /**
+     * Setup loan duration table and chart
+     */
+    private void setupDurationTable() {
+        durationCategoryColumn.setCellValueFactory(value(DurationRow::getCategory));
+        durationRoleColumn.setCellValueFactory(value(DurationRow::getRole));
+        durationCountColumn.setCellValueFactory(value(DurationRow::getCount));
+        durationMeanColumn.setCellValueFactory(value(DurationRow::getMean));
+        durationP50Column.setCellValueFactory(value(DurationRow::getP50));
+        durationP90Column.setCellValueFactory(value(DurationRow::getP90));
+        durationP95Column.setCellValueFactory(value(DurationRow::getP95));
+        durationP99Column.setCellValueFactory(value(DurationRow::getP99));
+        durationMaxColumn.setCellValueFactory(value(DurationRow::getMax));
+        
+        durationMeasureCombo.setItems(FXCollections.observableArrayList(MEASURE_LOAN_DAYS, MEASURE_LATE_DAYS));
+        durationMeasureCombo.setValue(MEASURE_LOAN_DAYS);
+        durationMeasureCombo.valueProperty().addListener((obs, oldValue, newValue) -> showDurationRows());
+        
+        durationChart.setAnimated(false);
+        durationChart.setLegendVisible(false);
+        durationTable.getSelectionModel().selectedItemProperty().addListener(
+            (obs, oldRow, newRow) -> showDurationChart(newRow));
+    }
+    
+    /**
+     * Setup all issues filters and scroll-driven paging
+     */
+    private void setupFilters() {
+        roleFilterCombo.setItems(FXCollections.observableArrayList(
+            ALL, DatabaseConstants.ROLE_STUDENT, DatabaseConstants.ROLE_FACULTY, DatabaseConstants.ROLE_LIBRARIAN));
+        statusFilterCombo.setItems(FXCollections.observableArrayList(
+            ALL, STATUS_ACTIVE, STATUS_OVERDUE, STATUS_RETURNED));
+        categoryFilterCombo.setItems(FXCollections.observableArrayList(ALL));
+        roleFilterCombo.setValue(ALL);
+        statusFilterCombo.setValue(ALL);
+        categoryFilterCombo.setValue(ALL);
+        
+        applyFiltersButton.setOnAction(e -> applyFilters());
+        clearFiltersButton.setOnAction(e -> {
+            fromDatePicker.setValue(null);
+            toDatePicker.setValue(null);
+            roleFilterCombo.setValue(ALL);
+            categoryFilterCombo.setValue(ALL);
+            statusFilterCombo.setValue(ALL);
+            applyFilters();
+        });
+        
+        // Fetch the next page as the table nears its last row
+        allIssuesTable.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+            for (Node node : allIssuesTable.lookupAll(".scroll-bar")) {
+                if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                    bar.valueProperty().addListener((vObs, oldValue, newValue) -> {
+                        if (newValue.doubleValue() >= bar.getMax() * 0.9) {
+                            loadNextIssuesPage();
+                        }
+                    });
+                }
+            }
+        });
     }
     
     /**
@@ -160,69 +446,229 @@ public class ReportController implements Initializable {
      */
     private void setupButtons() {
         exportAllIssuesButton.setOnAction(e -> exportAllIssues());
+        exportBinaryButton.setOnAction(e -> exportAllIssuesBinary());
         exportOverdueButton.setOnAction(e -> exportOverdueIssues());
         exportActiveUsersButton.setOnAction(e -> exportActiveUsers());
-        refreshAllButton.setOnAction(e -> loadAllReports());
+        rebuildSummaryButton.setOnAction(e -> rebuildSummary());
+        refreshAllButton.setOnAction(e -> refreshAllReports());
+        cancelExportButton.setOnAction(e -> {
+            ExportJob job = exportJobsTable.getSelectionModel().getSelectedItem();
+            if (job != null) {
+                ExportJobManager.cancel(job);
+            }
+        });
+        resumeExportButton.setOnAction(e -> {
+            ExportJob job = exportJobsTable.getSelectionModel().getSelectedItem();
+            if (job != null) {
+                ExportJobManager.resume(job);
+            }
+        });
+        clearExportsButton.setOnAction(e -> {
+            ExportJobManager.clearFinished();
+            refreshExportJobs();
+        });
     }
     
     /**
-     * Load all reports
+     * Load each report the first time its tab is selected
      */
-    private void loadAllReports() {
-        loadAllIssuesReport();
-        loadOverdueReport();
-        loadActiveUsersReport();
+    private void setupLazyLoading() {
+        reportTabPane.getSelectionModel().selectedItemProperty().addListener(
+            (obs, oldTab, newTab) -> loadReport(newTab));
+        
+        loadReport(reportTabPane.getSelectionModel().getSelectedItem());
+    }
+    
+    /**
+     * Start loading a tab's report unless it is loaded or loading
+     */
+    private void loadReport(Tab tab) {
+        updateCacheAge();
+        if (tab == null || loadedTabs.contains(tab)) {
+            return;
+        }
+        loadedTabs.add(tab);
+        
+        if (tab == allIssuesTab) {
+            loadAllIssuesReport();
+        } else if (tab == overdueTab) {
+            loadOverdueReport();
+        } else if (tab == activeUsersTab) {
+            loadActiveUsersReport();
+        } else if (tab == summaryTab) {
+            loadSummaryReport();
+        } else if (tab == popularTab) {
+            loadPopularReport();
+        } else if (tab == durationTab) {
+            loadDurationReport();
+        }
+    }
+    
+    /**
+     * Drop cached results and reload the visible report; other tabs reload when next selected
+     */
+    private void refreshAllReports() {
+        for (Task<?> task : runningTasks) {
+            task.cancel();
+        }
+        runningTasks.clear();
+        loadedTabs.clear();
+        ReportCache.invalidateAll();
+        loadReport(reportTabPane.getSelectionModel().getSelectedItem());
+    }
+    
+    /**
+     * Show when the visible report's data was loaded
+     */
+    private void updateCacheAge() {
+        Long loadedAt = tabDataTime.get(reportTabPane.getSelectionModel().getSelectedItem());
+        if (loadedAt == null) {
+            cacheAgeLabel.setText("");
+            return;
+        }
+        
+        long minutes = (System.currentTimeMillis() - loadedAt) / 60_000;
+        String time = LocalTime.ofInstant(Instant.ofEpochMilli(loadedAt), ZoneId.systemDefault())
+            .truncatedTo(ChronoUnit.SECONDS).toString();
+        cacheAgeLabel.setText(minutes == 0 ? "Data as of " + time 
+                                           : "Data as of " + time + " (" + minutes + " min old)");
     }
     
     /**
      * Load all issues report
+     * Filters are pushed into SQL and rows are fetched one keyset page at a time
      */
     private void loadAllIssuesReport() {
+        loadCategories();
+        issueFilter = readFilter();
+        allIssuesGeneration++;
         allIssues.clear();
+        lastIssueLoaded = null;
+        allIssuesExhausted = false;
+        allIssuesPageLoading = false;
+        allIssuesTotal = 0;
+        allIssuesCountLabel.setText("Total Issues: ...");
         
-        String query = """
+        // Count with only the joins the filter needs
+        int generation = allIssuesGeneration;
+        List<Object> countParams = new ArrayList<>();
+        String countQuery = "SELECT COUNT(*) as count FROM book_issues bi" 
+            + issueFilter.joins() + issueFilter.where(countParams);
+        runReport(allIssuesTab, null, countQuery, countParams, 
+            rs -> rs.getLong("count"), rows -> {
+                if (generation == allIssuesGeneration && !rows.isEmpty()) {
+                    allIssuesTotal = rows.get(0);
+                    updateAllIssuesCount();
+                }
+            }, "Error counting issues: ");
+        
+        loadNextIssuesPage();
+    }
+    
+    /**
+     * Fetch the page after the last loaded row
+     */
+    private void loadNextIssuesPage() {
+        if (allIssuesExhausted || allIssuesPageLoading || !loadedTabs.contains(allIssuesTab)) {
+            return;
+        }
+        allIssuesPageLoading = true;
+        
+        List<Object> params = new ArrayList<>();
+        StringBuilder query = new StringBuilder("""
             SELECT bi.issue_id, bi.book_id, bi.user_id, bi.issue_date, 
                    bi.due_date, bi.return_date, bi.fine_amount, bi.is_returned,
                    b.title as book_title, 
                    CONCAT(u.first_name, ' ', u.last_name) as user_name
             FROM book_issues bi
             JOIN books b ON bi.book_id = b.book_id
-            JOIN users u ON bi.user_id = u.user_id
-            ORDER BY bi.issue_date DESC
-            """;
+            JOIN users u ON bi.user_id = u.user_id""");
+        String where = issueFilter.where(params);
+        query.append(where);
+        
+        if (lastIssueLoaded != null) {
+            query.append(where.isEmpty() ? " WHERE " : " AND ");
+            query.append("(bi.issue_date < ? OR (bi.issue_date = ? AND bi.issue_id < ?))");
+            params.add(lastIssueLoaded.getIssueDate());
+            params.add(lastIssueLoaded.getIssueDate());
+            params.add(lastIssueLoaded.getIssueId());
+        }
+        query.append(" ORDER BY bi.issue_date DESC, bi.issue_id DESC LIMIT ")
+             .append(DatabaseConstants.REPORT_PAGE_SIZE);
         
-        try {
-            ResultSet rs = Database.executeQuery(query);
-            while (rs != null && rs.next()) {
-                Issue issue = new Issue(
-                    rs.getInt("issue_id"),
-                    rs.getInt("book_id"),
-                    rs.getInt("user_id"),
-                    rs.getDate("issue_date").toLocalDate(),
-                    rs.getDate("due_date").toLocalDate(),
-                    rs.getDate("return_date") != null ? rs.getDate("return_date").toLocalDate() : null,
-                    rs.getDouble("fine_amount"),
-                    rs.getBoolean("is_returned")
-                );
-                issue.setBookTitle(rs.getString("book_title"));
-                issue.setUserFullName(rs.getString("user_name"));
-                allIssues.add(issue);
+        int generation = allIssuesGeneration;
+        runReport(allIssuesTab, allIssuesProgress, query.toString(), params, this::mapIssue, rows -> {
+            if (generation != allIssuesGeneration) {
+                return;
             }
-            
-            allIssuesCountLabel.setText("Total Issues: " + allIssues.size());
-            
-        } catch (SQLException e) {
-            showError("Error loading all issues report: " + e.getMessage());
-            e.printStackTrace();
+            allIssuesPageLoading = false;
+            allIssuesExhausted = rows.size() < DatabaseConstants.REPORT_PAGE_SIZE;
+            if (!rows.isEmpty()) {
+                lastIssueLoaded = rows.get(rows.size() - 1);
+                allIssues.addAll(rows);
+            }
+            updateAllIssuesCount();
+        }, "Error loading all issues report: ");
+    }
+    
+    /**
+     * Reload all issues with the filters currently entered
+     */
+    private void applyFilters() {
+        if (fromDatePicker.getValue() != null && toDatePicker.getValue() != null 
+                && fromDatePicker.getValue().isAfter(toDatePicker.getValue())) {
+            showError("From date cannot be after to date.");
+            return;
+        }
+        
+        // Drop in-flight pages for the old filter
+        for (Task<?> task : new ArrayList<>(runningTasks)) {
+            if (task instanceof ReportTask<?> reportTask && reportTask.tab == allIssuesTab) {
+                task.cancel();
+            }
+        }
+        loadedTabs.add(allIssuesTab);
+        loadAllIssuesReport();
+    }
+    
+    private void updateAllIssuesCount() {
+        allIssuesCountLabel.setText("Total Issues: " + Math.max(allIssuesTotal, allIssues.size()) 
+            + " (showing " + allIssues.size() + ")");
+    }
+    
+    /**
+     * Fill the category filter once from the catalog
+     */
+    private void loadCategories() {
+        if (categoryFilterCombo.getItems().size() > 1) {
+            return;
         }
+        runReport(allIssuesTab, null, 
+            "SELECT DISTINCT category FROM books WHERE is_active = 1 AND category IS NOT NULL ORDER BY category",
+            new ArrayList<>(), rs -> rs.getString("category"), rows -> {
+                if (categoryFilterCombo.getItems().size() == 1) {
+                    categoryFilterCombo.getItems().addAll(rows);
+                }
+            }, "Error loading categories: ");
+    }
+    
+    /**
+     * Snapshot the filter controls
+     */
+    private IssueFilter readFilter() {
+        IssueFilter filter = new IssueFilter();
+        filter.fromDate = fromDatePicker.getValue();
+        filter.toDate = toDatePicker.getValue();
+        filter.role = ALL.equals(roleFilterCombo.getValue()) ? null : roleFilterCombo.getValue();
+        filter.category = ALL.equals(categoryFilterCombo.getValue()) ? null : categoryFilterCombo.getValue();
+        filter.status = ALL.equals(statusFilterCombo.getValue()) ? null : statusFilterCombo.getValue();
+        return filter;
     }
     
     /**
      * Load overdue books report
      */
     private void loadOverdueReport() {
-        overdueIssues.clear();
-        
         String query = """
             SELECT bi.issue_id, bi.book_id, bi.user_id, bi.issue_date, 
                    bi.due_date, bi.return_date, bi.fine_amount, bi.is_returned,
@@ -231,42 +677,21 @@ public class ReportController implements Initializable {
             FROM book_issues bi
             JOIN books b ON bi.book_id = b.book_id
             JOIN users u ON bi.user_id = u.user_id
-            WHERE bi.is_returned = 0 AND bi.due_date < CURDATE()
+            WHERE bi.is_returned = 0 AND bi.due_date < ?
             ORDER BY bi.due_date
             """;
         
-        try {
-            ResultSet rs = Database.executeQuery(query);
-            while (rs != null && rs.next()) {
-                Issue issue = new Issue(
-                    rs.getInt("issue_id"),
-                    rs.getInt("book_id"),
-                    rs.getInt("user_id"),
-                    rs.getDate("issue_date").toLocalDate(),
-                    rs.getDate("due_date").toLocalDate(),
-                    rs.getDate("return_date") != null ? rs.getDate("return_date").toLocalDate() : null,
-                    rs.getDouble("fine_amount"),
-                    rs.getBoolean("is_returned")
-                );
-                issue.setBookTitle(rs.getString("book_title"));
-                issue.setUserFullName(rs.getString("user_name"));
-                overdueIssues.add(issue);
-            }
-            
+        List<Object> params = new ArrayList<>(List.of(DayClock.today()));
+        runReport(overdueTab, overdueProgress, query, params, this::mapIssue, rows -> {
+            overdueIssues.setAll(rows);
             overdueCountLabel.setText("Overdue Books: " + overdueIssues.size());
-            
-        } catch (SQLException e) {
-            showError("Error loading overdue report: " + e.getMessage());
-            e.printStackTrace();
-        }
+        }, "Error loading overdue report: ");
     }
     
     /**
      * Load active users report
      */
     private void loadActiveUsersReport() {
-        activeUsers.clear();
-        
         String query = """
             SELECT u.user_id, CONCAT(u.first_name, ' ', u.last_name) as user_name, 
                    u.role,
@@ -281,131 +706,592 @@ public class ReportController implements Initializable {
             ORDER BY total_issues DESC
             """;
         
-        try {
-            ResultSet rs = Database.executeQuery(query);
-            while (rs != null && rs.next()) {
-                UserActivity userActivity = new UserActivity(
-                    rs.getString("user_name"),
-                    rs.getString("role"),
-                    rs.getInt("total_issues"),
-                    rs.getInt("active_issues"),
-                    rs.getDouble("total_fines")
-                );
-                activeUsers.add(userActivity);
+        runReport(activeUsersTab, activeUsersProgress, query, rs -> new UserActivity(
+                rs.getString("user_name"),
+                rs.getString("role"),
+                rs.getInt("total_issues"),
+                rs.getInt("active_issues"),
+                rs.getDouble("total_fines")
+            ), rows -> {
+                activeUsers.setAll(rows);
+                activeUsersCountLabel.setText("Active Users: " + activeUsers.size());
+            }, "Error loading active users report: ");
+    }
+    
+    /**
+     * Load circulation summary from the daily rollup table
+     */
+    private void loadSummaryReport() {
+        String format = PERIOD_ANNUAL.equals(summaryPeriodCombo.getValue()) ? "%Y" : "%Y-%m";
+        String query = """
+            SELECT DATE_FORMAT(rollup_date, ?) as period, category, role,
+                   SUM(issues) as issues, SUM(returns) as returns,
+                   SUM(overdue_returns) as late_returns, SUM(fines) as fines
+            FROM circulation_daily_rollup
+            GROUP BY period, category, role
+            ORDER BY period DESC, category, role
+            """;
+        
+        List<Object> params = new ArrayList<>();
+        params.add(format);
+        runReport(summaryTab, summaryProgress, query, params, rs -> new RollupRow(
+                rs.getString("period"),
+                rs.getString("category"),
+                rs.getString("role"),
+                rs.getInt("issues"),
+                rs.getInt("returns"),
+                rs.getInt("late_returns"),
+                rs.getDouble("fines")
+            ), rows -> {
+                summaryRows.setAll(rows);
+                summaryCountLabel.setText("Periods: " + rows.stream().map(RollupRow::getPeriod).distinct().count());
+            }, "Error loading circulation summary: ");
+    }
+    
+    /**
+     * Load approximate most borrowed items from the popularity snapshots
+     */
+    private void loadPopularReport() {
+        PopularityTracker.Dimension dimension = popularDimensionCombo.getValue();
+        LocalDate thisMonth = DayClock.today().withDayOfMonth(1);
+        String period = popularPeriodCombo.getValue();
+        LocalDate fromMonth = POPULAR_LAST_3_MONTHS.equals(period) ? thisMonth.minusMonths(2)
+                            : POPULAR_LAST_12_MONTHS.equals(period) ? thisMonth.minusMonths(11)
+                            : POPULAR_ALL_TIME.equals(period) ? null : thisMonth;
+        
+        Task<List<SpaceSaving.Counter>> task = new Task<>() {
+            @Override
+            protected List<SpaceSaving.Counter> call() throws Exception {
+                return PopularityTracker.topItems(dimension, fromMonth, thisMonth, DatabaseConstants.POPULARITY_TOP);
+            }
+        };
+        
+        popularProgress.visibleProperty().bind(task.runningProperty());
+        task.setOnSucceeded(e -> {
+            runningTasks.remove(task);
+            List<PopularItem> items = new ArrayList<>();
+            for (SpaceSaving.Counter counter : task.getValue()) {
+                items.add(new PopularItem(items.size() + 1, counter.getLabel(), counter.getCount(), counter.getError()));
+            }
+            popularItems.setAll(items);
+            popularCountLabel.setText("Top " + items.size() + " " + dimension.getDisplayName());
+        });
+        task.setOnFailed(e -> {
+            runningTasks.remove(task);
+            loadedTabs.remove(popularTab);
+            task.getException().printStackTrace();
+            showError("Error loading popular items: " + task.getException().getMessage());
+        });
+        
+        runningTasks.add(task);
+        reportExecutor.execute(task);
+    }
+    
+    /**
+     * Compute loan length and lateness histograms per category and role
+     */
+    private void loadDurationReport() {
+        Task<List<LoanDistribution.Group>> task = new Task<>() {
+            @Override
+            protected List<LoanDistribution.Group> call() throws Exception {
+                return LoanDistribution.compute();
+            }
+        };
+        
+        durationProgress.visibleProperty().bind(task.runningProperty());
+        task.setOnSucceeded(e -> {
+            runningTasks.remove(task);
+            loanGroups = task.getValue();
+            showDurationRows();
+        });
+        task.setOnFailed(e -> {
+            runningTasks.remove(task);
+            loadedTabs.remove(durationTab);
+            task.getException().printStackTrace();
+            showError("Error loading loan durations: " + task.getException().getMessage());
+        });
+        
+        runningTasks.add(task);
+        reportExecutor.execute(task);
+    }
+    
+    /**
+     * Fill the duration table from the selected measure and chart the overall distribution
+     */
+    private void showDurationRows() {
+        boolean late = MEASURE_LATE_DAYS.equals(durationMeasureCombo.getValue());
+        List<DurationRow> rows = new ArrayList<>();
+        long returned = 0;
+        for (LoanDistribution.Group group : loanGroups) {
+            LogHistogram histogram = late ? group.getLateDays() : group.getLoanDays();
+            if (histogram.getTotalCount() > 0) {
+                rows.add(new DurationRow(group.getCategory(), group.getRole(), histogram));
+            }
+            if (LoanDistribution.ALL.equals(group.getCategory()) && LoanDistribution.ALL.equals(group.getRole())) {
+                returned = group.getLoanDays().getTotalCount();
+            }
+        }
+        
+        durationRows.setAll(rows);
+        durationCountLabel.setText("Returned loans: " + returned);
+        if (!rows.isEmpty()) {
+            durationTable.getSelectionModel().select(rows.size() - 1);
+        } else {
+            showDurationChart(null);
+        }
+    }
+    
+    /**
+     * Chart one row's histogram buckets
+     */
+    private void showDurationChart(DurationRow row) {
+        durationChart.getData().clear();
+        if (row == null) {
+            return;
+        }
+        
+        LogHistogram histogram = row.getHistogram();
+        XYChart.Series<String, Number> series = new XYChart.Series<>();
+        for (int bucket = 0; bucket < histogram.getBucketCount(); bucket++) {
+            long count = histogram.getCountAt(bucket);
+            if (count == 0) {
+                continue;
+            }
+            long low = LogHistogram.lowerBound(bucket);
+            long high = LogHistogram.upperBound(bucket);
+            series.getData().add(new XYChart.Data<>(low == high ? String.valueOf(low) : low + "-" + high, count));
+        }
+        durationChart.setTitle(row.getCategory() + " / " + row.getRole() + ": " + durationMeasureCombo.getValue());
+        durationChart.getData().add(series);
+    }
+    
+    /**
+     * Reload the popular items report if it has been opened
+     */
+    private void reloadPopularReport() {
+        if (loadedTabs.contains(popularTab)) {
+            loadPopularReport();
+        }
+    }
+    
+    /**
+     * Rebuild rollups from circulation history, then reload the summary
+     */
+    private void rebuildSummary() {
+        Task<Void> rebuild = new Task<>() {
+            @Override
+            protected Void call() throws Exception {
+                CirculationRollup.backfill(month -> updateMessage("Rebuilt " + month.getYear() + "-" 
+                    + String.format("%02d", month.getMonthValue())));
+                return null;
+            }
+        };
+        
+        rebuildSummaryButton.setDisable(true);
+        summaryProgress.visibleProperty().bind(rebuild.runningProperty());
+        summaryCountLabel.textProperty().bind(rebuild.messageProperty());
+        rebuild.setOnSucceeded(e -> {
+            runningTasks.remove(rebuild);
+            summaryCountLabel.textProperty().unbind();
+            rebuildSummaryButton.setDisable(false);
+            loadSummaryReport();
+        });
+        rebuild.setOnFailed(e -> {
+            runningTasks.remove(rebuild);
+            summaryCountLabel.textProperty().unbind();
+            rebuildSummaryButton.setDisable(false);
+            rebuild.getException().printStackTrace();
+            showError("Error rebuilding circulation summary: " + rebuild.getException().getMessage());
+        });
+        
+        runningTasks.add(rebuild);
+        reportExecutor.execute(rebuild);
+    }
+    
+    /**
+     * Map an issue row with book title and user name
+     */
+    private Issue mapIssue(ResultSet rs) throws SQLException {
+        Issue issue = new Issue(
+            rs.getInt("issue_id"),
+            rs.getInt("book_id"),
+            rs.getInt("user_id"),
+            rs.getDate("issue_date").toLocalDate(),
+            rs.getDate("due_date").toLocalDate(),
+            rs.getDate("return_date") != null ? rs.getDate("return_date").toLocalDate() : null,
+            rs.getDouble("fine_amount"),
+            rs.getBoolean("is_returned")
+        );
+        issue.setBookTitle(rs.getString("book_title"));
+        issue.setUserFullName(rs.getString("user_name"));
+        return issue;
+    }
+    
+    /**
+     * Run a report query on a background thread with its own connection
+     * The tab's progress indicator shows while the query runs
+     */
+    private <T> void runReport(Tab tab, ProgressIndicator progress, String query, RowMapper<T> mapper,
+                               Consumer<List<T>> onLoaded, String errorPrefix) {
+        runReport(tab, progress, query, new ArrayList<>(), mapper, onLoaded, errorPrefix);
+    }
+    
+    /**
+     * Run a parameterized report query on a background thread
+     * Results are served from the report cache while still fresh
+     */
+    @SuppressWarnings("unchecked")
+    private <T> void runReport(Tab tab, ProgressIndicator progress, String query, List<Object> params,
+                               RowMapper<T> mapper, Consumer<List<T>> onLoaded, String errorPrefix) {
+        String cacheKey = ReportCache.key(query, params);
+        ReportCache.Entry cached = ReportCache.get(cacheKey);
+        if (cached != null) {
+            tabDataTime.put(tab, cached.getLoadedAt());
+            onLoaded.accept((List<T>) cached.getRows());
+            updateCacheAge();
+            return;
+        }
+        
+        ReportTask<T> task = new ReportTask<>(tab, query, params, mapper);
+        
+        if (progress != null) {
+            progress.visibleProperty().bind(task.runningProperty());
+        }
+        task.setOnSucceeded(e -> {
+            runningTasks.remove(task);
+            ReportCache.Entry entry = ReportCache.put(cacheKey, task.getValue());
+            tabDataTime.put(tab, entry.getLoadedAt());
+            onLoaded.accept(task.getValue());
+            updateCacheAge();
+        });
+        task.setOnFailed(e -> {
+            runningTasks.remove(task);
+            loadedTabs.remove(tab);
+            if (tab == allIssuesTab) {
+                allIssuesPageLoading = false;
+            }
+            task.getException().printStackTrace();
+            showError(errorPrefix + task.getException().getMessage());
+        });
+        task.setOnCancelled(e -> runningTasks.remove(task));
+        
+        runningTasks.add(task);
+        reportExecutor.execute(task);
+    }
+    
+    /**
+     * Catch up when the cached window is shown again
+     * Reports cancelled on hide reload, from the report cache while it is fresh.
+     */
+    @Override
+    public void refresh() {
+        refreshForNewDay();
+        loadReport(reportTabPane.getSelectionModel().getSelectedItem());
+    }
+    
+    /**
+     * Follow date rollovers and export progress while the window is showing
+     */
+    @Override
+    public void resume() {
+        DayClock.addListener(dayListener);
+        exportJobsRefresh.play();
+        refreshExportJobs();
+    }
+    
+    /**
+     * Cancel running report queries while the window is hidden
+     * Rebuilds and computed reports finish in the background.
+     */
+    @Override
+    public void suspend() {
+        DayClock.removeListener(dayListener);
+        exportJobsRefresh.stop();
+        for (Task<?> task : new ArrayList<>(runningTasks)) {
+            if (task instanceof ReportTask<?> reportTask) {
+                // Reload the tab when it is next shown
+                loadedTabs.remove(reportTask.tab);
+                if (reportTask.tab == allIssuesTab) {
+                    allIssuesPageLoading = false;
+                }
+                task.cancel();
             }
-            
-            activeUsersCountLabel.setText("Active Users: " + activeUsers.size());
-            
-        } catch (SQLException e) {
-            showError("Error loading active users report: " + e.getMessage());
-            e.printStackTrace();
         }
     }
     
     /**
-     * Export all issues to CSV
+     * Cancel running report work and stop the worker threads
+     */
+    @Override
+    public void dispose() {
+        suspend();
+        for (Task<?> task : runningTasks) {
+            task.cancel();
+        }
+        runningTasks.clear();
+        reportExecutor.shutdownNow();
+    }
+    
+    /**
+     * Cell value factory reading a plain getter, without reflection
+     */
+    private static <S, T> Callback<TableColumn.CellDataFeatures<S, T>, ObservableValue<T>> value(Function<S, T> getter) {
+        return cellData -> new ReadOnlyObjectWrapper<>(getter.apply(cellData.getValue()));
+    }
+    
+    /**
+     * Recompute issue statuses after the date rolls over
+     */
+    private void refreshForNewDay() {
+        for (Issue issue : allIssues) {
+            issue.refreshStatus();
+        }
+        for (Issue issue : overdueIssues) {
+            issue.refreshStatus();
+        }
+        overdueTable.refresh();
+    }
+    
+    /**
+     * Maps one result set row to a report item
+     */
+    private interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+    
+    /**
+     * Background report query that cancels its statement when cancelled
+     */
+    private static class ReportTask<T> extends Task<List<T>> {
+        private final Tab tab;
+        private final String query;
+        private final List<Object> params;
+        private final RowMapper<T> mapper;
+        private volatile Statement statement;
+        
+        ReportTask(Tab tab, String query, List<Object> params, RowMapper<T> mapper) {
+            this.tab = tab;
+            this.query = query;
+            this.params = params;
+            this.mapper = mapper;
+        }
+        
+        @Override
+        protected List<T> call() throws Exception {
+            try (Connection conn = Database.openConnection();
+                 PreparedStatement stmt = Database.prepare(conn, query, params.toArray())) {
+                statement = stmt;
+                List<T> rows = new ArrayList<>();
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next() && !isCancelled()) {
+                        rows.add(mapper.map(rs));
+                    }
+                }
+                return rows;
+            } finally {
+                statement = null;
+            }
+        }
+        
+        @Override
+        protected void cancelled() {
+            Statement stmt = statement;
+            if (stmt != null) {
+                try {
+                    stmt.cancel();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Export the issue history matching the current filters to CSV
+     * Long date ranges are exported in parallel monthly partitions
      */
     private void exportAllIssues() {
-        exportToCSV(allIssues, "All_Issues_Report", 
-            "Issue ID,Book Title,User Name,Issue Date,Due Date,Return Date,Fine Amount,Status");
+        File file = chooseExportFile(exportAllIssuesButton, "All_Issues_Report", "CSV Files", "csv");
+        if (file == null) {
+            return;
+        }
+        
+        List<Object> filterParams = new ArrayList<>();
+        String where = issueFilter.where(filterParams);
+        String select = """
+            SELECT bi.issue_id, bi.issue_date, bi.due_date, bi.return_date, 
+                   bi.fine_amount, bi.is_returned,
+                   b.title as book_title, 
+                   CONCAT(u.first_name, ' ', u.last_name) as user_name
+            FROM book_issues bi
+            JOIN books b ON bi.book_id = b.book_id
+            JOIN users u ON bi.user_id = u.user_id""";
+        
+        CsvExporter.RowWriter rowWriter = (rs, out) -> {
+            LocalDate dueDate = rs.getDate("due_date").toLocalDate();
+            boolean returned = rs.getBoolean("is_returned");
+            out.field(rs.getLong("issue_id"))
+               .field(rs.getString("book_title"))
+               .field(rs.getString("user_name"))
+               .date(rs, "issue_date")
+               .date(dueDate)
+               .date(rs, "return_date")
+               .money(rs.getDouble("fine_amount"))
+               .field(IssueStatus.of(dueDate, returned).getDisplayName());
+        };
+        
+        ExportJobManager.submitByMonth("All Issues", file.toPath(),
+            "Issue ID,Book Title,User Name,Issue Date,Due Date,Return Date,Fine Amount,Status",
+            issueFilter.fromDate, issueFilter.toDate, (part, from, to, rowCount) -> {
+                List<Object> params = new ArrayList<>(filterParams);
+                String partWhere = where;
+                if (from != null) {
+                    partWhere += (where.isEmpty() ? " WHERE " : " AND ") 
+                        + "bi.issue_date >= ? AND bi.issue_date < ?";
+                    params.add(from);
+                    params.add(to);
+                }
+                return CsvExporter.export(part, null, 
+                    select + partWhere + " ORDER BY bi.issue_date DESC, bi.issue_id DESC",
+                    rowWriter, rowCount, params.toArray());
+            });
+        showExportJobs();
     }
     
     /**
      * Export overdue issues to CSV
      */
     private void exportOverdueIssues() {
-        exportToCSV(overdueIssues, "Overdue_Books_Report", 
-            "Issue ID,Book Title,User Name,Due Date,Days Overdue,Current Fine");
+        String query = """
+            SELECT bi.issue_id, bi.due_date,
+                   b.title as book_title, 
+                   CONCAT(u.first_name, ' ', u.last_name) as user_name
+            FROM book_issues bi
+            JOIN books b ON bi.book_id = b.book_id
+            JOIN users u ON bi.user_id = u.user_id
+            WHERE bi.is_returned = 0 AND bi.due_date < ?
+            ORDER BY bi.due_date
+            """;
+        
+        LocalDate today = DayClock.today();
+        exportToCSV(exportOverdueButton, "Overdue Books", "Overdue_Books_Report",
+            "Issue ID,Book Title,User Name,Due Date,Days Overdue,Current Fine",
+            query, (rs, out) -> {
+                LocalDate dueDate = rs.getDate("due_date").toLocalDate();
+                out.field(rs.getLong("issue_id"))
+                   .field(rs.getString("book_title"))
+                   .field(rs.getString("user_name"))
+                   .date(dueDate)
+                   .field(today.toEpochDay() - dueDate.toEpochDay())
+                   .money(DateUtils.calculateFine(dueDate, today));
+            }, today);
     }
     
     /**
      * Export active users to CSV
      */
     private void exportActiveUsers() {
-        FileChooser fileChooser = new FileChooser();
-        fileChooser.setTitle("Export Active Users Report");
-        fileChooser.setInitialFileName("Active_Users_Report.csv");
-        fileChooser.getExtensionFilters().add(
-            new FileChooser.ExtensionFilter("CSV Files", "*.csv"));
-        
-        File file = fileChooser.showSaveDialog(activeUsersTable.getScene().getWindow());
-        if (file != null) {
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-                // Write header
-                writer.write("User Name,Role,Total Issues,Active Issues,Total Fines");
-                writer.newLine();
-                
-                // Write data
-                for (UserActivity user : activeUsers) {
-                    writer.write(String.format("%s,%s,%d,%d,%.2f",
-                        user.getUserName(),
-                        user.getUserRole(),
-                        user.getTotalIssues(),
-                        user.getActiveIssues(),
-                        user.getTotalFines()));
-                    writer.newLine();
-                }
-                
-                showInfo("Active users report exported successfully to " + file.getName());
-                
-            } catch (IOException e) {
-                showError("Error exporting active users report: " + e.getMessage());
-            }
+        String query = """
+            SELECT CONCAT(u.first_name, ' ', u.last_name) as user_name, 
+                   u.role,
+                   COUNT(bi.issue_id) as total_issues,
+                   COUNT(CASE WHEN bi.is_returned = 0 THEN 1 END) as active_issues,
+                   COALESCE(SUM(bi.fine_amount), 0) as total_fines
+            FROM users u
+            JOIN book_issues bi ON u.user_id = bi.user_id
+            WHERE u.is_active = 1
+            GROUP BY u.user_id, u.first_name, u.last_name, u.role
+            ORDER BY total_issues DESC
+            """;
+        
+        exportToCSV(exportActiveUsersButton, "Active Users", "Active_Users_Report",
+            "User Name,Role,Total Issues,Active Issues,Total Fines",
+            query, (rs, out) -> out
+                .field(rs.getString("user_name"))
+                .field(rs.getString("role"))
+                .field(rs.getLong("total_issues"))
+                .field(rs.getLong("active_issues"))
+                .money(rs.getDouble("total_fines")));
+    }
+    
+    /**
+     * Queue a report query as a CSV export job
+     * Rows are streamed from the database rather than the loaded table
+     */
+    private void exportToCSV(Button exportButton, String jobName, String fileName, String header,
+                             String query, CsvExporter.RowWriter rowWriter, Object... params) {
+        File file = chooseExportFile(exportButton, fileName, "CSV Files", "csv");
+        if (file == null) {
+            return;
+        }
+        
+        ExportJobManager.submit(jobName, file.toPath(), header, 
+            (part, from, to, rowCount) -> CsvExporter.export(part, null, query, rowWriter, rowCount, params));
+        showExportJobs();
+    }
+    
+    /**
+     * Export issues matching the current filters in the columnar binary format
+     */
+    private void exportAllIssuesBinary() {
+        File file = chooseExportFile(exportBinaryButton, "All_Issues_Report", 
+            "Columnar Circulation Files", "lmsc");
+        if (file == null) {
+            return;
         }
+        
+        List<Object> params = new ArrayList<>();
+        String filter = issueFilter.where(params);
+        ExportJobManager.submit("All Issues (binary)", file.toPath(), null, 
+            (part, from, to, rowCount) -> ColumnarExporter.export(part, filter, rowCount, params.toArray()));
+        showExportJobs();
     }
     
     /**
-     * Generic method to export issues to CSV
+     * Ask for an export destination
+     * @return chosen file, or null if cancelled
      */
-    private void exportToCSV(ObservableList<Issue> issues, String fileName, String header) {
+    private File chooseExportFile(Button exportButton, String fileName, String description, String extension) {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Export " + fileName);
-        fileChooser.setInitialFileName(fileName + ".csv");
+        fileChooser.setInitialFileName(fileName + "." + extension);
         fileChooser.getExtensionFilters().add(
-            new FileChooser.ExtensionFilter("CSV Files", "*.csv"));
-        
-        File file = fileChooser.showSaveDialog(allIssuesTable.getScene().getWindow());
-        if (file != null) {
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-                // Write header
-                writer.write(header);
-                writer.newLine();
-                
-                // Write data
-                for (Issue issue : issues) {
-                    if (fileName.contains("Overdue")) {
-                        long daysOverdue = java.time.temporal.ChronoUnit.DAYS.between(
-                            issue.getDueDate(), LocalDate.now());
-                        double currentFine = com.library.utils.DateUtils.calculateFine(
-                            issue.getDueDate(), LocalDate.now());
-                        
-                        writer.write(String.format("%d,%s,%s,%s,%d,%.2f",
-                            issue.getIssueId(),
-                            issue.getBookTitle(),
-                            issue.getUserFullName(),
-                            issue.getDueDate().toString(),
-                            daysOverdue,
-                            currentFine));
-                    } else {
-                        writer.write(String.format("%d,%s,%s,%s,%s,%s,%.2f,%s",
-                            issue.getIssueId(),
-                            issue.getBookTitle(),
-                            issue.getUserFullName(),
-                            issue.getIssueDate().toString(),
-                            issue.getDueDate().toString(),
-                            issue.getReturnDate() != null ? issue.getReturnDate().toString() : "",
-                            issue.getFineAmount(),
-                            issue.getStatus()));
-                    }
-                    writer.newLine();
-                }
-                
-                showInfo("Report exported successfully to " + file.getName());
-                
-            } catch (IOException e) {
-                showError("Error exporting report: " + e.getMessage());
-            }
+            new FileChooser.ExtensionFilter(description, "*." + extension));
+        
+        return fileChooser.showSaveDialog(exportButton.getScene().getWindow());
+    }
+    
+    /**
+     * Switch to the export jobs panel after queueing an export
+     */
+    private void showExportJobs() {
+        refreshExportJobs();
+        reportTabPane.getSelectionModel().select(exportsTab);
+    }
+    
+    /**
+     * Sync the jobs table with the job manager and redraw progress
+     */
+    private void refreshExportJobs() {
+        List<ExportJob> jobs = ExportJobManager.getJobs();
+        if (!exportJobs.equals(jobs)) {
+            exportJobs.setAll(jobs);
         }
+        exportJobsTable.refresh();
+        
+        long running = jobs.stream().filter(job -> !job.isFinished()).count();
+        exportJobsCountLabel.setText("Jobs: " + jobs.size() + " (" + running + " running)");
+        updateExportButtons();
+    }
+    
+    /**
+     * Enable job actions that apply to the selected job
+     */
+    private void updateExportButtons() {
+        ExportJob job = exportJobsTable.getSelectionModel().getSelectedItem();
+        cancelExportButton.setDisable(job == null || job.isFinished());
+        resumeExportButton.setDisable(job == null || (job.getStatus() != ExportJobManager.Status.CANCELLED 
+                                                      && job.getStatus() != ExportJobManager.Status.FAILED));
     }
     
     /**
@@ -430,6 +1316,146 @@ public class ReportController implements Initializable {
         alert.showAndWait();
     }
     
+    /**
+     * All issues filter translated into SQL conditions
+     */
+    private static class IssueFilter {
+        private LocalDate fromDate;
+        private LocalDate toDate;
+        private String role;
+        private String category;
+        private String status;
+        
+        /**
+         * Joins needed by the filter conditions alone
+         */
+        String joins() {
+            StringBuilder sql = new StringBuilder();
+            if (category != null) {
+                sql.append(" JOIN books b ON bi.book_id = b.book_id");
+            }
+            if (role != null) {
+                sql.append(" JOIN users u ON bi.user_id = u.user_id");
+            }
+            return sql.toString();
+        }
+        
+        /**
+         * WHERE clause for the filter, adding its parameters in order
+         */
+        String where(List<Object> params) {
+            List<String> conditions = new ArrayList<>();
+            if (fromDate != null) {
+                conditions.add("bi.issue_date >= ?");
+                params.add(fromDate);
+            }
+            if (toDate != null) {
+                conditions.add("bi.issue_date <= ?");
+                params.add(toDate);
+            }
+            if (role != null) {
+                conditions.add("u.role = ?");
+                params.add(role);
+            }
+            if (category != null) {
+                conditions.add("b.category = ?");
+                params.add(category);
+            }
+            if (STATUS_RETURNED.equals(status)) {
+                conditions.add("bi.is_returned = 1");
+            } else if (STATUS_OVERDUE.equals(status)) {
+                // Same day as the rendered status, not the server's clock
+                conditions.add("bi.is_returned = 0 AND bi.due_date < ?");
+                params.add(DayClock.today());
+            } else if (STATUS_ACTIVE.equals(status)) {
+                conditions.add("bi.is_returned = 0 AND bi.due_date >= ?");
+                params.add(DayClock.today());
+            }
+            return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+        }
+    }
+    
+    /**
+     * Inner class for circulation summary rows
+     */
+    public static class RollupRow {
+        private final String period;
+        private final String category;
+        private final String role;
+        private final int issues;
+        private final int returns;
+        private final int lateReturns;
+        private final double fines;
+        
+        public RollupRow(String period, String category, String role, int issues,
+                         int returns, int lateReturns, double fines) {
+            this.period = period;
+            this.category = category;
+            this.role = role;
+            this.issues = issues;
+            this.returns = returns;
+            this.lateReturns = lateReturns;
+            this.fines = fines;
+        }
+        
+        public String getPeriod() { return period; }
+        public String getCategory() { return category; }
+        public String getRole() { return role; }
+        public int getIssues() { return issues; }
+        public int getReturns() { return returns; }
+        public int getLateReturns() { return lateReturns; }
+        public double getFines() { return fines; }
+    }
+    
+    /**
+     * Ranked entry of the popular items report
+     * Borrows may overcount by at most the error bound
+     */
+    public static class PopularItem {
+        private final int rank;
+        private final String label;
+        private final long borrows;
+        private final long error;
+        
+        public PopularItem(int rank, String label, long borrows, long error) {
+            this.rank = rank;
+            this.label = label;
+            this.borrows = borrows;
+            this.error = error;
+        }
+        
+        public int getRank() { return rank; }
+        public String getLabel() { return label; }
+        public long getBorrows() { return borrows; }
+        public long getError() { return error; }
+    }
+    
+    /**
+     * Percentile summary of one loan histogram
+     */
+    public static class DurationRow {
+        private final String category;
+        private final String role;
+        private final LogHistogram histogram;
+        
+        public DurationRow(String category, String role, LogHistogram histogram) {
+            this.category = category;
+            this.role = role;
+            this.histogram = histogram;
+        }
+        
+        public String getCategory() { return category; }
+        public String getRole() { return role; }
+        public LogHistogram getHistogram() { return histogram; }
+        public long getCount() { return histogram.getTotalCount(); }
+        public String getMean() { return String.format("%.1f", histogram.getMean()); }
+        public long getP50() { return histogram.getValueAtPercentile(50); }
+        public long getP90() { return histogram.getValueAtPercentile(90); }
+        public long getP95() { return histogram.getValueAtPercentile(95); }
+        public long getP99() { return histogram.getValueAtPercentile(99); }
+        public long getMax() { return histogram.getMax(); }
+    }
+    
     /**
      * Inner class for user activity data
      */
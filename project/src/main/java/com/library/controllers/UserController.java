@@ -3,23 +3,43 @@ package com.library.controllers;
 import com.library.Database;
 import com.library.models.User;
 import com.library.models.UserRole;
+import com.library.utils.DatabaseConstants;
+import com.library.utils.UserDirectory;
+import com.library.utils.UserImporter;
+import com.library.utils.UserRegistry;
+import com.library.utils.ViewManager;
+import javafx.animation.PauseTransition;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
 import javafx.scene.control.*;
+import javafx.scene.paint.Color;
+import javafx.stage.FileChooser;
+import javafx.util.Duration;
 
+import java.io.File;
 import java.net.URL;
+import java.nio.file.Path;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.Set;
 
 /**
  * Controller for user management
  * Handles user CRUD operations (Librarian only)
  */
-public class UserController implements Initializable {
+public class UserController implements Initializable, ViewManager.Refreshable {
     
     @FXML private TableView<User> usersTable;
     @FXML private TableColumn<User, Integer> idColumn;
@@ -36,6 +56,8 @@ public class UserController implements Initializable {
     @FXML private TextField firstNameField;
     @FXML private TextField lastNameField;
     @FXML private TextField emailField;
+    @FXML private Label usernameStatusLabel;
+    @FXML private Label emailStatusLabel;
     @FXML private TextField phoneField;
     @FXML private ComboBox<UserRole> roleCombo;
     @FXML private CheckBox activeCheckBox;
@@ -45,9 +67,23 @@ public class UserController implements Initializable {
     @FXML private Button deleteButton;
     @FXML private Button clearButton;
     @FXML private Button refreshButton;
+    @FXML private Button importButton;
+    @FXML private TextField userSearchField;
+    @FXML private Label userCountLabel;
     
     private ObservableList<User> users;
     private User selectedUser;
+    private boolean usersExhausted = false;
+    private PauseTransition searchDelay;
+    
+    // Server time the loaded users are current as of; null forces a full reload
+    private Timestamp usersSince;
+    
+    // Directory order: first name, last name, user ID
+    private static final Comparator<User> DIRECTORY_ORDER = Comparator
+        .comparing(User::getFirstName, String.CASE_INSENSITIVE_ORDER)
+        .thenComparing(User::getLastName, String.CASE_INSENSITIVE_ORDER)
+        .thenComparingInt(User::getUserId);
     
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -73,6 +109,24 @@ public class UserController implements Initializable {
         users = FXCollections.observableArrayList();
         usersTable.setItems(users);
         
+        // Fetch the next page as the table nears its last row
+        usersTable.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+            for (Node node : usersTable.lookupAll(".scroll-bar")) {
+                if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                    bar.valueProperty().addListener((vObs, oldValue, newValue) -> {
+                        if (newValue.doubleValue() >= bar.getMax() * 0.9) {
+                            loadNextUsersPage();
+                        }
+                    });
+                }
+            }
+        });
+        
+        // Search once typing pauses
+        searchDelay = new PauseTransition(Duration.millis(DatabaseConstants.USER_SEARCH_DELAY_MS));
+        searchDelay.setOnFinished(e -> loadUsers());
+        userSearchField.textProperty().addListener((obs, oldValue, newValue) -> searchDelay.playFromStart());
+        
         // Handle row selection
         usersTable.getSelectionModel().selectedItemProperty().addListener(
             (obs, oldSelection, newSelection) -> {
@@ -91,6 +145,45 @@ public class UserController implements Initializable {
         roleCombo.setItems(FXCollections.observableArrayList(UserRole.values()));
         roleCombo.setValue(UserRole.STUDENT);
         activeCheckBox.setSelected(true);
+        
+        // Live availability as the librarian types
+        UserRegistry.loadAsync();
+        usernameField.textProperty().addListener((obs, oldValue, newValue) -> updateUsernameStatus());
+        emailField.textProperty().addListener((obs, oldValue, newValue) -> updateEmailStatus());
+    }
+    
+    /**
+     * Show whether the entered username is free
+     */
+    private void updateUsernameStatus() {
+        String username = usernameField.getText().trim();
+        boolean unchanged = selectedUser != null && username.equalsIgnoreCase(selectedUser.getUsername());
+        showAvailability(usernameStatusLabel, username.isEmpty() || unchanged 
+            ? UserRegistry.Availability.UNKNOWN : UserRegistry.checkUsername(username));
+    }
+    
+    /**
+     * Show whether the entered email is free
+     */
+    private void updateEmailStatus() {
+        String email = emailField.getText().trim();
+        boolean unchanged = selectedUser != null && email.equalsIgnoreCase(selectedUser.getEmail());
+        showAvailability(emailStatusLabel, email.isEmpty() || unchanged 
+            ? UserRegistry.Availability.UNKNOWN : UserRegistry.checkEmail(email));
+    }
+    
+    private void showAvailability(Label label, UserRegistry.Availability availability) {
+        switch (availability) {
+            case AVAILABLE -> {
+                label.setText("Available");
+                label.setTextFill(Color.web("#16a34a"));
+            }
+            case TAKEN -> {
+                label.setText("Already in use");
+                label.setTextFill(Color.web("#dc2626"));
+            }
+            default -> label.setText("");
+        }
     }
     
     /**
@@ -101,45 +194,106 @@ public class UserController implements Initializable {
         updateButton.setOnAction(e -> updateUser());
         deleteButton.setOnAction(e -> deleteUser());
         clearButton.setOnAction(e -> clearForm());
-        refreshButton.setOnAction(e -> loadUsers());
+        refreshButton.setOnAction(e -> {
+            UserRegistry.loadAsync();
+            loadUsers();
+        });
+        importButton.setOnAction(e -> importUsers());
     }
     
     /**
-     * Load all users from database
+     * Load the first page of users matching the search
      */
     private void loadUsers() {
         users.clear();
-        
-        String query = """
-            SELECT user_id, username, password, first_name, last_name, 
-                   email, phone_number, role, is_active
-            FROM users 
-            ORDER BY first_name, last_name
-            """;
+        usersExhausted = false;
+        try {
+            usersSince = Database.serverTime();
+        } catch (SQLException e) {
+            usersSince = null;
+        }
+        loadNextUsersPage();
+    }
+    
+    /**
+     * Merge users added or changed since the last load when the window is shown again
+     * Changed users already listed are updated in place; new users are
+     * listed when they fall within the pages already loaded, and during a
+     * search they appear with the next search.
+     */
+    @Override
+    public void refresh() {
+        UserRegistry.loadAsync();
+        if (usersSince == null) {
+            loadUsers();
+            return;
+        }
         
         try {
-            ResultSet rs = Database.executeQuery(query);
-            while (rs != null && rs.next()) {
-                User user = new User(
-                    rs.getInt("user_id"),
-                    rs.getString("username"),
-                    rs.getString("password"),
-                    rs.getString("first_name"),
-                    rs.getString("last_name"),
-                    rs.getString("email"),
-                    rs.getString("phone_number"),
-                    UserRole.fromString(rs.getString("role")),
-                    rs.getBoolean("is_active")
-                );
-                users.add(user);
+            Timestamp since = usersSince;
+            usersSince = Database.serverTime();
+            List<User> changed = UserDirectory.changedSince(since);
+            if (changed.isEmpty()) {
+                return;
+            }
+            
+            Set<Integer> listed = new HashSet<>();
+            for (User user : users) {
+                listed.add(user.getUserId());
+            }
+            Set<Integer> changedIds = new HashSet<>();
+            for (User user : changed) {
+                changedIds.add(user.getUserId());
             }
+            users.removeIf(user -> changedIds.contains(user.getUserId()));
+            
+            boolean searching = !userSearchField.getText().isBlank();
+            User last = users.isEmpty() ? null : users.get(users.size() - 1);
+            for (User user : changed) {
+                if (searching && !listed.contains(user.getUserId())) {
+                    continue;
+                }
+                if (!usersExhausted && last != null && DIRECTORY_ORDER.compare(user, last) > 0) {
+                    continue; // Arrives with a later page
+                }
+                int index = Collections.binarySearch(users, user, DIRECTORY_ORDER);
+                users.add(index < 0 ? -index - 1 : index, user);
+            }
+            updateUserCount();
             
         } catch (SQLException e) {
+            usersSince = null;
+            showError("Error refreshing users: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Fetch the page after the last loaded user
+     */
+    private void loadNextUsersPage() {
+        if (usersExhausted) {
+            return;
+        }
+        
+        try {
+            User last = users.isEmpty() ? null : users.get(users.size() - 1);
+            List<User> page = UserDirectory.search(userSearchField.getText(), false, last, 
+                DatabaseConstants.USER_PAGE_SIZE);
+            usersExhausted = page.size() < DatabaseConstants.USER_PAGE_SIZE;
+            users.addAll(page);
+            updateUserCount();
+        } catch (SQLException e) {
+            usersExhausted = true;
             showError("Error loading users: " + e.getMessage());
             e.printStackTrace();
         }
     }
     
+    private void updateUserCount() {
+        userCountLabel.setText("Showing " + users.size() + (usersExhausted ? "" : "+") + " users");
+    }
+    
     /**
      * Populate form with selected user data
      */
@@ -178,11 +332,18 @@ public class UserController implements Initializable {
             return;
         }
         
-        // Check if username already exists
-        if (isUsernameExists(usernameField.getText().trim())) {
+        // The registry only drives the live hint; it can miss users added at
+        // other desks, so the database decides before saving
+        String username = usernameField.getText().trim();
+        String email = emailField.getText().trim();
+        if (isUsernameExists(username)) {
             showError("Username already exists. Please choose a different username.");
             return;
         }
+        if (isEmailExists(email, 0)) {
+            showError("Email is already registered to another user.");
+            return;
+        }
         
         String query = """
             INSERT INTO users (username, password, first_name, last_name, 
@@ -202,6 +363,7 @@ public class UserController implements Initializable {
         );
         
         if (result > 0) {
+            UserRegistry.add(username, email);
             showInfo("User added successfully!");
             clearForm();
             loadUsers();
@@ -223,12 +385,17 @@ public class UserController implements Initializable {
             return;
         }
         
-        // Check if username already exists (excluding current user)
-        if (!usernameField.getText().trim().equals(selectedUser.getUsername()) &&
-            isUsernameExists(usernameField.getText().trim())) {
+        // Check if username or email already exists (excluding current user)
+        String username = usernameField.getText().trim();
+        String email = emailField.getText().trim();
+        if (!username.equalsIgnoreCase(selectedUser.getUsername()) && isUsernameExists(username)) {
             showError("Username already exists. Please choose a different username.");
             return;
         }
+        if (!email.equalsIgnoreCase(selectedUser.getEmail()) && isEmailExists(email, selectedUser.getUserId())) {
+            showError("Email is already registered to another user.");
+            return;
+        }
         
         String query = """
             UPDATE users 
@@ -259,6 +426,7 @@ public class UserController implements Initializable {
             );
             
             if (result > 0) {
+                UserRegistry.rename(selectedUser.getUsername(), selectedUser.getEmail(), username, email);
                 showInfo("User updated successfully!");
                 clearForm();
                 loadUsers();
@@ -278,6 +446,7 @@ public class UserController implements Initializable {
             );
             
             if (result > 0) {
+                UserRegistry.rename(selectedUser.getUsername(), selectedUser.getEmail(), username, email);
                 showInfo("User updated successfully!");
                 clearForm();
                 loadUsers();
@@ -334,6 +503,58 @@ public class UserController implements Initializable {
         }
     }
     
+    /**
+     * Import users from a CSV file in the background
+     * Rejected rows are written next to the source file
+     */
+    private void importUsers() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Import Users");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV Files", "*.csv"));
+        File file = fileChooser.showOpenDialog(importButton.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        
+        String name = file.getName().replaceFirst("\\.csv$", "");
+        Path rejectFile = file.toPath().resolveSibling(name + "-rejected.csv");
+        
+        Task<UserImporter.Result> task = new Task<>() {
+            @Override
+            protected UserImporter.Result call() throws Exception {
+                UserImporter.Result result = UserImporter.importFile(file.toPath(), null);
+                if (!result.getRejected().isEmpty()) {
+                    UserImporter.writeRejections(rejectFile, result.getRejected());
+                }
+                return result;
+            }
+        };
+        
+        importButton.disableProperty().bind(task.runningProperty());
+        task.setOnSucceeded(e -> {
+            UserImporter.Result result = task.getValue();
+            loadUsers();
+            
+            String message = String.format("Imported %,d users in %.1f seconds.", 
+                result.getImported(), result.getElapsedMillis() / 1000.0);
+            if (result.getRejected().isEmpty()) {
+                showInfo(message);
+            } else {
+                showWarning(message + String.format("%n%,d rows were rejected. See %s for the reasons.", 
+                    result.getRejected().size(), rejectFile.getFileName()));
+            }
+        });
+        task.setOnFailed(e -> {
+            task.getException().printStackTrace();
+            loadUsers();
+            showError("Error importing users: " + task.getException().getMessage());
+        });
+        
+        Thread thread = new Thread(task, "user-import-task");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
     /**
      * Check if username already exists
      */
@@ -348,6 +569,20 @@ public class UserController implements Initializable {
         }
     }
     
+    /**
+     * Check if email belongs to another user
+     */
+    private boolean isEmailExists(String email, int excludeUserId) {
+        String query = "SELECT COUNT(*) as count FROM users WHERE email = ? AND user_id <> ?";
+        try {
+            ResultSet rs = Database.executeQuery(query, email, excludeUserId);
+            return rs != null && rs.next() && rs.getInt("count") > 0;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+    
     /**
      * Validate input fields
      */
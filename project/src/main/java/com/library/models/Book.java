@@ -17,6 +17,9 @@ public class Book {
     private final IntegerProperty availableCopies;
     private final BooleanProperty isActive;
     
+    // "available/total", kept current for the status column
+    private final ReadOnlyStringWrapper availability;
+    
     // Default constructor
     public Book() {
         this.bookId = new SimpleIntegerProperty();
@@ -27,6 +30,10 @@ public class Book {
         this.totalCopies = new SimpleIntegerProperty(1);
         this.availableCopies = new SimpleIntegerProperty(1);
         this.isActive = new SimpleBooleanProperty(true);
+        this.availability = new ReadOnlyStringWrapper("1/1");
+        
+        totalCopies.addListener(observable -> updateAvailability());
+        availableCopies.addListener(observable -> updateAvailability());
     }
     
     // Constructor with parameters
@@ -52,6 +59,7 @@ public class Book {
     public IntegerProperty totalCopiesProperty() { return totalCopies; }
     public IntegerProperty availableCopiesProperty() { return availableCopies; }
     public BooleanProperty isActiveProperty() { return isActive; }
+    public ReadOnlyStringProperty availabilityProperty() { return availability.getReadOnlyProperty(); }
     
     // Getters
     public int getBookId() { return bookId.get(); }
@@ -78,6 +86,10 @@ public class Book {
         return availableCopies.get() > 0;
     }
     
+    private void updateAvailability() {
+        availability.set(availableCopies.get() + "/" + totalCopies.get());
+    }
+    
     public String getAvailabilityStatus() {
         if (availableCopies.get() > 0) {
             return "Available (" + availableCopies.get() + "/" + totalCopies.get() + ")";
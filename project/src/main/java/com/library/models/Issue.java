@@ -23,6 +23,9 @@ public class Issue {
     private final StringProperty bookTitle;
     private final StringProperty userFullName;
     
+    // Precomputed so table cells need no bindings or date math
+    private final ReadOnlyObjectWrapper<IssueStatus> status;
+    
     // Default constructor
     public Issue() {
         this.issueId = new SimpleIntegerProperty();
@@ -35,6 +38,10 @@ public class Issue {
         this.isReturned = new SimpleBooleanProperty(false);
         this.bookTitle = new SimpleStringProperty("");
         this.userFullName = new SimpleStringProperty("");
+        this.status = new ReadOnlyObjectWrapper<>(IssueStatus.ACTIVE);
+        
+        dueDate.addListener(observable -> refreshStatus());
+        isReturned.addListener(observable -> refreshStatus());
     }
     
     // Constructor with parameters
@@ -62,6 +69,7 @@ public class Issue {
     public BooleanProperty isReturnedProperty() { return isReturned; }
     public StringProperty bookTitleProperty() { return bookTitle; }
     public StringProperty userFullNameProperty() { return userFullName; }
+    public ReadOnlyObjectProperty<IssueStatus> statusProperty() { return status.getReadOnlyProperty(); }
     
     // Getters
     public int getIssueId() { return issueId.get(); }
@@ -106,16 +114,15 @@ public class Issue {
         return !isReturned.get() && DateUtils.isDueSoon(dueDate.get());
     }
     
-    public String getStatus() {
-        if (isReturned.get()) {
-            return "Returned";
-        } else if (isOverdue()) {
-            return "Overdue";
-        } else if (isDueSoon()) {
-            return "Due Soon";
-        } else {
-            return "Active";
-        }
+    public IssueStatus getStatus() {
+        return status.get();
+    }
+    
+    /**
+     * Recompute the status, e.g. after the date rolls over
+     */
+    public void refreshStatus() {
+        status.set(IssueStatus.of(dueDate.get(), isReturned.get()));
     }
     
     @Override
@@ -0,0 +1,46 @@
+package com.library.models;
+
+import com.library.utils.DateUtils;
+import java.time.LocalDate;
+
+/**
+ * Enumeration for the display status of a book issue
+ */
+public enum IssueStatus {
+    ACTIVE("Active"),
+    DUE_SOON("Due Soon"),
+    OVERDUE("Overdue"),
+    RETURNED("Returned");
+    
+    private final String displayName;
+    
+    IssueStatus(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    @Override
+    public String toString() {
+        return displayName;
+    }
+    
+    /**
+     * Status of an issue as of today's date
+     */
+    public static IssueStatus of(LocalDate dueDate, boolean returned) {
+        if (returned) {
+            return RETURNED;
+        } else if (dueDate == null) {
+            return ACTIVE;
+        } else if (DateUtils.isOverdue(dueDate)) {
+            return OVERDUE;
+        } else if (DateUtils.isDueSoon(dueDate)) {
+            return DUE_SOON;
+        } else {
+            return ACTIVE;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.library.models;
+
+import javafx.beans.property.*;
+import java.time.LocalDate;
+
+/**
+ * Reservation model class representing book holds
+ * A hold waits in its book's queue until a returned copy is set aside for it
+ */
+public class Reservation {
+    
+    public static final String STATUS_ACTIVE = "Active";
+    public static final String STATUS_READY = "Ready";
+    public static final String STATUS_FULFILLED = "Fulfilled";
+    public static final String STATUS_EXPIRED = "Expired";
+    public static final String STATUS_CANCELLED = "Cancelled";
+    
+    private final IntegerProperty reservationId;
+    private final IntegerProperty userId;
+    private final IntegerProperty bookId;
+    private final ObjectProperty<LocalDate> reservationDate;
+    private final ObjectProperty<LocalDate> expiryDate;
+    private final StringProperty status;
+    
+    // Default constructor
+    public Reservation() {
+        this.reservationId = new SimpleIntegerProperty();
+        this.userId = new SimpleIntegerProperty();
+        this.bookId = new SimpleIntegerProperty();
+        this.reservationDate = new SimpleObjectProperty<>();
+        this.expiryDate = new SimpleObjectProperty<>();
+        this.status = new SimpleStringProperty(STATUS_ACTIVE);
+    }
+    
+    // Constructor with parameters
+    public Reservation(int reservationId, int userId, int bookId, LocalDate reservationDate,
+                       LocalDate expiryDate, String status) {
+        this();
+        setReservationId(reservationId);
+        setUserId(userId);
+        setBookId(bookId);
+        setReservationDate(reservationDate);
+        setExpiryDate(expiryDate);
+        setStatus(status);
+    }
+    
+    // Property getters
+    public IntegerProperty reservationIdProperty() { return reservationId; }
+    public IntegerProperty userIdProperty() { return userId; }
+    public IntegerProperty bookIdProperty() { return bookId; }
+    public ObjectProperty<LocalDate> reservationDateProperty() { return reservationDate; }
+    public ObjectProperty<LocalDate> expiryDateProperty() { return expiryDate; }
+    public StringProperty statusProperty() { return status; }
+    
+    // Getters
+    public int getReservationId() { return reservationId.get(); }
+    public int getUserId() { return userId.get(); }
+    public int getBookId() { return bookId.get(); }
+    public LocalDate getReservationDate() { return reservationDate.get(); }
+    public LocalDate getExpiryDate() { return expiryDate.get(); }
+    public String getStatus() { return status.get(); }
+    
+    // Setters
+    public void setReservationId(int reservationId) { this.reservationId.set(reservationId); }
+    public void setUserId(int userId) { this.userId.set(userId); }
+    public void setBookId(int bookId) { this.bookId.set(bookId); }
+    public void setReservationDate(LocalDate reservationDate) { this.reservationDate.set(reservationDate); }
+    public void setExpiryDate(LocalDate expiryDate) { this.expiryDate.set(expiryDate); }
+    public void setStatus(String status) { this.status.set(status); }
+    
+    // Utility methods
+    public boolean isReady() {
+        return STATUS_READY.equals(status.get());
+    }
+    
+    @Override
+    public String toString() {
+        return "Reservation #" + reservationId.get() + " (" + status.get() + ")";
+    }
+}
@@ -0,0 +1,722 @@
+package com.library.utils;
+
+import com.library.Database;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bulk catalog ingestion from CSV and MARC 21 (ISO 2709) files
+ * The file is memory-mapped in windows and parsed record by record without
+ * loading it whole. ISBNs are normalized to the catalog's 978-XXXXXXXXXX
+ * form, repeated ISBNs are merged in memory, and each batch of distinct
+ * books is upserted by ISBN in one transaction on a writer thread while the
+ * next batch is parsed. Depending on the mode, copies in the feed are added
+ * to existing holdings or replace them; title, author and category of books
+ * already cataloged are kept.
+ */
+public class CatalogImporter {
+    
+    private static final String DEFAULT_CATEGORY = "General";
+    private static final int MAX_COPIES = 10_000;
+    
+    private static final byte FIELD_TERMINATOR = 0x1E;
+    private static final byte SUBFIELD_DELIMITER = 0x1F;
+    private static final byte RECORD_TERMINATOR = 0x1D;
+    
+    private static final String UPSERT_BOOK = """
+        INSERT INTO books (title, author, category, isbn, total_copies, available_copies, is_active)
+        VALUES (?, ?, ?, ?, ?, ?, TRUE)
+        ON DUPLICATE KEY UPDATE
+            total_copies = total_copies + VALUES(total_copies),
+            available_copies = available_copies + VALUES(available_copies),
+            is_active = TRUE
+        """;
+    
+    private static final String INSERT_BOOK = """
+        INSERT INTO books (title, author, category, isbn, total_copies, available_copies, is_active)
+        VALUES (?, ?, ?, ?, ?, ?, TRUE)
+        ON DUPLICATE KEY UPDATE book_id = book_id
+        """;
+    
+    // Assignments apply left to right, so available_copies moves by the
+    // difference from the old total. Copies on loan or on the hold shelf
+    // stay counted, and a feed with fewer copies than that is refused.
+    private static final String SET_HOLDINGS = """
+        UPDATE books
+        SET available_copies = available_copies + ? - total_copies,
+            total_copies = ?,
+            is_active = TRUE
+        WHERE isbn = ? AND total_copies - available_copies <= ?
+        """;
+    
+    /**
+     * How feed copies combine with existing holdings
+     */
+    public enum Mode {
+        /** Feed copies replace the book's total, so re-importing a feed changes nothing */
+        SET_HOLDINGS("Set holdings"),
+        /** Feed copies are added to the book's total, e.g. for a delivery of new stock */
+        ADD_COPIES("Add copies");
+        
+        private final String displayName;
+        
+        Mode(String displayName) {
+            this.displayName = displayName;
+        }
+        
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+    
+    /**
+     * Input file layout
+     */
+    public enum Format {
+        CSV,
+        MARC;
+        
+        /**
+         * Guess the format from the file extension
+         */
+        public static Format of(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            return name.endsWith(".mrc") || name.endsWith(".marc") ? MARC : CSV;
+        }
+    }
+    
+    /**
+     * Record that could not be imported
+     */
+    public static class Rejection {
+        private final long record;
+        private final String reason;
+        private final String isbn;
+        private final String title;
+        
+        Rejection(long record, String reason, String isbn, String title) {
+            this.record = record;
+            this.reason = reason;
+            this.isbn = isbn;
+            this.title = title;
+        }
+        
+        public long getRecord() { return record; }
+        public String getReason() { return reason; }
+        public String getIsbn() { return isbn; }
+        public String getTitle() { return title; }
+    }
+    
+    /**
+     * Outcome of one ingestion
+     */
+    public static class Result {
+        private final long records;
+        private final long books;
+        private final long merged;
+        private final List<Rejection> rejected;
+        private final long elapsedMillis;
+        
+        Result(long records, long books, long merged, List<Rejection> rejected, long elapsedMillis) {
+            this.records = records;
+            this.books = books;
+            this.merged = merged;
+            this.rejected = rejected;
+            this.elapsedMillis = elapsedMillis;
+        }
+        
+        public long getRecords() { return records; }
+        
+        /**
+         * Distinct ISBNs written per batch
+         */
+        public long getBooks() { return books; }
+        
+        /**
+         * Records folded into an earlier record with the same ISBN
+         */
+        public long getMerged() { return merged; }
+        public List<Rejection> getRejected() { return rejected; }
+        public long getElapsedMillis() { return elapsedMillis; }
+    }
+    
+    /**
+     * One catalog entry ready to upsert
+     */
+    private static class Entry {
+        final long record;
+        final String isbn;
+        final String title;
+        final String author;
+        final String category;
+        int copies;
+        
+        Entry(long record, String isbn, String title, String author, String category, int copies) {
+            this.record = record;
+            this.isbn = isbn;
+            this.title = title;
+            this.author = author;
+            this.category = category;
+            this.copies = copies;
+        }
+    }
+    
+    /**
+     * Receives each complete record in a mapped window
+     */
+    private interface RecordHandler {
+        void handle(MappedByteBuffer buffer, int start, int end) throws IOException, SQLException, InterruptedException;
+    }
+    
+    /**
+     * Parse state shared by the record handlers of one ingestion
+     */
+    private static class Ingestion {
+        final Connection conn;
+        final Mode mode;
+        final LongAdder progress;
+        final ExecutorService writer;
+        final List<Rejection> rejected = Collections.synchronizedList(new ArrayList<>());
+        final LongAdder books = new LongAdder();
+        Map<String, Entry> batch = new LinkedHashMap<>();
+        Future<?> pending;
+        List<String> columns;
+        byte[] bytes = new byte[4096];
+        long records;
+        long merged;
+        
+        Ingestion(Connection conn, Mode mode, LongAdder progress, ExecutorService writer) {
+            this.conn = conn;
+            this.mode = mode;
+            this.progress = progress;
+            this.writer = writer;
+        }
+        
+        /**
+         * Validate one parsed record and add it to the current batch
+         */
+        void accept(String rawIsbn, String title, String author, String category, String copiesText)
+                throws SQLException, InterruptedException {
+            records++;
+            if (progress != null) {
+                progress.increment();
+            }
+            
+            String isbn = normalizeIsbn(rawIsbn);
+            title = title == null ? "" : title.trim();
+            author = author == null ? "" : author.trim();
+            category = category == null || category.isBlank() ? DEFAULT_CATEGORY : category.trim();
+            String reason = null;
+            int copies = 1;
+            if (isbn == null) {
+                reason = rawIsbn == null || rawIsbn.isBlank() ? "Missing ISBN" : "Invalid ISBN";
+            } else if (title.isEmpty()) {
+                reason = "Missing title";
+            } else if (author.isEmpty()) {
+                reason = "Missing author";
+            } else if (title.length() > 255 || author.length() > 255 || category.length() > 100) {
+                reason = "Title, author or category is too long";
+            } else if (copiesText != null && !copiesText.isBlank()) {
+                try {
+                    copies = Integer.parseInt(copiesText.trim());
+                } catch (NumberFormatException e) {
+                    copies = -1;
+                }
+                if (copies < 1 || copies > MAX_COPIES) {
+                    reason = "Invalid copies: " + copiesText.trim();
+                }
+            }
+            if (reason != null) {
+                rejected.add(new Rejection(records, reason, rawIsbn == null ? "" : rawIsbn.trim(), title));
+                return;
+            }
+            
+            Entry existing = batch.get(isbn);
+            if (existing != null) {
+                existing.copies = Math.min(existing.copies + copies, MAX_COPIES);
+                merged++;
+                return;
+            }
+            batch.put(isbn, new Entry(records, isbn, title, author, category, copies));
+            if (batch.size() >= DatabaseConstants.CATALOG_BATCH_ROWS) {
+                flush();
+            }
+        }
+        
+        /**
+         * Hand the current batch to the writer, keeping one batch in flight
+         */
+        void flush() throws SQLException, InterruptedException {
+            if (batch.isEmpty()) {
+                return;
+            }
+            await();
+            List<Entry> entries = new ArrayList<>(batch.values());
+            batch = new LinkedHashMap<>();
+            pending = writer.submit(() -> {
+                books.add(upsert(conn, mode, entries, rejected));
+                return null;
+            });
+        }
+        
+        void await() throws SQLException, InterruptedException {
+            if (pending == null) {
+                return;
+            }
+            try {
+                pending.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof SQLException ? (SQLException) cause : new SQLException(cause);
+            } finally {
+                pending = null;
+            }
+        }
+        
+        /**
+         * Copy a record into a reusable array for decoding
+         */
+        byte[] copy(MappedByteBuffer buffer, int start, int end) {
+            int length = end - start;
+            if (bytes.length < length) {
+                bytes = new byte[Math.max(length, bytes.length * 2)];
+            }
+            buffer.get(start, bytes, 0, length);
+            return bytes;
+        }
+    }
+    
+    private CatalogImporter() {
+        // Utility class - prevent instantiation
+    }
+    
+    /**
+     * Ingest a CSV or MARC file
+     * CSV files need a header with isbn, title and author columns; category
+     * and copies are optional.
+     * @param progress optional counter advanced for every record parsed
+     */
+    public static Result importFile(Path file, Format format, Mode mode, LongAdder progress)
+            throws IOException, SQLException, InterruptedException {
+        long started = System.currentTimeMillis();
+        ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "catalog-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        Ingestion ingestion;
+        try (Connection conn = Database.openConnection();
+             FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ingestion = new Ingestion(conn, mode, progress, writer);
+            try {
+                if (format == Format.MARC) {
+                    scan(channel, RECORD_TERMINATOR, false, (buffer, start, end) -> parseMarc(ingestion, buffer, start, end));
+                } else {
+                    scan(channel, (byte) '\n', true, (buffer, start, end) -> parseCsv(ingestion, buffer, start, end));
+                    if (ingestion.columns == null) {
+                        throw new IOException("The file is empty.");
+                    }
+                }
+                ingestion.flush();
+                ingestion.await();
+            } finally {
+                // Holdings changed even if a later batch failed
+                if (ingestion.books.sum() > 0) {
+                    ReportCache.invalidateAll();
+                }
+            }
+        } finally {
+            writer.shutdownNow();
+        }
+        
+        // Holdings refused by the writer arrive after later parse rejections
+        List<Rejection> rejected = new ArrayList<>(ingestion.rejected);
+        rejected.sort(Comparator.comparingLong(Rejection::getRecord));
+        return new Result(ingestion.records, ingestion.books.sum(), ingestion.merged,
+            rejected, System.currentTimeMillis() - started);
+    }
+    
+    /**
+     * Write rejected records with their positions and reasons
+     */
+    public static void writeRejections(Path file, List<Rejection> rejected) throws IOException {
+        try (CsvExporter out = new CsvExporter(file)) {
+            out.raw("record,reason,isbn,title\n");
+            for (Rejection rejection : rejected) {
+                out.field(rejection.record).field(rejection.reason).field(rejection.isbn).field(rejection.title);
+                out.endRow();
+            }
+        }
+    }
+    
+    /**
+     * Normalize an ISBN-10 or ISBN-13 to the catalog's 978-XXXXXXXXXX form
+     * Hyphens and spaces are ignored, as is any qualifier after the number,
+     * such as "(pbk.)" in MARC records.
+     * @return normalized ISBN, or null when the number or its check digit is invalid
+     */
+    public static String normalizeIsbn(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(13);
+        for (int i = 0; i < raw.length() && digits.length() <= 13; i++) {
+            char c = raw.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            } else if ((c == 'X' || c == 'x') && digits.length() == 9) {
+                digits.append('X');
+            } else if (c == '-' || c == ' ') {
+                continue;
+            } else if (digits.length() > 0) {
+                break;
+            }
+        }
+        
+        String isbn13;
+        if (digits.length() == 10) {
+            int sum = 0;
+            for (int i = 0; i < 10; i++) {
+                char c = digits.charAt(i);
+                sum += (10 - i) * (c == 'X' ? 10 : c - '0');
+            }
+            if (sum % 11 != 0) {
+                return null;
+            }
+            String body = "978" + digits.substring(0, 9);
+            isbn13 = body + isbn13CheckDigit(body);
+        } else if (digits.length() == 13 && digits.indexOf("X") < 0) {
+            isbn13 = digits.toString();
+            if (!isbn13.startsWith("978") && !isbn13.startsWith("979")
+                    || isbn13CheckDigit(isbn13.substring(0, 12)) != isbn13.charAt(12)) {
+                return null;
+            }
+        } else {
+            return null;
+        }
+        return isbn13.substring(0, 3) + "-" + isbn13.substring(3);
+    }
+    
+    private static char isbn13CheckDigit(String first12) {
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (first12.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return (char) ('0' + (10 - sum % 10) % 10);
+    }
+    
+    /**
+     * Map the file window by window and report each complete record
+     * A window ends at the last complete record; the next window starts
+     * right after it, so files larger than 2 GB are handled too.
+     */
+    private static void scan(FileChannel channel, byte terminator, boolean quotes, RecordHandler handler)
+            throws IOException, SQLException, InterruptedException {
+        long size = channel.size();
+        long base = 0;
+        while (base < size) {
+            int length = (int) Math.min(DatabaseConstants.CATALOG_MAP_WINDOW_BYTES, size - base);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, base, length);
+            int start = 0;
+            boolean quoted = false;
+            for (int i = 0; i < length; i++) {
+                byte b = buffer.get(i);
+                if (quotes && b == '"') {
+                    // A doubled quote toggles twice and leaves the state unchanged
+                    quoted = !quoted;
+                } else if (b == terminator && !quoted) {
+                    handler.handle(buffer, start, i);
+                    start = i + 1;
+                }
+            }
+            
+            if (base + length == size) {
+                if (start < length) {
+                    handler.handle(buffer, start, length);
+                }
+                return;
+            }
+            if (start == 0) {
+                throw new IOException("Record at byte " + base + " does not fit in the read window.");
+            }
+            base += start;
+        }
+    }
+    
+    private static void parseCsv(Ingestion ingestion, MappedByteBuffer buffer, int start, int end)
+            throws IOException, SQLException, InterruptedException {
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        // Skip a UTF-8 byte order mark before the header
+        if (ingestion.columns == null && end - start >= 3 && buffer.get(start) == (byte) 0xEF
+                && buffer.get(start + 1) == (byte) 0xBB && buffer.get(start + 2) == (byte) 0xBF) {
+            start += 3;
+        }
+        String line = new String(ingestion.copy(buffer, start, end), 0, end - start, StandardCharsets.UTF_8);
+        if (line.isBlank()) {
+            return;
+        }
+        List<String> fields = splitCsv(line);
+        
+        if (ingestion.columns == null) {
+            List<String> columns = new ArrayList<>();
+            for (String field : fields) {
+                columns.add(field.trim().toLowerCase(Locale.ROOT));
+            }
+            for (String required : new String[] { "isbn", "title", "author" }) {
+                if (!columns.contains(required)) {
+                    throw new IOException("Missing required column: " + required);
+                }
+            }
+            ingestion.columns = columns;
+            return;
+        }
+        
+        List<String> columns = ingestion.columns;
+        ingestion.accept(column(fields, columns, "isbn"), column(fields, columns, "title"),
+            column(fields, columns, "author"), column(fields, columns, "category"), column(fields, columns, "copies"));
+    }
+    
+    private static String column(List<String> fields, List<String> columns, String name) {
+        int index = columns.indexOf(name);
+        return index >= 0 && index < fields.size() ? fields.get(index) : null;
+    }
+    
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+    
+    /**
+     * Parse one ISO 2709 record
+     * ISBN comes from 020$a, title from 245$a$b, author from 100, 110, 111 or
+     * 700 $a, category from the first 650$a, and copies from the number of
+     * 852 holdings fields.
+     */
+    private static void parseMarc(Ingestion ingestion, MappedByteBuffer buffer, int start, int end)
+            throws SQLException, InterruptedException {
+        int length = end - start;
+        if (length < 24) {
+            // Trailing padding between or after records
+            boolean blank = true;
+            for (int i = start; i < end && blank; i++) {
+                byte b = buffer.get(i);
+                blank = b == '\n' || b == '\r' || b == ' ' || b == 0;
+            }
+            if (!blank) {
+                ingestion.records++;
+                ingestion.rejected.add(new Rejection(ingestion.records, "Truncated MARC record", "", ""));
+            }
+            return;
+        }
+        
+        byte[] record = ingestion.copy(buffer, start, end);
+        // Leader position 9 is 'a' for UTF-8; MARC-8 is read as Latin-1, which keeps ASCII intact
+        Charset charset = record[9] == 'a' ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1;
+        int baseAddress = digits(record, 12, 5);
+        if (baseAddress < 25 || baseAddress > length) {
+            ingestion.records++;
+            ingestion.rejected.add(new Rejection(ingestion.records, "Malformed MARC leader", "", ""));
+            return;
+        }
+        
+        List<String> isbns = new ArrayList<>();
+        String title = null;
+        String author = null;
+        String addedAuthor = null;
+        String category = null;
+        int holdings = 0;
+        for (int entry = 24; entry + 12 <= baseAddress - 1 && record[entry] != FIELD_TERMINATOR; entry += 12) {
+            String tag = new String(record, entry, 3, StandardCharsets.US_ASCII);
+            int fieldLength = digits(record, entry + 3, 4);
+            int fieldStart = baseAddress + digits(record, entry + 7, 5);
+            if (fieldLength < 0 || fieldStart < baseAddress || fieldStart + fieldLength > length) {
+                continue;
+            }
+            int fieldEnd = fieldStart + fieldLength;
+            switch (tag) {
+                case "020" -> {
+                    String isbn = subfield(record, fieldStart, fieldEnd, 'a', charset);
+                    if (isbn != null) {
+                        isbns.add(isbn);
+                    }
+                }
+                case "245" -> {
+                    String main = subfield(record, fieldStart, fieldEnd, 'a', charset);
+                    String rest = subfield(record, fieldStart, fieldEnd, 'b', charset);
+                    if (main != null) {
+                        title = trimPunctuation(rest == null ? main : trimPunctuation(main) + ": " + rest);
+                    }
+                }
+                case "100", "110", "111" -> {
+                    if (author == null) {
+                        author = trimPunctuation(subfield(record, fieldStart, fieldEnd, 'a', charset));
+                    }
+                }
+                case "700" -> {
+                    if (addedAuthor == null) {
+                        addedAuthor = trimPunctuation(subfield(record, fieldStart, fieldEnd, 'a', charset));
+                    }
+                }
+                case "650" -> {
+                    if (category == null) {
+                        category = trimPunctuation(subfield(record, fieldStart, fieldEnd, 'a', charset));
+                    }
+                }
+                case "852" -> holdings++;
+                default -> { }
+            }
+        }
+        
+        // Prefer the first 020 that carries a valid ISBN
+        String isbn = isbns.isEmpty() ? null : isbns.get(0);
+        for (String candidate : isbns) {
+            if (normalizeIsbn(candidate) != null) {
+                isbn = candidate;
+                break;
+            }
+        }
+        ingestion.accept(isbn, title, author != null ? author : addedAuthor, category,
+            holdings > 0 ? String.valueOf(holdings) : null);
+    }
+    
+    /**
+     * First occurrence of a subfield in a data field, or null
+     */
+    private static String subfield(byte[] record, int fieldStart, int fieldEnd, char code, Charset charset) {
+        // Data fields start with two indicator bytes
+        for (int i = fieldStart + 2; i < fieldEnd - 1; i++) {
+            if (record[i] == SUBFIELD_DELIMITER && record[i + 1] == code) {
+                int from = i + 2;
+                int to = from;
+                while (to < fieldEnd && record[to] != SUBFIELD_DELIMITER && record[to] != FIELD_TERMINATOR) {
+                    to++;
+                }
+                return new String(record, from, to - from, charset).trim();
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Drop the ISBD punctuation MARC leaves at the end of a subfield
+     */
+    private static String trimPunctuation(String value) {
+        if (value == null) {
+            return null;
+        }
+        int end = value.length();
+        while (end > 0 && " /:;,.=".indexOf(value.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        return value.substring(0, end);
+    }
+    
+    private static int digits(byte[] record, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            if (record[i] < '0' || record[i] > '9') {
+                return -1;
+            }
+            value = value * 10 + (record[i] - '0');
+        }
+        return value;
+    }
+    
+    /**
+     * Upsert a batch of distinct ISBNs in one transaction
+     * @return number of books added or updated
+     */
+    private static int upsert(Connection conn, Mode mode, List<Entry> entries, List<Rejection> rejected) throws SQLException {
+        boolean set = mode == Mode.SET_HOLDINGS;
+        conn.setAutoCommit(false);
+        try (PreparedStatement stmt = conn.prepareStatement(set ? INSERT_BOOK : UPSERT_BOOK);
+             PreparedStatement holdings = set ? conn.prepareStatement(SET_HOLDINGS) : null) {
+            for (Entry entry : entries) {
+                stmt.setString(1, entry.title);
+                stmt.setString(2, entry.author);
+                stmt.setString(3, entry.category);
+                stmt.setString(4, entry.isbn);
+                stmt.setInt(5, entry.copies);
+                stmt.setInt(6, entry.copies);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            
+            int written = entries.size();
+            if (set) {
+                // New books were inserted with their feed count; this is a no-op for them
+                for (Entry entry : entries) {
+                    holdings.setInt(1, entry.copies);
+                    holdings.setInt(2, entry.copies);
+                    holdings.setString(3, entry.isbn);
+                    holdings.setInt(4, entry.copies);
+                    holdings.addBatch();
+                }
+                // Counts are matched rows, so only the on-loan guard yields 0
+                int[] counts = holdings.executeBatch();
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == 0) {
+                        Entry entry = entries.get(i);
+                        rejected.add(new Rejection(entry.record, "Fewer copies than are on loan or on hold",
+                            entry.isbn, entry.title));
+                        written--;
+                    }
+                }
+            }
+            conn.commit();
+            return written;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.library.utils;
+
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process circulation throughput metrics
+ * Events increment striped counters on the hot path; a background task rolls
+ * them into per-minute and per-hour ring buffers once a minute
+ */
+public class CirculationMetrics {
+    
+    /**
+     * Recorded desk events
+     */
+    public enum Event {
+        ISSUE("Issues"),
+        RETURN("Returns"),
+        SEARCH("Searches");
+        
+        private final String displayName;
+        
+        Event(String displayName) {
+            this.displayName = displayName;
+        }
+        
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+    
+    public static final int MINUTES = 60;
+    public static final int HOURS = 24;
+    
+    private static final int EVENTS = Event.values().length;
+    
+    // Counts for the minute in progress
+    private static final LongAdder[] current = new LongAdder[EVENTS];
+    private static final LongAdder[] totals = new LongAdder[EVENTS];
+    
+    // Slot (event * size + index) holds the count for one minute or hour;
+    // written only by the roll-up task
+    private static final AtomicLongArray minuteRing = new AtomicLongArray(EVENTS * MINUTES);
+    private static final AtomicLongArray hourRing = new AtomicLongArray(EVENTS * HOURS);
+    private static final long[] hourInProgress = new long[EVENTS];
+    
+    private static volatile long currentMinute = epochMinute();
+    private static boolean started = false;
+    
+    static {
+        for (int i = 0; i < EVENTS; i++) {
+            current[i] = new LongAdder();
+            totals[i] = new LongAdder();
+        }
+    }
+    
+    private CirculationMetrics() {
+        // Utility class - prevent instantiation
+    }
+    
+    /**
+     * Start rolling counters into the ring buffers
+     */
+    public static synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        
+        ScheduledExecutorService roller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "circulation-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long delayMillis = 60_000 - System.currentTimeMillis() % 60_000;
+        roller.scheduleAtFixedRate(CirculationMetrics::roll, delayMillis, 60_000, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Record one event
+     */
+    public static void record(Event event) {
+        current[event.ordinal()].increment();
+        totals[event.ordinal()].increment();
+    }
+    
+    /**
+     * Total events recorded since startup
+     */
+    public static long getTotal(Event event) {
+        return totals[event.ordinal()].sum();
+    }
+    
+    /**
+     * Events per minute for the last hour, oldest first, ending with the minute in progress
+     */
+    public static long[] getMinuteSeries(Event event) {
+        long[] series = new long[MINUTES];
+        long minute = currentMinute;
+        int base = event.ordinal() * MINUTES;
+        for (int i = 0; i < MINUTES - 1; i++) {
+            long slotMinute = minute - (MINUTES - 1) + i;
+            series[i] = minuteRing.get(base + (int) Math.floorMod(slotMinute, (long) MINUTES));
+        }
+        series[MINUTES - 1] = current[event.ordinal()].sum();
+        return series;
+    }
+    
+    /**
+     * Events per hour for the last day, oldest first, ending with the hour in progress
+     */
+    public static long[] getHourSeries(Event event) {
+        long[] series = new long[HOURS];
+        long hour = currentMinute / 60;
+        int base = event.ordinal() * HOURS;
+        for (int i = 0; i < HOURS - 1; i++) {
+            long slotHour = hour - (HOURS - 1) + i;
+            series[i] = hourRing.get(base + (int) Math.floorMod(slotHour, (long) HOURS));
+        }
+        series[HOURS - 1] = hourRing.get(base + (int) Math.floorMod(hour, (long) HOURS))
+            + current[event.ordinal()].sum();
+        return series;
+    }
+    
+    /**
+     * Close the minute in progress and clear slots skipped while idle
+     */
+    private static synchronized void roll() {
+        long now = epochMinute();
+        long minute = currentMinute;
+        
+        for (int e = 0; e < EVENTS; e++) {
+            long count = current[e].sumThenReset();
+            minuteRing.set(e * MINUTES + (int) Math.floorMod(minute, (long) MINUTES), count);
+            hourInProgress[e] += count;
+            hourRing.set(e * HOURS + (int) Math.floorMod(minute / 60, (long) HOURS), hourInProgress[e]);
+        }
+        
+        // Advance, zeroing minutes and hours that passed without a roll-up
+        for (long m = minute + 1; m <= now; m++) {
+            if (m - minute > MINUTES && m % 60 != 0) {
+                continue;
+            }
+            for (int e = 0; e < EVENTS; e++) {
+                minuteRing.set(e * MINUTES + (int) Math.floorMod(m, (long) MINUTES), 0);
+                if (m % 60 == 0) {
+                    hourInProgress[e] = 0;
+                    hourRing.set(e * HOURS + (int) Math.floorMod(m / 60, (long) HOURS), 0);
+                }
+            }
+        }
+        currentMinute = Math.max(now, minute + 1);
+    }
+    
+    private static long epochMinute() {
+        return Instant.now().getEpochSecond() / 60;
+    }
+}
@@ -0,0 +1,135 @@
+package com.library.utils;
+
+import com.library.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Daily circulation rollups per book category and user role
+ * Issue and return transactions update the day's row incrementally;
+ * backfill rebuilds history one month at a time
+ */
+public class CirculationRollup {
+    
+    private CirculationRollup() {
+        // Utility class - prevent instantiation
+    }
+    
+    /**
+     * Count an issue in the rollup, inside the issue transaction
+     */
+    static void recordIssue(Connection conn, int userId, int bookId, LocalDate issueDate) throws SQLException {
+        try (PreparedStatement stmt = Database.prepare(conn, """
+                INSERT INTO circulation_daily_rollup (rollup_date, category, role, issues)
+                SELECT ?, b.category, u.role, 1
+                FROM books b, users u
+                WHERE b.book_id = ? AND u.user_id = ?
+                ON DUPLICATE KEY UPDATE issues = issues + 1
+                """, issueDate, bookId, userId)) {
+            stmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Count a return, late return and fine in the rollup, inside the return transaction
+     */
+    static void recordReturn(Connection conn, int issueId, LocalDate returnDate, double fine) throws SQLException {
+        try (PreparedStatement stmt = Database.prepare(conn, """
+                INSERT INTO circulation_daily_rollup (rollup_date, category, role, returns, overdue_returns, fines)
+                SELECT ?, b.category, u.role, 1, IF(bi.due_date < ?, 1, 0), ?
+                FROM book_issues bi
+                JOIN books b ON bi.book_id = b.book_id
+                JOIN users u ON bi.user_id = u.user_id
+                WHERE bi.issue_id = ?
+                ON DUPLICATE KEY UPDATE
+                    returns = returns + 1,
+                    overdue_returns = overdue_returns + VALUES(overdue_returns),
+                    fines = fines + VALUES(fines)
+                """, returnDate, returnDate, fine, issueId)) {
+            stmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Rebuild rollups from book_issues on a dedicated connection,
+     * one month per transaction
+     */
+    public static void backfill(Consumer<LocalDate> progress) throws SQLException {
+        try (Connection conn = Database.openConnection()) {
+            LocalDate first = null;
+            try (PreparedStatement stmt = Database.prepare(conn, "SELECT MIN(issue_date) as first_date FROM book_issues");
+                 ResultSet rs = stmt.executeQuery()) {
+                if (rs.next() && rs.getDate("first_date") != null) {
+                    first = rs.getDate("first_date").toLocalDate();
+                }
+            }
+            if (first == null) {
+                return;
+            }
+            
+            conn.setAutoCommit(false);
+            LocalDate end = DayClock.today().plusDays(1);
+            for (LocalDate month = first.withDayOfMonth(1); month.isBefore(end); month = month.plusMonths(1)) {
+                if (Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+                try {
+                    rebuildRange(conn, month, month.plusMonths(1));
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+                if (progress != null) {
+                    progress.accept(month);
+                }
+            }
+        } finally {
+            ReportCache.invalidateAll();
+        }
+    }
+    
+    /**
+     * Recompute rollup rows for days in [from, to)
+     */
+    private static void rebuildRange(Connection conn, LocalDate from, LocalDate to) throws SQLException {
+        try (PreparedStatement stmt = Database.prepare(conn,
+                "DELETE FROM circulation_daily_rollup WHERE rollup_date >= ? AND rollup_date < ?", from, to)) {
+            stmt.executeUpdate();
+        }
+        
+        try (PreparedStatement stmt = Database.prepare(conn, """
+                INSERT INTO circulation_daily_rollup (rollup_date, category, role, issues)
+                SELECT bi.issue_date, b.category, u.role, COUNT(*)
+                FROM book_issues bi
+                JOIN books b ON bi.book_id = b.book_id
+                JOIN users u ON bi.user_id = u.user_id
+                WHERE bi.issue_date >= ? AND bi.issue_date < ?
+                GROUP BY bi.issue_date, b.category, u.role
+                """, from, to)) {
+            stmt.executeUpdate();
+        }
+        
+        try (PreparedStatement stmt = Database.prepare(conn, """
+                INSERT INTO circulation_daily_rollup (rollup_date, category, role, returns, overdue_returns, fines)
+                SELECT bi.return_date, b.category, u.role, COUNT(*),
+                       SUM(bi.return_date > bi.due_date), SUM(bi.fine_amount)
+                FROM book_issues bi
+                JOIN books b ON bi.book_id = b.book_id
+                JOIN users u ON bi.user_id = u.user_id
+                WHERE bi.is_returned = 1 AND bi.return_date >= ? AND bi.return_date < ?
+                GROUP BY bi.return_date, b.category, u.role
+                ON DUPLICATE KEY UPDATE
+                    returns = VALUES(returns),
+                    overdue_returns = VALUES(overdue_returns),
+                    fines = VALUES(fines)
+                """, from, to)) {
+            stmt.executeUpdate();
+        }
+    }
+}
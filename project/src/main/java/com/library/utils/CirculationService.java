@@ -0,0 +1,159 @@
+package com.library.utils;
+
+import com.library.Database;
+import com.library.models.Issue;
+import com.library.models.Reservation;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Issue and return operations
+ * Each operation runs in one transaction covering the loan record,
+ * book availability, hold allocation and the daily rollup.
+ * These methods are the only writers of books.available_copies for loans;
+ * the schema's issue and return counter triggers are dropped.
+ */
+public class CirculationService {
+    
+    private CirculationService() {
+        // Utility class - prevent instantiation
+    }
+    
+    /**
+     * Result of a return, naming the hold the copy was set aside for
+     */
+    public static class ReturnResult {
+        private final boolean success;
+        private final Reservation allocatedHold;
+        
+        ReturnResult(boolean success, Reservation allocatedHold) {
+            this.success = success;
+            this.allocatedHold = allocatedHold;
+        }
+        
+        public boolean isSuccess() { return success; }
+        public Reservation getAllocatedHold() { return allocatedHold; }
+    }
+    
+    /**
+     * Raised when a circulation operation conflicts with current stock or loan state
+     */
+    public static class ConflictException extends SQLException {
+        private static final long serialVersionUID = 1L;
+        
+        public ConflictException(String message) {
+            super(message);
+        }
+    }
+    
+    /**
+     * Issue a book, fulfilling the user's ready hold if one exists
+     * @return new issue ID, or -1 if the book could not be issued
+     */
+    public static long issueBook(int userId, int bookId, String bookTitle, LocalDate issueDate, LocalDate dueDate) {
+        long[] issueId = { -1 };
+        
+        boolean success = Database.executeInTransaction(conn -> 
+            issueId[0] = issueInTransaction(conn, userId, bookId, issueDate, dueDate));
+        
+        if (!success) {
+            HoldQueue.reload();
+            return -1;
+        }
+        
+        DueDateScheduler.track((int) issueId[0], userId, bookTitle, dueDate);
+        CirculationMetrics.record(CirculationMetrics.Event.ISSUE);
+        PopularityTracker.recordIssue(bookId, issueDate);
+        ReportCache.invalidateAll();
+        return issueId[0];
+    }
+    
+    /**
+     * Return a book, allocating the copy to the next hold in the queue
+     */
+    public static ReturnResult returnBook(Issue issue, LocalDate returnDate, double fine) {
+        Reservation[] allocated = { null };
+        
+        boolean success = Database.executeInTransaction(conn -> 
+            allocated[0] = returnInTransaction(conn, issue.getIssueId(), issue.getBookId(), returnDate, fine));
+        
+        if (!success) {
+            HoldQueue.reload();
+            return new ReturnResult(false, null);
+        }
+        
+        DueDateScheduler.untrack(issue.getIssueId());
+        CirculationMetrics.record(CirculationMetrics.Event.RETURN);
+        ReportCache.invalidateAll();
+        return new ReturnResult(true, allocated[0]);
+    }
+    
+    /**
+     * Issue a book on a connection with an open transaction
+     */
+    static long issueInTransaction(Connection conn, int userId, int bookId, 
+                                   LocalDate issueDate, LocalDate dueDate) throws SQLException {
+        // Insert first so tr_check_availability sees the copy still on the
+        // shelf, or the borrower's hold still Ready
+        long issueId;
+        try (PreparedStatement stmt = Database.prepare(conn, """
+                INSERT INTO book_issues (user_id, book_id, issue_date, due_date, is_returned, fine_amount)
+                VALUES (?, ?, ?, ?, 0, 0.0)
+                """, userId, bookId, issueDate, dueDate)) {
+            stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                issueId = keys.next() ? keys.getLong(1) : -1;
+            }
+        }
+        
+        Reservation readyHold = HoldQueue.findReadyHold(conn, userId, bookId);
+        if (readyHold != null) {
+            // Copy was already taken off the shelf when the hold became ready
+            HoldQueue.fulfill(conn, readyHold);
+        } else {
+            try (PreparedStatement stmt = Database.prepare(conn,
+                    "UPDATE books SET available_copies = available_copies - 1 WHERE book_id = ? AND available_copies > 0",
+                    bookId)) {
+                if (stmt.executeUpdate() == 0) {
+                    throw new ConflictException("No copies of this book are available for issue");
+                }
+            }
+        }
+        
+        CirculationRollup.recordIssue(conn, userId, bookId, issueDate);
+        return issueId;
+    }
+    
+    /**
+     * Return a book on a connection with an open transaction
+     * @return the hold the copy was allocated to, or null if it went back on the shelf
+     */
+    static Reservation returnInTransaction(Connection conn, int issueId, int bookId, 
+                                           LocalDate returnDate, double fine) throws SQLException {
+        try (PreparedStatement stmt = Database.prepare(conn, """
+                UPDATE book_issues
+                SET return_date = ?, fine_amount = ?, is_returned = 1
+                WHERE issue_id = ? AND is_returned = 0
+                """, returnDate, fine, issueId)) {
+            if (stmt.executeUpdate() == 0) {
+                throw new ConflictException("Issue #" + issueId + " is already returned");
+            }
+        }
+        
+        CirculationRollup.recordReturn(conn, issueId, returnDate, fine);
+        
+        Reservation allocated = HoldQueue.allocate(conn, bookId, returnDate);
+        if (allocated == null) {
+            try (PreparedStatement stmt = Database.prepare(conn,
+                    "UPDATE books SET available_copies = available_copies + 1 WHERE book_id = ?",
+                    bookId)) {
+                stmt.executeUpdate();
+            }
+        }
+        return allocated;
+    }
+}
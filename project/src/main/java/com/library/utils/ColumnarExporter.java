@@ -0,0 +1,296 @@
+package com.library.utils;
+
+import com.library.Database;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+
+/**
+ * Columnar binary export of circulation history
+ * Rows are grouped into blocks; within a block each column is stored
+ * contiguously with delta and varint encoding, titles and user names are
+ * dictionary-encoded, and the block is deflate-compressed.
+ * Read files back with ColumnarReader.
+ *
+ * Layout: magic, version, then blocks of
+ * [row count][raw length][compressed length][compressed payload],
+ * ending with a zero row count. A payload holds the dictionary entries
+ * first seen in the block, then each column prefixed with its length.
+ */
+public class ColumnarExporter implements AutoCloseable {
+    
+    static final int MAGIC = 0x4C4D5343; // "LMSC"
+    static final int VERSION = 1;
+    static final int BLOCK_ROWS = 65536;
+    
+    // Column order within a block payload
+    static final int COL_ISSUE_ID = 0;      // delta from previous row
+    static final int COL_BOOK = 1;          // book dictionary index
+    static final int COL_USER = 2;          // user dictionary index
+    static final int COL_ISSUE_DATE = 3;    // epoch day, delta from previous row
+    static final int COL_DUE_OFFSET = 4;    // days after issue date
+    static final int COL_RETURN_OFFSET = 5; // days after issue date + 1, 0 if not returned
+    static final int COL_FINE_CENTS = 6;
+    static final int COL_RETURNED = 7;      // 1 if returned
+    static final int COLUMNS = 8;
+    
+    private final DataOutputStream out;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final ColumnBuffer[] columns = new ColumnBuffer[COLUMNS];
+    private final ColumnBuffer payload = new ColumnBuffer();
+    private byte[] compressed = new byte[64 * 1024];
+    
+    // Dictionaries map database IDs to file-wide indexes
+    private final Map<Integer, Integer> bookIndex = new HashMap<>();
+    private final Map<Integer, Integer> userIndex = new HashMap<>();
+    private final ColumnBuffer newBooks = new ColumnBuffer();
+    private final ColumnBuffer newUsers = new ColumnBuffer();
+    private int newBookCount;
+    private int newUserCount;
+    
+    private int blockRows;
+    private long previousIssueId;
+    private long previousIssueDay;
+    private long totalRows;
+    private boolean aborted;
+    
+    /**
+     * Open exporter on a file, replacing existing content
+     */
+    public ColumnarExporter(Path file) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 256 * 1024));
+        for (int i = 0; i < COLUMNS; i++) {
+            columns[i] = new ColumnBuffer();
+        }
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+    }
+    
+    /**
+     * Export issues joined with book titles and user names
+     * @param filter optional WHERE clause over bi, b and u aliases, or empty
+     * @param rowCount optional counter advanced as rows are written
+     * @return number of rows written
+     */
+    public static long export(Path file, String filter, LongAdder rowCount,
+                              Object... params) throws SQLException, IOException {
+        String query = """
+            SELECT bi.issue_id, bi.book_id, bi.user_id, bi.issue_date, bi.due_date,
+                   bi.return_date, bi.fine_amount, bi.is_returned,
+                   b.title as book_title,
+                   CONCAT(u.first_name, ' ', u.last_name) as user_name
+            FROM book_issues bi
+            JOIN books b ON bi.book_id = b.book_id
+            JOIN users u ON bi.user_id = u.user_id
+            """ + filter + " ORDER BY bi.issue_id";
+        
+        try (Connection conn = Database.openConnection();
+             PreparedStatement stmt = conn.prepareStatement(query,
+                 ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            
+            try (ResultSet rs = stmt.executeQuery();
+                 ColumnarExporter exporter = new ColumnarExporter(file)) {
+                try {
+                    while (rs.next()) {
+                        if (Thread.currentThread().isInterrupted()) {
+                            throw new IOException("Export cancelled");
+                        }
+                        Date returnDate = rs.getDate("return_date");
+                        exporter.addRow(
+                            rs.getLong("issue_id"),
+                            rs.getInt("book_id"), rs.getString("book_title"),
+                            rs.getInt("user_id"), rs.getString("user_name"),
+                            rs.getDate("issue_date").toLocalDate().toEpochDay(),
+                            rs.getDate("due_date").toLocalDate().toEpochDay(),
+                            returnDate != null ? returnDate.toLocalDate().toEpochDay() : Long.MIN_VALUE,
+                            Math.round(rs.getDouble("fine_amount") * 100),
+                            rs.getBoolean("is_returned")
+                        );
+                        if (rowCount != null) {
+                            rowCount.increment();
+                        }
+                    }
+                } catch (SQLException | IOException | RuntimeException e) {
+                    exporter.abort();
+                    throw e;
+                }
+                return exporter.totalRows;
+            }
+        }
+    }
+    
+    /**
+     * Append one row
+     * @param returnDay epoch day of return, or Long.MIN_VALUE if not returned
+     */
+    public void addRow(long issueId, int bookId, String bookTitle, int userId, String userName,
+                       long issueDay, long dueDay, long returnDay, long fineCents, boolean returned) throws IOException {
+        columns[COL_ISSUE_ID].writeSigned(issueId - previousIssueId);
+        columns[COL_BOOK].writeVarint(dictionaryIndex(bookIndex, bookId, bookTitle, newBooks, true));
+        columns[COL_USER].writeVarint(dictionaryIndex(userIndex, userId, userName, newUsers, false));
+        columns[COL_ISSUE_DATE].writeSigned(issueDay - previousIssueDay);
+        columns[COL_DUE_OFFSET].writeSigned(dueDay - issueDay);
+        columns[COL_RETURN_OFFSET].writeSigned(returnDay == Long.MIN_VALUE ? 0 : returnDay - issueDay + 1);
+        columns[COL_FINE_CENTS].writeSigned(fineCents);
+        columns[COL_RETURNED].writeByte(returned ? 1 : 0);
+        
+        previousIssueId = issueId;
+        previousIssueDay = issueDay;
+        totalRows++;
+        if (++blockRows == BLOCK_ROWS) {
+            writeBlock();
+        }
+    }
+    
+    private int dictionaryIndex(Map<Integer, Integer> index, int id, String name,
+                                ColumnBuffer newEntries, boolean books) {
+        Integer existing = index.get(id);
+        if (existing != null) {
+            return existing;
+        }
+        int assigned = index.size();
+        index.put(id, assigned);
+        newEntries.writeVarint(id);
+        newEntries.writeString(name != null ? name : "");
+        if (books) {
+            newBookCount++;
+        } else {
+            newUserCount++;
+        }
+        return assigned;
+    }
+    
+    /**
+     * Compress and write the buffered block
+     */
+    private void writeBlock() throws IOException {
+        if (blockRows == 0) {
+            return;
+        }
+        
+        payload.reset();
+        payload.writeVarint(newBookCount);
+        payload.append(newBooks);
+        payload.writeVarint(newUserCount);
+        payload.append(newUsers);
+        for (ColumnBuffer column : columns) {
+            payload.writeVarint(column.size);
+            payload.append(column);
+        }
+        
+        deflater.reset();
+        deflater.setInput(payload.data, 0, payload.size);
+        deflater.finish();
+        int compressedSize = 0;
+        while (!deflater.finished()) {
+            if (compressedSize == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            compressedSize += deflater.deflate(compressed, compressedSize, compressed.length - compressedSize);
+        }
+        
+        out.writeInt(blockRows);
+        out.writeInt(payload.size);
+        out.writeInt(compressedSize);
+        out.write(compressed, 0, compressedSize);
+        
+        // Blocks decode on their own apart from the shared dictionaries
+        for (ColumnBuffer column : columns) {
+            column.reset();
+        }
+        newBooks.reset();
+        newUsers.reset();
+        newBookCount = 0;
+        newUserCount = 0;
+        blockRows = 0;
+        previousIssueId = 0;
+        previousIssueDay = 0;
+    }
+    
+    /**
+     * Leave the file without its end marker, so a failed or cancelled
+     * export is rejected by ColumnarReader instead of reading as complete
+     */
+    public void abort() {
+        aborted = true;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            if (!aborted) {
+                writeBlock();
+                out.writeInt(0);
+            }
+        } finally {
+            deflater.end();
+            out.close();
+        }
+    }
+    
+    /**
+     * Growable byte buffer with varint encoding
+     */
+    private static class ColumnBuffer {
+        private byte[] data = new byte[4096];
+        private int size;
+        
+        void reset() {
+            size = 0;
+        }
+        
+        void writeByte(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            data[size++] = (byte) value;
+        }
+        
+        void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+        
+        // Zigzag so small negative deltas stay short
+        void writeSigned(long value) {
+            writeVarint((value << 1) ^ (value >> 63));
+        }
+        
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length);
+            for (byte b : bytes) {
+                writeByte(b);
+            }
+        }
+        
+        void append(ColumnBuffer other) {
+            if (size + other.size > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + other.size));
+            }
+            System.arraycopy(other.data, 0, data, size, other.size);
+            size += other.size;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.library.utils;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reader for files written by ColumnarExporter
+ * Decodes one block at a time and iterates its rows cursor-style:
+ * call next() and read the current row through the getters
+ */
+public class ColumnarReader implements AutoCloseable {
+    
+    private final DataInputStream in;
+    private final Inflater inflater = new Inflater();
+    private byte[] compressed = new byte[64 * 1024];
+    private byte[] payload = new byte[64 * 1024];
+    
+    // Dictionaries, indexed as assigned by the exporter
+    private final List<Integer> bookIds = new ArrayList<>();
+    private final List<String> bookTitles = new ArrayList<>();
+    private final List<Integer> userIds = new ArrayList<>();
+    private final List<String> userNames = new ArrayList<>();
+    
+    // Decoded columns of the current block
+    private long[] issueIds = new long[0];
+    private int[] bookRefs = new int[0];
+    private int[] userRefs = new int[0];
+    private long[] issueDays = new long[0];
+    private long[] dueDays = new long[0];
+    private long[] returnDays = new long[0];
+    private long[] fineCents = new long[0];
+    private boolean[] returned = new boolean[0];
+    
+    private int blockRows;
+    private int row = -1;
+    private boolean finished = false;
+    
+    // Read position within the payload
+    private int pos;
+    
+    /**
+     * Open a columnar export file
+     */
+    public ColumnarReader(Path file) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 256 * 1024));
+        if (in.readInt() != ColumnarExporter.MAGIC) {
+            in.close();
+            throw new IOException("Not a columnar circulation export: " + file);
+        }
+        int version = in.readUnsignedByte();
+        if (version != ColumnarExporter.VERSION) {
+            in.close();
+            throw new IOException("Unsupported export version " + version);
+        }
+    }
+    
+    /**
+     * Advance to the next row
+     * @return false when the file is exhausted
+     */
+    public boolean next() throws IOException {
+        if (++row < blockRows) {
+            return true;
+        }
+        while (!finished) {
+            readBlock();
+            if (blockRows > 0) {
+                row = 0;
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public long getIssueId() { return issueIds[row]; }
+    public int getBookId() { return bookIds.get(bookRefs[row]); }
+    public String getBookTitle() { return bookTitles.get(bookRefs[row]); }
+    public int getUserId() { return userIds.get(userRefs[row]); }
+    public String getUserName() { return userNames.get(userRefs[row]); }
+    public LocalDate getIssueDate() { return LocalDate.ofEpochDay(issueDays[row]); }
+    public LocalDate getDueDate() { return LocalDate.ofEpochDay(dueDays[row]); }
+    public double getFineAmount() { return fineCents[row] / 100.0; }
+    public boolean isReturned() { return returned[row]; }
+    
+    public LocalDate getReturnDate() {
+        return returnDays[row] == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(returnDays[row]);
+    }
+    
+    /**
+     * Read and decode the next block
+     */
+    private void readBlock() throws IOException {
+        int rows = in.readInt();
+        if (rows == 0) {
+            finished = true;
+            blockRows = 0;
+            return;
+        }
+        int rawSize = in.readInt();
+        int compressedSize = in.readInt();
+        
+        if (compressed.length < compressedSize) {
+            compressed = new byte[compressedSize];
+        }
+        if (payload.length < rawSize) {
+            payload = new byte[rawSize];
+        }
+        in.readFully(compressed, 0, compressedSize);
+        
+        inflater.reset();
+        inflater.setInput(compressed, 0, compressedSize);
+        try {
+            int inflated = 0;
+            while (inflated < rawSize && !inflater.finished()) {
+                int n = inflater.inflate(payload, inflated, rawSize - inflated);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    // Truncated block; inflate would make no further progress
+                    throw new IOException("Corrupt export block");
+                }
+                inflated += n;
+            }
+            if (inflated < rawSize) {
+                throw new IOException("Corrupt export block");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt export block", e);
+        }
+        
+        pos = 0;
+        readDictionary(bookIds, bookTitles);
+        readDictionary(userIds, userNames);
+        ensureCapacity(rows);
+        
+        readVarint(); // issue ID column length
+        long issueId = 0;
+        for (int i = 0; i < rows; i++) {
+            issueId += readSigned();
+            issueIds[i] = issueId;
+        }
+        readVarint();
+        for (int i = 0; i < rows; i++) {
+            bookRefs[i] = (int) readVarint();
+        }
+        readVarint();
+        for (int i = 0; i < rows; i++) {
+            userRefs[i] = (int) readVarint();
+        }
+        readVarint();
+        long issueDay = 0;
+        for (int i = 0; i < rows; i++) {
+            issueDay += readSigned();
+            issueDays[i] = issueDay;
+        }
+        readVarint();
+        for (int i = 0; i < rows; i++) {
+            dueDays[i] = issueDays[i] + readSigned();
+        }
+        readVarint();
+        for (int i = 0; i < rows; i++) {
+            long offset = readSigned();
+            returnDays[i] = offset == 0 ? Long.MIN_VALUE : issueDays[i] + offset - 1;
+        }
+        readVarint();
+        for (int i = 0; i < rows; i++) {
+            fineCents[i] = readSigned();
+        }
+        readVarint();
+        for (int i = 0; i < rows; i++) {
+            returned[i] = payload[pos++] != 0;
+        }
+        
+        blockRows = rows;
+    }
+    
+    private void readDictionary(List<Integer> ids, List<String> names) {
+        int count = (int) readVarint();
+        for (int i = 0; i < count; i++) {
+            ids.add((int) readVarint());
+            int length = (int) readVarint();
+            names.add(new String(payload, pos, length, StandardCharsets.UTF_8));
+            pos += length;
+        }
+    }
+    
+    private void ensureCapacity(int rows) {
+        if (issueIds.length < rows) {
+            issueIds = new long[rows];
+            bookRefs = new int[rows];
+            userRefs = new int[rows];
+            issueDays = new long[rows];
+            dueDays = new long[rows];
+            returnDays = new long[rows];
+            fineCents = new long[rows];
+            returned = new boolean[rows];
+        }
+    }
+    
+    private long readVarint() {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = payload[pos++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+    
+    private long readSigned() {
+        long value = readVarint();
+        return (value >>> 1) ^ -(value & 1);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        in.close();
+    }
+}
@@ -0,0 +1,303 @@
+package com.library.utils;
+
+import com.library.Database;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streaming CSV writer
+ * Rows are streamed from a server-side cursor straight into reusable char and
+ * byte buffers and written to a file channel, so exports run in constant memory
+ */
+public class CsvExporter implements AutoCloseable {
+    
+    private static final int CHAR_BUFFER_SIZE = 32 * 1024;
+    private static final int BYTE_BUFFER_SIZE = 128 * 1024;
+    
+    // Leave room for one formatted number or date without checking
+    private static final int FIELD_RESERVE = 32;
+    
+    /**
+     * Writes one result set row
+     */
+    public interface RowWriter {
+        void write(ResultSet rs, CsvExporter out) throws SQLException, IOException;
+    }
+    
+    private final FileChannel channel;
+    private final CharsetEncoder encoder;
+    private final CharBuffer chars;
+    private final ByteBuffer bytes;
+    private final char[] digits = new char[20];
+    private boolean rowStarted = false;
+    
+    /**
+     * Open exporter on a file, replacing existing content
+     */
+    public CsvExporter(Path file) throws IOException {
+        this.channel = FileChannel.open(file,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.chars = CharBuffer.allocate(CHAR_BUFFER_SIZE);
+        this.bytes = ByteBuffer.allocateDirect(BYTE_BUFFER_SIZE);
+    }
+    
+    /**
+     * Stream a query into a CSV file on a dedicated connection
+     * @param header header line, or null to write data rows only
+     * @param rowCount optional counter advanced as rows are written
+     * @return number of data rows written
+     */
+    public static long export(Path file, String header, String query, RowWriter rowWriter,
+                              LongAdder rowCount, Object... params) throws SQLException, IOException {
+        try (Connection conn = Database.openConnection();
+             PreparedStatement stmt = conn.prepareStatement(query,
+                 ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // MySQL streams rows one at a time instead of buffering the whole result
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            
+            try (ResultSet rs = stmt.executeQuery();
+                 CsvExporter out = new CsvExporter(file)) {
+                if (header != null) {
+                    out.raw(header);
+                    out.endRow();
+                }
+                
+                long rows = 0;
+                while (rs.next()) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new IOException("Export cancelled");
+                    }
+                    rowWriter.write(rs, out);
+                    out.endRow();
+                    rows++;
+                    if (rowCount != null) {
+                        rowCount.increment();
+                    }
+                }
+                return rows;
+            }
+        }
+    }
+    
+    /**
+     * Write a text field, quoting it when needed
+     */
+    public CsvExporter field(String value) throws IOException {
+        separator();
+        if (value == null) {
+            return this;
+        }
+        
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        
+        if (!quote) {
+            put(value);
+            return this;
+        }
+        
+        ensure(1);
+        chars.put('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            ensure(2);
+            if (c == '"') {
+                chars.put('"');
+            }
+            chars.put(c);
+        }
+        ensure(1);
+        chars.put('"');
+        return this;
+    }
+    
+    /**
+     * Write an integer field
+     */
+    public CsvExporter field(long value) throws IOException {
+        separator();
+        ensure(FIELD_RESERVE);
+        putLong(value);
+        return this;
+    }
+    
+    /**
+     * Write an amount with two decimal places
+     */
+    public CsvExporter money(double value) throws IOException {
+        separator();
+        ensure(FIELD_RESERVE);
+        long cents = Math.round(value * 100);
+        if (cents < 0) {
+            chars.put('-');
+            cents = -cents;
+        }
+        putLong(cents / 100);
+        chars.put('.');
+        int fraction = (int) (cents % 100);
+        chars.put((char) ('0' + fraction / 10));
+        chars.put((char) ('0' + fraction % 10));
+        return this;
+    }
+    
+    /**
+     * Write a date as yyyy-MM-dd, or an empty field for null
+     */
+    public CsvExporter date(LocalDate value) throws IOException {
+        separator();
+        if (value == null) {
+            return this;
+        }
+        ensure(FIELD_RESERVE);
+        int year = value.getYear();
+        chars.put((char) ('0' + year / 1000 % 10));
+        chars.put((char) ('0' + year / 100 % 10));
+        chars.put((char) ('0' + year / 10 % 10));
+        chars.put((char) ('0' + year % 10));
+        chars.put('-');
+        putTwoDigits(value.getMonthValue());
+        chars.put('-');
+        putTwoDigits(value.getDayOfMonth());
+        return this;
+    }
+    
+    /**
+     * Write a date column from the current row
+     */
+    public CsvExporter date(ResultSet rs, String column) throws SQLException, IOException {
+        java.sql.Date value = rs.getDate(column);
+        return date(value != null ? value.toLocalDate() : null);
+    }
+    
+    /**
+     * Finish the current row
+     */
+    public void endRow() throws IOException {
+        ensure(2);
+        chars.put('\r').put('\n');
+        rowStarted = false;
+    }
+    
+    /**
+     * Write pre-formatted text such as a header line
+     */
+    public void raw(String text) throws IOException {
+        put(text);
+        rowStarted = true;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            drainChars(true);
+            bytes.flip();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+    
+    private void separator() throws IOException {
+        if (rowStarted) {
+            ensure(1);
+            chars.put(',');
+        }
+        rowStarted = true;
+    }
+    
+    private void put(String value) throws IOException {
+        int offset = 0;
+        while (offset < value.length()) {
+            ensure(1);
+            int count = Math.min(chars.remaining(), value.length() - offset);
+            chars.put(value, offset, offset + count);
+            offset += count;
+        }
+    }
+    
+    private void putLong(long value) {
+        if (value == 0) {
+            chars.put('0');
+            return;
+        }
+        if (value < 0) {
+            chars.put('-');
+        }
+        int pos = digits.length;
+        long v = value;
+        while (v != 0) {
+            digits[--pos] = (char) ('0' + Math.abs(v % 10));
+            v /= 10;
+        }
+        chars.put(digits, pos, digits.length - pos);
+    }
+    
+    private void putTwoDigits(int value) {
+        chars.put((char) ('0' + value / 10));
+        chars.put((char) ('0' + value % 10));
+    }
+    
+    /**
+     * Make room for at least n chars, encoding buffered chars if needed
+     */
+    private void ensure(int n) throws IOException {
+        if (chars.remaining() < n) {
+            drainChars(false);
+        }
+    }
+    
+    /**
+     * Encode buffered chars into the byte buffer, writing it out when full
+     */
+    private void drainChars(boolean endOfInput) throws IOException {
+        chars.flip();
+        while (true) {
+            CoderResult result = encoder.encode(chars, bytes, endOfInput);
+            if (result.isOverflow()) {
+                writeBytes();
+            } else {
+                break;
+            }
+        }
+        if (endOfInput) {
+            while (encoder.flush(bytes).isOverflow()) {
+                writeBytes();
+            }
+        }
+        chars.compact();
+    }
+    
+    private void writeBytes() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+}
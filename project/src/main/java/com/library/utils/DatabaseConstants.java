@@ -1,5 +1,7 @@
 package com.library.utils;
 
+import java.time.DayOfWeek;
+
 /**
  * Database configuration constants
  * Centralized database connection parameters
@@ -8,14 +10,19 @@ public class DatabaseConstants {
     
     // Database connection parameters
     public static final String DRIVER = "com.mysql.cj.jdbc.Driver";
-    public static final String URL = "jdbc:mysql://localhost:3306/library_management_system";
+    public static final String URL = "jdbc:mysql://localhost:3306/library_management_system"
+        + "?rewriteBatchedStatements=true"; // Send JDBC batches as multi-row statements
     public static final String USERNAME = "root";
     public static final String PASSWORD = "2001";
+    public static final int VALIDATION_TIMEOUT_SECONDS = 2;
     
     // Table names
     public static final String TABLE_USERS = "users";
     public static final String TABLE_BOOKS = "books";
     public static final String TABLE_ISSUES = "book_issues";
+    public static final String TABLE_HOLIDAYS = "library_holidays";
+    public static final String TABLE_RESERVATIONS = "book_reservations";
+    public static final String TABLE_LIBRARY_STATS = "library_stats";
     
     // User roles
     public static final String ROLE_STUDENT = "Student";
@@ -27,6 +34,68 @@ public class DatabaseConstants {
     public static final int LOAN_PERIOD_DAYS = 14; // 2 weeks loan period
     public static final int WARNING_DAYS = 2; // Warning when due in 2 days
     
+    // Holds
+    public static final int HOLD_PICKUP_DAYS = 3; // Days to collect a copy set aside
+    public static final int HOLD_EXPIRY_DAYS = 30; // Days a waiting hold stays open
+    
+    // Offline journal used while the database is unreachable
+    public static final String JOURNAL_DIRECTORY = ".library-journal";
+    public static final int JOURNAL_SEGMENT_RECORDS = 16384;
+    public static final int JOURNAL_FSYNC_BATCH = 16; // Records per forced flush
+    public static final int JOURNAL_FSYNC_INTERVAL_MS = 200;
+    public static final int JOURNAL_REPLAY_BATCH = 100; // Records per replay transaction
+    public static final int JOURNAL_RECONNECT_SECONDS = 30;
+    
+    // Dashboard
+    public static final int DASHBOARD_REFRESH_SECONDS = 30; // Background statistics polling interval
+    public static final int DUE_DATE_RELOAD_MINUTES = 5; // Picks up loans issued or returned at other desks
+    
+    // Reports
+    public static final int REPORT_PAGE_SIZE = 200; // Rows per keyset page
+    public static final int REPORT_CACHE_TTL_SECONDS = 300;
+    public static final int REPORT_CACHE_MAX_ROWS = 200_000; // Total rows held across cached reports
+    public static final int EXPORT_WORKERS = 3; // Each worker holds its own connection
+    public static final int HISTOGRAM_PARTITIONS = 4; // Issue ID ranges aggregated in parallel
+    
+    // Progressive table loading
+    public static final int PROGRESSIVE_FIRST_BATCH = 50; // About one screenful, shown as soon as it is mapped
+    public static final int PROGRESSIVE_BATCH_MS = 16; // Later rows are handed over about once per frame
+    
+    // Startup
+    public static final long STARTUP_TARGET_MS = 1000; // Cold start to login screen on a desk PC
+    
+    // Window cache
+    public static final int VIEW_PRELOAD_DELAY_MS = 500; // Let the dashboard paint before building windows
+    
+    // Popularity analytics
+    public static final int POPULARITY_CAPACITY = 1000; // Counters per summary; error is at most issues / capacity
+    public static final int POPULARITY_TOP = 100;
+    public static final int POPULARITY_FLUSH_MINUTES = 5;
+    
+    // Login throttling
+    public static final int LOGIN_WINDOW_SECONDS = 300; // Sliding window for counting failed logins
+    public static final int LOGIN_MAX_FAILURES_PER_USER = 5;
+    public static final int LOGIN_MAX_FAILURES_PER_STATION = 20;
+    public static final int LOGIN_LOCKOUT_BASE_SECONDS = 30; // Doubles with each repeated lockout
+    public static final int LOGIN_LOCKOUT_MAX_SECONDS = 3600;
+    public static final int LOGIN_TRACKED_KEYS = 10_000; // Idle entries are pruned beyond this
+    
+    // User directory
+    public static final int USER_PAGE_SIZE = 200; // Users per keyset page
+    public static final int USER_SEARCH_LIMIT = 20; // Matches offered by user pickers
+    public static final int USER_SEARCH_DELAY_MS = 250; // Typing pause before searching
+    
+    // Bulk user import
+    public static final int IMPORT_CHUNK_ROWS = 1000; // Records validated and inserted per transaction
+    
+    // Catalog ingestion
+    public static final int CATALOG_BATCH_ROWS = 1000; // Distinct ISBNs upserted per transaction
+    public static final int CATALOG_MAP_WINDOW_BYTES = 64 * 1024 * 1024; // Input mapped this much at a time
+    
+    // Library calendar - no fines are charged for closed days
+    public static final DayOfWeek[] CLOSED_WEEKDAYS = { DayOfWeek.SUNDAY };
+    public static final long CALENDAR_RETRY_MS = 60_000; // Holiday reload interval while the database is unreachable
+    
     private DatabaseConstants() {
         // Utility class - prevent instantiation
     }
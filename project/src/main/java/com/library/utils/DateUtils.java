@@ -15,34 +15,39 @@ public class DateUtils {
     
     /**
      * Calculate due date from issue date
+     * Due dates falling on a closed day move to the next open day
      */
     public static LocalDate calculateDueDate(LocalDate issueDate) {
-        return issueDate.plusDays(DatabaseConstants.LOAN_PERIOD_DAYS);
+        return LibraryCalendar.getInstance().nextOpenDay(
+            issueDate.plusDays(DatabaseConstants.LOAN_PERIOD_DAYS));
     }
     
     /**
      * Calculate fine for overdue books
      */
     public static double calculateFine(LocalDate dueDate, LocalDate returnDate) {
-        if (returnDate.isAfter(dueDate)) {
-            long overdueDays = ChronoUnit.DAYS.between(dueDate, returnDate);
-            return overdueDays * DatabaseConstants.FINE_PER_DAY;
-        }
-        return 0.0;
+        return getChargeableDays(dueDate, returnDate) * DatabaseConstants.FINE_PER_DAY;
+    }
+    
+    /**
+     * Get overdue days the library was open, excluding closed days and holidays
+     */
+    public static long getChargeableDays(LocalDate dueDate, LocalDate returnDate) {
+        return LibraryCalendar.getInstance().countOpenDays(dueDate, returnDate);
     }
     
     /**
      * Check if book is overdue
      */
     public static boolean isOverdue(LocalDate dueDate) {
-        return LocalDate.now().isAfter(dueDate);
+        return DayClock.today().isAfter(dueDate);
     }
     
     /**
      * Check if book is due soon (within warning period)
      */
     public static boolean isDueSoon(LocalDate dueDate) {
-        long daysUntilDue = ChronoUnit.DAYS.between(LocalDate.now(), dueDate);
+        long daysUntilDue = ChronoUnit.DAYS.between(DayClock.today(), dueDate);
         return daysUntilDue <= DatabaseConstants.WARNING_DAYS && daysUntilDue >= 0;
     }
     
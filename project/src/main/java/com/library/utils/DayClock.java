@@ -0,0 +1,88 @@
+package com.library.utils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Shared day-granularity clock
+ * Caches today's date and ticks once at midnight, so status checks
+ * do not read the system clock for every row
+ */
+public class DayClock {
+    
+    private static final CopyOnWriteArrayList<Consumer<LocalDate>> listeners = new CopyOnWriteArrayList<>();
+    private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "day-clock");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private static volatile LocalDate today = LocalDate.now();
+    
+    static {
+        scheduleNextTick();
+    }
+    
+    private DayClock() {
+        // Utility class - prevent instantiation
+    }
+    
+    /**
+     * Get today's date
+     */
+    public static LocalDate today() {
+        return today;
+    }
+    
+    /**
+     * Register listener called on the clock thread at each midnight rollover
+     * Registering a listener that is already registered has no effect.
+     */
+    public static void addListener(Consumer<LocalDate> listener) {
+        listeners.addIfAbsent(listener);
+    }
+    
+    /**
+     * Remove midnight listener
+     */
+    public static void removeListener(Consumer<LocalDate> listener) {
+        listeners.remove(listener);
+    }
+    
+    /**
+     * Schedule the next tick shortly after midnight
+     */
+    private static void scheduleNextTick() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime midnight = now.toLocalDate().plusDays(1).atStartOfDay();
+        long delay = Duration.between(now, midnight).toMillis() + 1;
+        timer.schedule(DayClock::tick, delay, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Advance date and notify listeners
+     */
+    private static void tick() {
+        try {
+            LocalDate now = LocalDate.now();
+            if (!now.equals(today)) {
+                today = now;
+                for (Consumer<LocalDate> listener : listeners) {
+                    try {
+                        listener.accept(now);
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+        } finally {
+            scheduleNextTick();
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.library.utils;
+
+import com.library.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process due date scheduler for open loans
+ * Loans are bucketed by the day of their next status transition
+ * (Active -> Due Soon -> Overdue), which fires once at midnight rollover.
+ * Loans are reloaded at each login and on a fixed interval, so loans issued
+ * or returned at other desks are picked up. A student's session tracks only
+ * that student's loans.
+ */
+public class DueDateScheduler {
+    
+    public static final String STATUS_ACTIVE = "Active";
+    public static final String STATUS_DUE_SOON = "Due Soon";
+    public static final String STATUS_OVERDUE = "Overdue";
+    
+    /**
+     * Listener for loan status transitions
+     */
+    public interface Listener {
+        void statusChanged(Loan loan, String oldStatus);
+    }
+    
+    /**
+     * Open loan tracked by the scheduler
+     */
+    public static class Loan {
+        private final int issueId;
+        private final int userId;
+        private final String bookTitle;
+        private final LocalDate dueDate;
+        private volatile String status;
+        
+        Loan(int issueId, int userId, String bookTitle, LocalDate dueDate) {
+            this.issueId = issueId;
+            this.userId = userId;
+            this.bookTitle = bookTitle;
+            this.dueDate = dueDate;
+        }
+        
+        public int getIssueId() { return issueId; }
+        public int getUserId() { return userId; }
+        public String getBookTitle() { return bookTitle; }
+        public LocalDate getDueDate() { return dueDate; }
+        public String getStatus() { return status; }
+    }
+    
+    private static final Map<Integer, Loan> loans = new HashMap<>();
+    private static final Map<Integer, Map<Integer, Loan>> loansByUser = new HashMap<>();
+    private static final TreeMap<Long, List<Loan>> transitions = new TreeMap<>();
+    private static final Map<Integer, List<String>> notifications = new ConcurrentHashMap<>();
+    private static final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    
+    private static boolean started = false;
+    
+    // User whose loans are tracked, or null for all open loans
+    private static Integer scopeUserId;
+    
+    private DueDateScheduler() {
+        // Utility class - prevent instantiation
+    }
+    
+    /**
+     * Load open loans for a login and keep them current
+     * @param userId user whose loans to track, or null to track all open loans
+     */
+    public static void start(Integer userId) {
+        synchronized (DueDateScheduler.class) {
+            scopeUserId = userId;
+            if (!started) {
+                started = true;
+                DayClock.addListener(DueDateScheduler::advance);
+                
+                ScheduledExecutorService reloader = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread thread = new Thread(r, "due-date-reload");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                reloader.scheduleWithFixedDelay(DueDateScheduler::reload,
+                    DatabaseConstants.DUE_DATE_RELOAD_MINUTES, DatabaseConstants.DUE_DATE_RELOAD_MINUTES, TimeUnit.MINUTES);
+            }
+        }
+        reload();
+    }
+    
+    /**
+     * Reload open loans from database
+     * The query runs outside the lock; the tracked loans are replaced in one step.
+     * On failure the current loans are kept.
+     */
+    public static void reload() {
+        Integer scope;
+        synchronized (DueDateScheduler.class) {
+            scope = scopeUserId;
+        }
+        
+        List<Loan> open;
+        try {
+            open = loadOpenLoans(scope);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return;
+        }
+        
+        synchronized (DueDateScheduler.class) {
+            if (!Objects.equals(scope, scopeUserId)) {
+                return; // Another login changed the scope; its own reload applies
+            }
+            loans.clear();
+            loansByUser.clear();
+            transitions.clear();
+            notifications.clear();
+            for (Loan loan : open) {
+                addLoan(loan);
+            }
+            for (Integer userId : loansByUser.keySet()) {
+                rebuildNotifications(userId);
+            }
+        }
+    }
+    
+    /**
+     * Load open loans in one query on a dedicated connection
+     */
+    private static List<Loan> loadOpenLoans(Integer userId) throws SQLException {
+        String query = """
+            SELECT bi.issue_id, bi.user_id, bi.due_date, b.title
+            FROM book_issues bi
+            JOIN books b ON bi.book_id = b.book_id
+            WHERE bi.is_returned = 0
+            """ + (userId != null ? " AND bi.user_id = ?" : "");
+        
+        List<Loan> open = new ArrayList<>();
+        try (Connection conn = Database.openConnection();
+             PreparedStatement stmt = userId != null ? Database.prepare(conn, query, userId)
+                                                     : Database.prepare(conn, query);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                open.add(new Loan(
+                    rs.getInt("issue_id"),
+                    rs.getInt("user_id"),
+                    rs.getString("title"),
+                    rs.getDate("due_date").toLocalDate()
+                ));
+            }
+        }
+        return open;
+    }
+    
+    /**
+     * Track a newly issued loan
+     */
+    public static synchronized void track(int issueId, int userId, String bookTitle, LocalDate dueDate) {
+        if (!started || (scopeUserId != null && scopeUserId != userId)) {
+            return;
+        }
+        addLoan(new Loan(issueId, userId, bookTitle, dueDate));
+        rebuildNotifications(userId);
+    }
+    
+    /**
+     * Stop tracking a returned loan
+     */
+    public static synchronized void untrack(int issueId) {
+        Loan loan = loans.remove(issueId);
+        if (loan == null) {
+            return;
+        }
+        Map<Integer, Loan> userLoans = loansByUser.get(loan.userId);
+        if (userLoans != null) {
+            userLoans.remove(issueId);
+            if (userLoans.isEmpty()) {
+                loansByUser.remove(loan.userId);
+            }
+        }
+        // Stale transition entries are skipped when their bucket fires
+        rebuildNotifications(loan.userId);
+    }
+    
+    /**
+     * Get notifications for a user
+     */
+    public static List<String> getNotifications(int userId) {
+        return notifications.getOrDefault(userId, Collections.emptyList());
+    }
+    
+    public static void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+    
+    public static void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+    
+    /**
+     * Fire all transitions due up to the new day
+     */
+    private static void advance(LocalDate today) {
+        List<Loan> changed = new ArrayList<>();
+        List<String> oldStatuses = new ArrayList<>();
+        
+        synchronized (DueDateScheduler.class) {
+            long day = today.toEpochDay();
+            while (!transitions.isEmpty() && transitions.firstKey() <= day) {
+                for (Loan loan : transitions.pollFirstEntry().getValue()) {
+                    if (loans.get(loan.issueId) != loan) {
+                        continue;
+                    }
+                    String oldStatus = loan.status;
+                    schedule(loan, day);
+                    if (!oldStatus.equals(loan.status)) {
+                        changed.add(loan);
+                        oldStatuses.add(oldStatus);
+                    }
+                }
+            }
+            for (Loan loan : changed) {
+                rebuildNotifications(loan.userId);
+            }
+        }
+        
+        for (int i = 0; i < changed.size(); i++) {
+            for (Listener listener : listeners) {
+                listener.statusChanged(changed.get(i), oldStatuses.get(i));
+            }
+        }
+    }
+    
+    /**
+     * Index a loan and schedule its next transition
+     */
+    private static void addLoan(Loan loan) {
+        loans.put(loan.issueId, loan);
+        loansByUser.computeIfAbsent(loan.userId, id -> new HashMap<>()).put(loan.issueId, loan);
+        schedule(loan, DayClock.today().toEpochDay());
+    }
+    
+    /**
+     * Set current status and bucket the loan by its next transition day
+     */
+    private static void schedule(Loan loan, long today) {
+        long due = loan.dueDate.toEpochDay();
+        long dueSoonDay = due - DatabaseConstants.WARNING_DAYS;
+        
+        if (today > due) {
+            loan.status = STATUS_OVERDUE;
+        } else if (today >= dueSoonDay) {
+            loan.status = STATUS_DUE_SOON;
+            transitions.computeIfAbsent(due + 1, d -> new ArrayList<>()).add(loan);
+        } else {
+            loan.status = STATUS_ACTIVE;
+            transitions.computeIfAbsent(dueSoonDay, d -> new ArrayList<>()).add(loan);
+        }
+    }
+    
+    /**
+     * Rebuild notification list for a user
+     */
+    private static void rebuildNotifications(int userId) {
+        Map<Integer, Loan> userLoans = loansByUser.get(userId);
+        if (userLoans == null) {
+            notifications.remove(userId);
+            return;
+        }
+        
+        List<Loan> sorted = new ArrayList<>(userLoans.values());
+        sorted.sort((a, b) -> a.dueDate.compareTo(b.dueDate));
+        
+        List<String> overdue = new ArrayList<>();
+        List<String> dueSoon = new ArrayList<>();
+        for (Loan loan : sorted) {
+            if (STATUS_OVERDUE.equals(loan.status)) {
+                overdue.add("OVERDUE: \"" + loan.bookTitle + "\" was due on " + DateUtils.formatForDisplay(loan.dueDate));
+            } else if (STATUS_DUE_SOON.equals(loan.status)) {
+                dueSoon.add("DUE SOON: \"" + loan.bookTitle + "\" is due on " + DateUtils.formatForDisplay(loan.dueDate));
+            }
+        }
+        overdue.addAll(dueSoon);
+        
+        if (overdue.isEmpty()) {
+            notifications.remove(userId);
+        } else {
+            notifications.put(userId, Collections.unmodifiableList(overdue));
+        }
+    }
+}
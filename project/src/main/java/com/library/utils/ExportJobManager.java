@@ -0,0 +1,445 @@
+package com.library.utils;
+
+import com.library.Database;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Background export jobs
+ * Jobs run on a shared worker pool. Issue exports over long date ranges are
+ * split into monthly partitions written in parallel to part files, then
+ * concatenated in order. A cancelled or failed job keeps its finished parts
+ * and can be resumed.
+ *
+ * Cancelling only interrupts workers, and a worker blocked in the database
+ * keeps running until its query returns. Each attempt at a partition
+ * therefore writes its own part file, and only the partition's latest
+ * attempt may publish its file; a stale attempt deletes its output.
+ */
+public class ExportJobManager {
+    
+    /**
+     * Writes one partition to a part file
+     * from and to bound issue dates as [from, to), or are null for an unpartitioned job
+     */
+    public interface PartitionWriter {
+        long write(Path part, LocalDate from, LocalDate to, LongAdder rowCount) throws Exception;
+    }
+    
+    /**
+     * Export job lifecycle
+     */
+    public enum Status {
+        QUEUED("Queued"),
+        RUNNING("Running"),
+        COMPLETED("Completed"),
+        FAILED("Failed"),
+        CANCELLED("Cancelled");
+        
+        private final String displayName;
+        
+        Status(String displayName) {
+            this.displayName = displayName;
+        }
+        
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+    
+    /**
+     * Export job with its partitions and progress
+     */
+    public static class ExportJob {
+        private final String name;
+        private final Path target;
+        private final String header;
+        private final boolean partitioned;
+        private final LocalDate fromDate;
+        private final LocalDate toDate;
+        private final PartitionWriter writer;
+        private final List<Partition> partitions = new CopyOnWriteArrayList<>();
+        
+        private volatile Status status = Status.QUEUED;
+        private volatile String error;
+        private volatile boolean cancelRequested;
+        private volatile Future<?> coordinator;
+        
+        // Rate covers the current run only, so resumed jobs are not inflated by earlier parts
+        private volatile long startedAt;
+        private volatile long finishedAt;
+        private volatile long rowsAtStart;
+        
+        ExportJob(String name, Path target, String header, boolean partitioned,
+                  LocalDate fromDate, LocalDate toDate, PartitionWriter writer) {
+            this.name = name;
+            this.target = target;
+            this.header = header;
+            this.partitioned = partitioned;
+            this.fromDate = fromDate;
+            this.toDate = toDate;
+            this.writer = writer;
+        }
+        
+        public String getName() { return name; }
+        public String getFileName() { return target.getFileName().toString(); }
+        public Status getStatus() { return status; }
+        public String getError() { return error; }
+        
+        public boolean isFinished() {
+            return status == Status.COMPLETED || status == Status.FAILED || status == Status.CANCELLED;
+        }
+        
+        public long getRows() {
+            long rows = 0;
+            for (Partition partition : partitions) {
+                rows += partition.rows.sum();
+            }
+            return rows;
+        }
+        
+        public long getRowsPerSecond() {
+            if (startedAt == 0) {
+                return 0;
+            }
+            long end = finishedAt != 0 ? finishedAt : System.currentTimeMillis();
+            long elapsed = Math.max(end - startedAt, 1);
+            return (getRows() - rowsAtStart) * 1000 / elapsed;
+        }
+        
+        public int getPartitionCount() { return partitions.size(); }
+        
+        public int getPartitionsDone() {
+            int done = 0;
+            for (Partition partition : partitions) {
+                if (partition.done) {
+                    done++;
+                }
+            }
+            return done;
+        }
+        
+        private void begin() {
+            error = null;
+            rowsAtStart = getRows();
+            startedAt = System.currentTimeMillis();
+            finishedAt = 0;
+            status = Status.RUNNING;
+        }
+        
+        private void finish(Status result, String message) {
+            finishedAt = System.currentTimeMillis();
+            error = message;
+            status = result;
+        }
+    }
+    
+    /**
+     * One part file of a job
+     */
+    private static class Partition {
+        private final LocalDate from;
+        private final LocalDate to;
+        private final int index;
+        private volatile LongAdder rows = new LongAdder();
+        private volatile Path file;
+        private volatile boolean done;
+        private int attempts;
+        
+        Partition(LocalDate from, LocalDate to, int index) {
+            this.from = from;
+            this.to = to;
+            this.index = index;
+        }
+        
+        /**
+         * Start a new attempt, superseding any earlier one still running
+         * @return attempt number
+         */
+        synchronized int nextAttempt(LongAdder attemptRows) {
+            rows = attemptRows;
+            return ++attempts;
+        }
+        
+        /**
+         * Publish an attempt's part file if no later attempt has started
+         */
+        synchronized boolean complete(int attempt, Path attemptFile, LongAdder attemptRows) {
+            if (attempt != attempts || done) {
+                return false;
+            }
+            file = attemptFile;
+            rows = attemptRows;
+            done = true;
+            return true;
+        }
+        
+        /**
+         * Stop any running attempt from publishing
+         */
+        synchronized void discard() {
+            attempts++;
+        }
+    }
+    
+    private static final List<ExportJob> jobs = new CopyOnWriteArrayList<>();
+    
+    private static final ExecutorService workers = Executors.newFixedThreadPool(
+        DatabaseConstants.EXPORT_WORKERS, r -> {
+            Thread thread = new Thread(r, "export-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    
+    // Coordinators only wait on partitions and concatenate, so they do not take worker slots
+    private static final ExecutorService coordinators = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "export-job");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private ExportJobManager() {
+        // Utility class - prevent instantiation
+    }
+    
+    /**
+     * Queue an export written as a single part
+     * @param header CSV header line, or null for formats without one
+     */
+    public static ExportJob submit(String name, Path target, String header, PartitionWriter writer) {
+        return start(new ExportJob(name, target, header, false, null, null, writer));
+    }
+    
+    /**
+     * Queue an issue export split into monthly partitions, newest month first
+     * Open bounds are resolved from the issue history when the job starts
+     */
+    public static ExportJob submitByMonth(String name, Path target, String header,
+                                          LocalDate fromDate, LocalDate toDate, PartitionWriter writer) {
+        return start(new ExportJob(name, target, header, true, fromDate, toDate, writer));
+    }
+    
+    /**
+     * Restart a cancelled or failed job, keeping its finished partitions
+     */
+    public static void resume(ExportJob job) {
+        if (job.status == Status.CANCELLED || job.status == Status.FAILED) {
+            job.status = Status.QUEUED;
+            job.cancelRequested = false;
+            job.coordinator = coordinators.submit(() -> run(job));
+        }
+    }
+    
+    /**
+     * Cancel a queued or running job
+     */
+    public static void cancel(ExportJob job) {
+        Future<?> future = job.coordinator;
+        if (future != null && !job.isFinished()) {
+            job.cancelRequested = true;
+            if (future.cancel(true) && job.status == Status.QUEUED) {
+                job.finish(Status.CANCELLED, null);
+            }
+        }
+    }
+    
+    /**
+     * Current jobs, oldest first
+     */
+    public static List<ExportJob> getJobs() {
+        return new ArrayList<>(jobs);
+    }
+    
+    /**
+     * Forget completed jobs and remove part files of failed or cancelled ones
+     */
+    public static void clearFinished() {
+        for (ExportJob job : jobs) {
+            if (job.isFinished()) {
+                jobs.remove(job);
+                deleteParts(job);
+            }
+        }
+    }
+    
+    private static ExportJob start(ExportJob job) {
+        jobs.add(job);
+        job.coordinator = coordinators.submit(() -> run(job));
+        return job;
+    }
+    
+    /**
+     * Export pending partitions in parallel, then concatenate them
+     */
+    private static void run(ExportJob job) {
+        if (job.cancelRequested) {
+            return;
+        }
+        job.begin();
+        List<Future<?>> pending = new ArrayList<>();
+        try {
+            if (job.partitions.isEmpty()) {
+                job.partitions.addAll(plan(job));
+            }
+            for (Partition partition : job.partitions) {
+                if (!partition.done) {
+                    LongAdder rows = new LongAdder();
+                    int attempt = partition.nextAttempt(rows);
+                    pending.add(workers.submit(() -> {
+                        writePartition(job, partition, attempt, rows);
+                        return null;
+                    }));
+                }
+            }
+            for (Future<?> future : pending) {
+                future.get();
+            }
+            concatenate(job);
+            job.finish(Status.COMPLETED, null);
+        } catch (InterruptedException | CancellationException e) {
+            cancelAll(pending);
+            job.finish(Status.CANCELLED, null);
+        } catch (ExecutionException e) {
+            cancelAll(pending);
+            finishFailed(job, e.getCause());
+        } catch (Exception e) {
+            cancelAll(pending);
+            finishFailed(job, e);
+        }
+    }
+    
+    /**
+     * Write one attempt at a partition to its own part file
+     */
+    private static void writePartition(ExportJob job, Partition partition, int attempt, LongAdder rows) throws Exception {
+        Path file = partFile(job, partition.index, attempt);
+        boolean published = false;
+        try {
+            job.writer.write(file, partition.from, partition.to, rows);
+            published = partition.complete(attempt, file, rows);
+        } finally {
+            if (!published) {
+                // Failed, cancelled or superseded by a resumed attempt
+                deleteQuietly(file);
+            }
+        }
+    }
+    
+    private static void finishFailed(ExportJob job, Throwable cause) {
+        if (job.cancelRequested) {
+            job.finish(Status.CANCELLED, null);
+            return;
+        }
+        cause.printStackTrace();
+        job.finish(Status.FAILED, cause.getMessage());
+    }
+    
+    private static void cancelAll(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+    
+    /**
+     * Split the job into partitions
+     */
+    private static List<Partition> plan(ExportJob job) throws Exception {
+        List<Partition> partitions = new ArrayList<>();
+        LocalDate from = job.fromDate;
+        LocalDate to = job.toDate;
+        
+        if (job.partitioned && (from == null || to == null)) {
+            try (Connection conn = Database.openConnection();
+                 PreparedStatement stmt = Database.prepare(conn,
+                     "SELECT MIN(issue_date) as first_date, MAX(issue_date) as last_date FROM book_issues");
+                 ResultSet rs = stmt.executeQuery()) {
+                if (rs.next() && rs.getDate("first_date") != null) {
+                    from = from != null ? from : rs.getDate("first_date").toLocalDate();
+                    to = to != null ? to : rs.getDate("last_date").toLocalDate();
+                }
+            }
+        }
+        
+        if (!job.partitioned || from == null || to == null || from.isAfter(to)) {
+            partitions.add(new Partition(null, null, 0));
+            return partitions;
+        }
+        
+        for (LocalDate month = to.withDayOfMonth(1); !month.isBefore(from.withDayOfMonth(1));
+             month = month.minusMonths(1)) {
+            partitions.add(new Partition(month, month.plusMonths(1), partitions.size()));
+        }
+        return partitions;
+    }
+    
+    private static Path partFile(ExportJob job, int index, int attempt) {
+        return job.target.resolveSibling("." + job.getFileName() + "." + index + "." + attempt + ".part");
+    }
+    
+    /**
+     * Write the header and append part files in order to the target
+     */
+    private static void concatenate(ExportJob job) throws IOException {
+        if (job.header == null && job.partitions.size() == 1) {
+            Files.move(job.partitions.get(0).file, job.target, StandardCopyOption.REPLACE_EXISTING);
+            return;
+        }
+        
+        try (FileChannel out = FileChannel.open(job.target,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (job.header != null) {
+                ByteBuffer header = ByteBuffer.wrap((job.header + "\r\n").getBytes(StandardCharsets.UTF_8));
+                while (header.hasRemaining()) {
+                    out.write(header);
+                }
+            }
+            for (Partition partition : job.partitions) {
+                try (FileChannel in = FileChannel.open(partition.file, StandardOpenOption.READ)) {
+                    long size = in.size();
+                    long position = 0;
+                    while (position < size) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                }
+            }
+        }
+        deleteParts(job);
+    }
+    
+    private static void deleteParts(ExportJob job) {
+        for (Partition partition : job.partitions) {
+            partition.discard();
+            if (partition.file != null) {
+                deleteQuietly(partition.file);
+            }
+        }
+    }
+    
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
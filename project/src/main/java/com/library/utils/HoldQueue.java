@@ -0,0 +1,397 @@
+package com.library.utils;
+
+import com.library.Database;
+import com.library.models.Reservation;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-book FIFO hold queues kept in memory and persisted to book_reservations
+ * The in-memory queues answer the desk's lookups. Issue and return
+ * transactions read and lock the hold they act on from the database, since
+ * other desks place, cancel and allocate holds this process does not see.
+ */
+public class HoldQueue {
+    
+    // Waiting holds per book, oldest first
+    private static final Map<Integer, ArrayDeque<Reservation>> queues = new HashMap<>();
+    
+    // Holds with a copy set aside, keyed by user and book
+    private static final Map<Long, Reservation> readyHolds = new HashMap<>();
+    
+    private static final String LOAD_QUERY = """
+        SELECT reservation_id, user_id, book_id, reservation_date, expiry_date, status
+        FROM book_reservations
+        WHERE status IN ('Active', 'Ready')
+        ORDER BY reservation_date, reservation_id
+        """;
+    
+    private static boolean loaded = false;
+    private static boolean started = false;
+    
+    private HoldQueue() {
+        // Utility class - prevent instantiation
+    }
+    
+    /**
+     * Sweep lapsed holds now and after every midnight rollover
+     */
+    public static synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        sweepExpired(DayClock.today());
+        DayClock.addListener(HoldQueue::sweepExpired);
+    }
+    
+    /**
+     * Load open holds on first use
+     */
+    private static void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        
+        try {
+            ResultSet rs = Database.executeQuery(LOAD_QUERY);
+            if (rs == null) {
+                // Database unreachable; retry on next use
+                return;
+            }
+            readHolds(rs);
+        } catch (SQLException e) {
+            queues.clear();
+            readyHolds.clear();
+            loaded = false;
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Load open holds on first use through a background connection
+     */
+    private static void ensureLoaded(Connection conn) throws SQLException {
+        if (loaded) {
+            return;
+        }
+        
+        try (PreparedStatement stmt = conn.prepareStatement(LOAD_QUERY);
+             ResultSet rs = stmt.executeQuery()) {
+            readHolds(rs);
+        } catch (SQLException e) {
+            queues.clear();
+            readyHolds.clear();
+            loaded = false;
+            throw e;
+        }
+    }
+    
+    private static void readHolds(ResultSet rs) throws SQLException {
+        loaded = true;
+        while (rs.next()) {
+            Reservation reservation = mapReservation(rs);
+            if (reservation.isReady()) {
+                readyHolds.put(key(reservation.getUserId(), reservation.getBookId()), reservation);
+            } else {
+                queueFor(reservation.getBookId()).addLast(reservation);
+            }
+        }
+    }
+    
+    /**
+     * Discard in-memory state and reload from database
+     * Called after a transaction touching holds rolls back
+     */
+    public static synchronized void reload() {
+        queues.clear();
+        readyHolds.clear();
+        loaded = false;
+        ensureLoaded();
+    }
+    
+    /**
+     * Discard in-memory state and reload through a background connection
+     */
+    public static synchronized void reload(Connection conn) throws SQLException {
+        queues.clear();
+        readyHolds.clear();
+        loaded = false;
+        ensureLoaded(conn);
+    }
+    
+    /**
+     * Place a hold at the back of a book's queue
+     * @return queue position, or 0 if the hold could not be saved
+     */
+    public static synchronized int placeHold(int userId, int bookId) {
+        ensureLoaded();
+        
+        LocalDate today = DayClock.today();
+        LocalDate expiry = today.plusDays(DatabaseConstants.HOLD_EXPIRY_DAYS);
+        String query = """
+            INSERT INTO book_reservations (user_id, book_id, reservation_date, expiry_date, status)
+            VALUES (?, ?, ?, ?, 'Active')
+            """;
+        
+        long reservationId = Database.executeInsertWithGeneratedKey(query, userId, bookId, today, expiry);
+        if (reservationId <= 0) {
+            return 0;
+        }
+        
+        ArrayDeque<Reservation> queue = queueFor(bookId);
+        queue.addLast(new Reservation((int) reservationId, userId, bookId, today, expiry, Reservation.STATUS_ACTIVE));
+        return queue.size();
+    }
+    
+    /**
+     * Check if user already holds or waits for a book
+     */
+    public static synchronized boolean hasHold(int userId, int bookId) {
+        return getQueuePosition(userId, bookId) > 0 || findReadyHold(userId, bookId) != null;
+    }
+    
+    /**
+     * Get 1-based position of user's hold in a book's queue, or 0 if none
+     */
+    public static synchronized int getQueuePosition(int userId, int bookId) {
+        ensureLoaded();
+        ArrayDeque<Reservation> queue = queues.get(bookId);
+        if (queue != null) {
+            int position = 1;
+            for (Reservation reservation : queue) {
+                if (reservation.getUserId() == userId) {
+                    return position;
+                }
+                position++;
+            }
+        }
+        return 0;
+    }
+    
+    /**
+     * Find a hold with a copy set aside for the user
+     */
+    public static synchronized Reservation findReadyHold(int userId, int bookId) {
+        ensureLoaded();
+        return readyHolds.get(key(userId, bookId));
+    }
+    
+    /**
+     * Check if any copy of a book is set aside for a hold
+     */
+    public static synchronized boolean hasReadyHolds(int bookId) {
+        ensureLoaded();
+        for (Reservation reservation : readyHolds.values()) {
+            if (reservation.getBookId() == bookId) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Find and lock the user's ready hold inside the issue transaction
+     * @return the hold with a copy set aside, or null if there is none
+     */
+    public static Reservation findReadyHold(Connection conn, int userId, int bookId) throws SQLException {
+        try (PreparedStatement stmt = Database.prepare(conn, """
+                SELECT reservation_id, user_id, book_id, reservation_date, expiry_date, status
+                FROM book_reservations
+                WHERE user_id = ? AND book_id = ? AND status = 'Ready'
+                ORDER BY reservation_id
+                LIMIT 1
+                FOR UPDATE
+                """, userId, bookId);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? mapReservation(rs) : null;
+        }
+    }
+    
+    /**
+     * Allocate a returned copy to the next hold inside the return transaction
+     * The head of the queue is read and locked from the database, so holds
+     * placed, cancelled or allocated at other desks are respected.
+     * @return the hold now ready for pickup, or null if nobody is waiting
+     */
+    public static synchronized Reservation allocate(Connection conn, int bookId, LocalDate returnDate) throws SQLException {
+        Reservation next;
+        try (PreparedStatement stmt = Database.prepare(conn, """
+                SELECT reservation_id, user_id, book_id, reservation_date, expiry_date, status
+                FROM book_reservations
+                WHERE book_id = ? AND status = 'Active' AND expiry_date >= ?
+                ORDER BY reservation_date, reservation_id
+                LIMIT 1
+                FOR UPDATE
+                """, bookId, returnDate);
+             ResultSet rs = stmt.executeQuery()) {
+            if (!rs.next()) {
+                return null;
+            }
+            next = mapReservation(rs);
+        }
+        
+        LocalDate pickupBy = returnDate.plusDays(DatabaseConstants.HOLD_PICKUP_DAYS);
+        try (PreparedStatement stmt = Database.prepare(conn,
+                "UPDATE book_reservations SET status = 'Ready', expiry_date = ? WHERE reservation_id = ? AND status = 'Active'",
+                pickupBy, next.getReservationId())) {
+            stmt.executeUpdate();
+        }
+        
+        next.setStatus(Reservation.STATUS_READY);
+        next.setExpiryDate(pickupBy);
+        ArrayDeque<Reservation> queue = queues.get(bookId);
+        if (queue != null) {
+            queue.removeIf(reservation -> reservation.getReservationId() == next.getReservationId());
+        }
+        readyHolds.put(key(next.getUserId(), next.getBookId()), next);
+        return next;
+    }
+    
+    /**
+     * Mark a ready hold fulfilled inside the issue transaction
+     */
+    public static synchronized void fulfill(Connection conn, Reservation reservation) throws SQLException {
+        try (PreparedStatement stmt = Database.prepare(conn,
+                "UPDATE book_reservations SET status = 'Fulfilled' WHERE reservation_id = ? AND status = 'Ready'",
+                reservation.getReservationId())) {
+            if (stmt.executeUpdate() == 0) {
+                throw new CirculationService.ConflictException("Hold #" + reservation.getReservationId() + " is no longer ready");
+            }
+        }
+        readyHolds.remove(key(reservation.getUserId(), reservation.getBookId()));
+        reservation.setStatus(Reservation.STATUS_FULFILLED);
+    }
+    
+    /**
+     * Expire lapsed holds in one batched transaction
+     * Copies set aside for expired pickups pass to the next hold or back to the shelf.
+     * Runs on the day-clock thread, so it works on its own connection
+     * rather than the shared one used by the FX thread.
+     */
+    public static synchronized void sweepExpired(LocalDate today) {
+        try (Connection conn = Database.openConnection()) {
+            sweepExpired(conn, today);
+        } catch (SQLException e) {
+            // Database unreachable; lapsed holds are swept on the next rollover
+            e.printStackTrace();
+        }
+    }
+    
+    private static void sweepExpired(Connection conn, LocalDate today) throws SQLException {
+        // Start from the database so holds changed at other desks are swept correctly
+        queues.clear();
+        readyHolds.clear();
+        loaded = false;
+        ensureLoaded(conn);
+        
+        List<Reservation> expired = new ArrayList<>();
+        List<Reservation> expiredReady = new ArrayList<>();
+        
+        for (ArrayDeque<Reservation> queue : queues.values()) {
+            Iterator<Reservation> it = queue.iterator();
+            while (it.hasNext()) {
+                Reservation reservation = it.next();
+                if (reservation.getExpiryDate().isBefore(today)) {
+                    it.remove();
+                    expired.add(reservation);
+                }
+            }
+        }
+        
+        Iterator<Reservation> it = readyHolds.values().iterator();
+        while (it.hasNext()) {
+            Reservation reservation = it.next();
+            if (reservation.getExpiryDate().isBefore(today)) {
+                it.remove();
+                expired.add(reservation);
+                expiredReady.add(reservation);
+            }
+        }
+        
+        if (expired.isEmpty()) {
+            return;
+        }
+        
+        List<Reservation> promoted = new ArrayList<>();
+        LocalDate pickupBy = today.plusDays(DatabaseConstants.HOLD_PICKUP_DAYS);
+        
+        boolean success = Database.executeInTransaction(conn, tx -> {
+            try (PreparedStatement expire = tx.prepareStatement(
+                    "UPDATE book_reservations SET status = 'Expired' WHERE reservation_id = ?");
+                 PreparedStatement ready = tx.prepareStatement(
+                    "UPDATE book_reservations SET status = 'Ready', expiry_date = ? WHERE reservation_id = ?");
+                 PreparedStatement shelve = tx.prepareStatement(
+                    "UPDATE books SET available_copies = available_copies + 1 WHERE book_id = ?")) {
+                
+                for (Reservation reservation : expired) {
+                    expire.setInt(1, reservation.getReservationId());
+                    expire.addBatch();
+                }
+                
+                for (Reservation reservation : expiredReady) {
+                    ArrayDeque<Reservation> queue = queues.get(reservation.getBookId());
+                    Reservation next = queue != null ? queue.pollFirst() : null;
+                    if (next != null) {
+                        promoted.add(next);
+                        ready.setObject(1, pickupBy);
+                        ready.setInt(2, next.getReservationId());
+                        ready.addBatch();
+                    } else {
+                        shelve.setInt(1, reservation.getBookId());
+                        shelve.addBatch();
+                    }
+                }
+                
+                expire.executeBatch();
+                ready.executeBatch();
+                shelve.executeBatch();
+            }
+        });
+        
+        if (success) {
+            for (Reservation reservation : expired) {
+                reservation.setStatus(Reservation.STATUS_EXPIRED);
+            }
+            for (Reservation next : promoted) {
+                next.setStatus(Reservation.STATUS_READY);
+                next.setExpiryDate(pickupBy);
+                readyHolds.put(key(next.getUserId(), next.getBookId()), next);
+            }
+        } else {
+            // Database state is unchanged; rebuild memory from it
+            queues.clear();
+            readyHolds.clear();
+            loaded = false;
+        }
+    }
+    
+    private static Reservation mapReservation(ResultSet rs) throws SQLException {
+        return new Reservation(
+            rs.getInt("reservation_id"),
+            rs.getInt("user_id"),
+            rs.getInt("book_id"),
+            rs.getDate("reservation_date").toLocalDate(),
+            rs.getDate("expiry_date").toLocalDate(),
+            rs.getString("status")
+        );
+    }
+    
+    private static ArrayDeque<Reservation> queueFor(int bookId) {
+        return queues.computeIfAbsent(bookId, id -> new ArrayDeque<>());
+    }
+    
+    private static long key(int userId, int bookId) {
+        return ((long) userId << 32) | (bookId & 0xffffffffL);
+    }
+}
@@ -0,0 +1,193 @@
+package com.library.utils;
+
+import com.library.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Library opening calendar
+ * Closed weekdays and holidays are precomputed into a bitset with a prefix
+ * sum of open days, so due dates and chargeable days are O(1) lookups
+ */
+public class LibraryCalendar {
+    
+    // Precomputed range; dates outside it are treated as open days
+    private static final LocalDate RANGE_START = LocalDate.of(2000, 1, 1);
+    private static final LocalDate RANGE_END = LocalDate.of(2099, 12, 31);
+    
+    private static volatile LibraryCalendar instance;
+    
+    // Weekly closures only, used until holidays can be loaded
+    private static LibraryCalendar fallback;
+    private static long nextLoadAttempt = 0;
+    
+    private final long startEpochDay;
+    private final int length;
+    private final long[] closedBits;
+    
+    // openPrefix[i] = number of open days in [start, start + i)
+    private final int[] openPrefix;
+    
+    // openDays[k] = offset of the k-th open day in the range
+    private final int[] openDays;
+    
+    /**
+     * Build calendar from weekly closures and holiday dates
+     */
+    public LibraryCalendar(Collection<DayOfWeek> closedWeekdays, Collection<LocalDate> holidays) {
+        this.startEpochDay = RANGE_START.toEpochDay();
+        this.length = (int) (RANGE_END.toEpochDay() - startEpochDay + 1);
+        this.closedBits = new long[(length + 63) >>> 6];
+        
+        // Mark weekly closures
+        int startDow = RANGE_START.getDayOfWeek().getValue() - 1;
+        for (DayOfWeek weekday : closedWeekdays) {
+            int first = Math.floorMod(weekday.getValue() - 1 - startDow, 7);
+            for (int i = first; i < length; i += 7) {
+                closedBits[i >>> 6] |= 1L << i;
+            }
+        }
+        
+        // Mark holidays
+        for (LocalDate holiday : holidays) {
+            long offset = holiday.toEpochDay() - startEpochDay;
+            if (offset >= 0 && offset < length) {
+                int i = (int) offset;
+                closedBits[i >>> 6] |= 1L << i;
+            }
+        }
+        
+        // Prefix sums and open-day index
+        this.openPrefix = new int[length + 1];
+        int[] open = new int[length];
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            openPrefix[i] = count;
+            if ((closedBits[i >>> 6] & (1L << i)) == 0) {
+                open[count++] = i;
+            }
+        }
+        openPrefix[length] = count;
+        this.openDays = Arrays.copyOf(open, count);
+    }
+    
+    /**
+     * Get shared calendar, loading holidays on first use
+     * While the database is unreachable, a calendar of weekly closures is
+     * returned and the load is retried at most once per retry interval.
+     */
+    public static LibraryCalendar getInstance() {
+        LibraryCalendar calendar = instance;
+        if (calendar != null) {
+            return calendar;
+        }
+        
+        synchronized (LibraryCalendar.class) {
+            if (instance != null) {
+                return instance;
+            }
+            if (System.currentTimeMillis() >= nextLoadAttempt) {
+                calendar = load();
+                if (calendar != null) {
+                    instance = calendar;
+                    return calendar;
+                }
+                nextLoadAttempt = System.currentTimeMillis() + DatabaseConstants.CALENDAR_RETRY_MS;
+            }
+            if (fallback == null) {
+                fallback = new LibraryCalendar(Arrays.asList(DatabaseConstants.CLOSED_WEEKDAYS), List.of());
+            }
+            return fallback;
+        }
+    }
+    
+    /**
+     * Rebuild shared calendar after holidays change or the database comes back
+     * The current calendar is kept if the holidays cannot be read.
+     */
+    public static void reload() {
+        LibraryCalendar calendar = load();
+        if (calendar != null) {
+            instance = calendar;
+        }
+    }
+    
+    /**
+     * Load holidays from database on a dedicated connection
+     * @return the calendar, or null if the holidays could not be read
+     */
+    private static LibraryCalendar load() {
+        List<LocalDate> holidays = new ArrayList<>();
+        try (Connection conn = Database.openConnection();
+             PreparedStatement stmt = Database.prepare(conn, "SELECT holiday_date FROM " + DatabaseConstants.TABLE_HOLIDAYS);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                holidays.add(rs.getDate("holiday_date").toLocalDate());
+            }
+        } catch (SQLException e) {
+            System.err.println("Holidays unavailable, retrying later: " + e.getMessage());
+            return null;
+        }
+        return new LibraryCalendar(Arrays.asList(DatabaseConstants.CLOSED_WEEKDAYS), holidays);
+    }
+    
+    /**
+     * Check if library is open on given date
+     */
+    public boolean isOpen(LocalDate date) {
+        long offset = date.toEpochDay() - startEpochDay;
+        if (offset < 0 || offset >= length) {
+            return true;
+        }
+        int i = (int) offset;
+        return (closedBits[i >>> 6] & (1L << i)) == 0;
+    }
+    
+    /**
+     * First open day on or after given date
+     */
+    public LocalDate nextOpenDay(LocalDate date) {
+        long offset = date.toEpochDay() - startEpochDay;
+        if (offset < 0 || offset >= length) {
+            return date;
+        }
+        int k = openPrefix[(int) offset];
+        if (k >= openDays.length) {
+            return RANGE_END.plusDays(1);
+        }
+        return LocalDate.ofEpochDay(startEpochDay + openDays[k]);
+    }
+    
+    /**
+     * Count open days after fromDate up to and including toDate
+     */
+    public long countOpenDays(LocalDate fromDate, LocalDate toDate) {
+        if (!toDate.isAfter(fromDate)) {
+            return 0;
+        }
+        return openBefore(toDate.toEpochDay() + 1) - openBefore(fromDate.toEpochDay() + 1);
+    }
+    
+    /**
+     * Open days in [start, epochDay), counting out-of-range days as open
+     */
+    private long openBefore(long epochDay) {
+        long offset = epochDay - startEpochDay;
+        if (offset <= 0) {
+            return offset;
+        }
+        if (offset > length) {
+            return openPrefix[length] + (offset - length);
+        }
+        return openPrefix[(int) offset];
+    }
+}
@@ -0,0 +1,157 @@
+package com.library.utils;
+
+import com.library.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Loan length and lateness distributions of returned loans
+ * The issue history is split into issue ID ranges aggregated in parallel;
+ * the server groups each range by category, role and day counts, so only
+ * distinct values reach the client, where they fill mergeable histograms.
+ */
+public class LoanDistribution {
+    
+    public static final String ALL = "All";
+    
+    /**
+     * Histograms for one category and role, either of which may be ALL
+     */
+    public static class Group {
+        private final String category;
+        private final String role;
+        private final LogHistogram loanDays = new LogHistogram();
+        private final LogHistogram lateDays = new LogHistogram();
+        
+        Group(String category, String role) {
+            this.category = category;
+            this.role = role;
+        }
+        
+        public String getCategory() { return category; }
+        public String getRole() { return role; }
+        
+        /**
+         * Days from issue to return
+         */
+        public LogHistogram getLoanDays() { return loanDays; }
+        
+        /**
+         * Days past the due date, for late returns only
+         */
+        public LogHistogram getLateDays() { return lateDays; }
+        
+        void merge(Group other) {
+            loanDays.merge(other.loanDays);
+            lateDays.merge(other.lateDays);
+        }
+    }
+    
+    private LoanDistribution() {
+        // Utility class - prevent instantiation
+    }
+    
+    /**
+     * Compute distributions per category and role, with per-role,
+     * per-category and overall totals
+     * @return groups ordered by category then role
+     */
+    public static List<Group> compute() throws SQLException, InterruptedException {
+        long firstId;
+        long lastId;
+        try (Connection conn = Database.openConnection();
+             PreparedStatement stmt = Database.prepare(conn,
+                 "SELECT MIN(issue_id) as first_id, MAX(issue_id) as last_id FROM book_issues WHERE is_returned = 1");
+             ResultSet rs = stmt.executeQuery()) {
+            if (!rs.next() || rs.getObject("first_id") == null) {
+                return new ArrayList<>();
+            }
+            firstId = rs.getLong("first_id");
+            lastId = rs.getLong("last_id");
+        }
+        
+        int partitions = DatabaseConstants.HISTOGRAM_PARTITIONS;
+        long span = (lastId - firstId) / partitions + 1;
+        ExecutorService workers = Executors.newFixedThreadPool(partitions, r -> {
+            Thread thread = new Thread(r, "loan-histogram");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        List<Future<Map<String, Group>>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < partitions; i++) {
+                long from = firstId + i * span;
+                long to = Math.min(from + span, lastId + 1);
+                results.add(workers.submit(() -> aggregate(from, to)));
+            }
+            
+            Map<String, Group> groups = new TreeMap<>();
+            for (Future<Map<String, Group>> result : results) {
+                for (Group partial : result.get().values()) {
+                    addTo(groups, partial.category, partial.role, partial);
+                    addTo(groups, partial.category, ALL, partial);
+                    addTo(groups, ALL, partial.role, partial);
+                    addTo(groups, ALL, ALL, partial);
+                }
+            }
+            return new ArrayList<>(groups.values());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof SQLException ? (SQLException) cause : new SQLException(cause);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+    
+    /**
+     * Aggregate one issue ID range [from, to) on its own connection
+     */
+    private static Map<String, Group> aggregate(long from, long to) throws SQLException {
+        Map<String, Group> groups = new TreeMap<>();
+        try (Connection conn = Database.openConnection();
+             PreparedStatement stmt = Database.prepare(conn, """
+                 SELECT b.category, u.role,
+                        DATEDIFF(bi.return_date, bi.issue_date) as loan_days,
+                        GREATEST(DATEDIFF(bi.return_date, bi.due_date), 0) as late_days,
+                        COUNT(*) as loans
+                 FROM book_issues bi
+                 JOIN books b ON bi.book_id = b.book_id
+                 JOIN users u ON bi.user_id = u.user_id
+                 WHERE bi.is_returned = 1 AND bi.return_date IS NOT NULL
+                   AND bi.issue_id >= ? AND bi.issue_id < ?
+                 GROUP BY b.category, u.role, loan_days, late_days
+                 """, from, to);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                String category = rs.getString("category");
+                String role = rs.getString("role");
+                Group group = groups.computeIfAbsent(category + "|" + role, k -> new Group(category, role));
+                long loans = rs.getLong("loans");
+                long lateDays = rs.getLong("late_days");
+                group.loanDays.record(rs.getLong("loan_days"), loans);
+                if (lateDays > 0) {
+                    group.lateDays.record(lateDays, loans);
+                }
+            }
+        }
+        return groups;
+    }
+    
+    private static void addTo(Map<String, Group> groups, String category, String role, Group partial) {
+        // Sort totals after the specific categories and roles
+        String key = (ALL.equals(category) ? "~" : category) + "|" + (ALL.equals(role) ? "~" : role);
+        groups.computeIfAbsent(key, k -> new Group(category, role)).merge(partial);
+    }
+}
@@ -0,0 +1,125 @@
+package com.library.utils;
+
+import java.util.Arrays;
+
+/**
+ * Log-bucketed histogram of non-negative whole numbers
+ * Values below 16 get exact buckets; above that each power of two is split
+ * into 16 sub-buckets, so a bucket spans at most 1/16 of its values.
+ * Histograms of disjoint data merge by adding bucket counts.
+ */
+public class LogHistogram {
+    
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    
+    private long[] counts = new long[SUB_BUCKETS * 4];
+    private long totalCount;
+    private long sum;
+    private long max;
+    
+    /**
+     * Record one value; negative values count as 0
+     */
+    public void record(long value) {
+        record(value, 1);
+    }
+    
+    /**
+     * Record a value that occurred count times
+     */
+    public void record(long value, long count) {
+        if (count <= 0) {
+            return;
+        }
+        long v = Math.max(value, 0);
+        int index = indexOf(v);
+        if (index >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(index + 1, counts.length * 2));
+        }
+        counts[index] += count;
+        totalCount += count;
+        sum += v * count;
+        max = Math.max(max, v);
+    }
+    
+    /**
+     * Add another histogram's counts to this one
+     */
+    public void merge(LogHistogram other) {
+        if (other.counts.length > counts.length) {
+            counts = Arrays.copyOf(counts, other.counts.length);
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+    
+    public long getTotalCount() { return totalCount; }
+    public long getMax() { return max; }
+    
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) sum / totalCount;
+    }
+    
+    /**
+     * Value at a percentile (0-100), reported as the top of its bucket
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+    
+    /**
+     * Number of buckets that may hold counts
+     */
+    public int getBucketCount() {
+        return indexOf(max) + 1;
+    }
+    
+    public long getCountAt(int bucket) {
+        return bucket < counts.length ? counts[bucket] : 0;
+    }
+    
+    /**
+     * Smallest value in a bucket
+     */
+    public static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int group = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        int sub = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub) << group;
+    }
+    
+    /**
+     * Largest value in a bucket
+     */
+    public static long upperBound(int bucket) {
+        return lowerBound(bucket + 1) - 1;
+    }
+    
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int group = exponent - SUB_BUCKET_BITS;
+        int sub = (int) (value >>> group) - SUB_BUCKETS;
+        return SUB_BUCKETS + group * SUB_BUCKETS + sub;
+    }
+}
@@ -0,0 +1,159 @@
+package com.library.utils;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Login throttling per username and per workstation
+ * Failed attempts are counted in two adjacent fixed windows weighted into a
+ * sliding-window estimate. Going over the limit locks the key out, doubling
+ * the lockout each time it repeats. Each key's state is replaced by
+ * compare-and-set, so checks never block, and rejected attempts are answered
+ * without a database query.
+ */
+public class LoginRateLimiter {
+    
+    /**
+     * Immutable window and lockout state of one key
+     */
+    private static final class State {
+        static final State EMPTY = new State(0, 0, 0, 0, 0, 0);
+        
+        final long windowStart;
+        final int current;
+        final int previous;
+        final long lockedUntil;
+        final int lockouts;
+        final long lastSeen;
+        
+        State(long windowStart, int current, int previous, long lockedUntil, int lockouts, long lastSeen) {
+            this.windowStart = windowStart;
+            this.current = current;
+            this.previous = previous;
+            this.lockedUntil = lockedUntil;
+            this.lockouts = lockouts;
+            this.lastSeen = lastSeen;
+        }
+        
+        /**
+         * State after one more failure at time now
+         */
+        State fail(long now, int limit) {
+            long window = DatabaseConstants.LOGIN_WINDOW_SECONDS * 1000L;
+            long start = now - now % window;
+            int cur = current;
+            int prev = previous;
+            if (start == windowStart + window) {
+                prev = cur;
+                cur = 0;
+            } else if (start != windowStart) {
+                prev = 0;
+                cur = 0;
+            }
+            cur++;
+            
+            // Forget earlier lockouts once the key has behaved for the longest lockout
+            int level = now - lockedUntil > DatabaseConstants.LOGIN_LOCKOUT_MAX_SECONDS * 1000L ? 0 : lockouts;
+            double estimate = prev * (double) (window - (now - start)) / window + cur;
+            if (estimate < limit) {
+                return new State(start, cur, prev, lockedUntil, level, now);
+            }
+            
+            long lockout = Math.min((long) DatabaseConstants.LOGIN_LOCKOUT_BASE_SECONDS << Math.min(level, 20),
+                                    DatabaseConstants.LOGIN_LOCKOUT_MAX_SECONDS);
+            return new State(start, 0, 0, now + lockout * 1000, level + 1, now);
+        }
+    }
+    
+    private static final String STATION_KEY = "station:" + Workstation.getName();
+    
+    private static final Map<String, AtomicReference<State>> keys = new ConcurrentHashMap<>();
+    
+    private static final LongAdder allowed = new LongAdder();
+    private static final LongAdder rejected = new LongAdder();
+    private static final LongAdder failures = new LongAdder();
+    private static final LongAdder lockouts = new LongAdder();
+    
+    private LoginRateLimiter() {
+        // Utility class - prevent instantiation
+    }
+    
+    /**
+     * Check whether a login attempt may proceed
+     * @return 0 if allowed, otherwise milliseconds until the lockout ends
+     */
+    public static long checkAllowed(String username) {
+        long now = System.currentTimeMillis();
+        long wait = Math.max(remainingLockout(userKey(username), now), remainingLockout(STATION_KEY, now));
+        if (wait > 0) {
+            rejected.increment();
+        } else {
+            allowed.increment();
+        }
+        return wait;
+    }
+    
+    /**
+     * Count a failed attempt against the username and this workstation
+     */
+    public static void recordFailure(String username) {
+        failures.increment();
+        long now = System.currentTimeMillis();
+        fail(userKey(username), DatabaseConstants.LOGIN_MAX_FAILURES_PER_USER, now);
+        fail(STATION_KEY, DatabaseConstants.LOGIN_MAX_FAILURES_PER_STATION, now);
+    }
+    
+    /**
+     * Clear the username's failures after a successful login
+     */
+    public static void recordSuccess(String username) {
+        keys.remove(userKey(username));
+    }
+    
+    public static long getAllowedCount() { return allowed.sum(); }
+    public static long getRejectedCount() { return rejected.sum(); }
+    public static long getFailureCount() { return failures.sum(); }
+    public static long getLockoutCount() { return lockouts.sum(); }
+    
+    private static void fail(String key, int limit, long now) {
+        if (keys.size() >= DatabaseConstants.LOGIN_TRACKED_KEYS) {
+            prune(now);
+        }
+        
+        AtomicReference<State> ref = keys.computeIfAbsent(key, k -> new AtomicReference<>(State.EMPTY));
+        while (true) {
+            State state = ref.get();
+            State next = state.fail(now, limit);
+            if (ref.compareAndSet(state, next)) {
+                if (next.lockedUntil != state.lockedUntil) {
+                    lockouts.increment();
+                }
+                return;
+            }
+        }
+    }
+    
+    private static long remainingLockout(String key, long now) {
+        AtomicReference<State> ref = keys.get(key);
+        return ref == null ? 0 : Math.max(0, ref.get().lockedUntil - now);
+    }
+    
+    /**
+     * Drop keys that are neither locked out nor inside the sliding window
+     */
+    private static void prune(long now) {
+        long idle = 2L * DatabaseConstants.LOGIN_WINDOW_SECONDS * 1000;
+        keys.values().removeIf(ref -> {
+            State state = ref.get();
+            return state.lockedUntil < now && now - state.lastSeen > idle;
+        });
+    }
+    
+    private static String userKey(String username) {
+        // Usernames compare case-insensitively in MySQL
+        return "user:" + username.toLowerCase(Locale.ROOT);
+    }
+}
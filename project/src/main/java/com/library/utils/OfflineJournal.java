@@ -0,0 +1,610 @@
+package com.library.utils;
+
+import com.library.Database;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead journal for circulation while the database is unreachable
+ * Issue and return operations are appended to memory-mapped segment files
+ * with batched fsync, then replayed in idempotent batched transactions
+ * once the database comes back
+ */
+public class OfflineJournal {
+    
+    public static final byte TYPE_ISSUE = 1;
+    public static final byte TYPE_RETURN = 2;
+    
+    // Fixed-size record layout
+    private static final int RECORD_SIZE = 64;
+    private static final int OFFSET_TYPE = 0;
+    private static final int OFFSET_OP_ID = 8;
+    private static final int OFFSET_USER_ID = 16;
+    private static final int OFFSET_BOOK_ID = 20;
+    private static final int OFFSET_ISSUE_ID = 24;
+    private static final int OFFSET_DATE = 32;
+    private static final int OFFSET_DUE_DATE = 40;
+    private static final int OFFSET_FINE_CENTS = 48;
+    private static final int OFFSET_CHECKSUM = 56;
+    
+    private static final int SEGMENT_SIZE = RECORD_SIZE * DatabaseConstants.JOURNAL_SEGMENT_RECORDS;
+    
+    /**
+     * Journaled circulation operation
+     */
+    public static class Record {
+        private final byte type;
+        private final long opId;
+        private final int userId;
+        private final int bookId;
+        private final int issueId;
+        private final LocalDate date;
+        private final LocalDate dueDate;
+        private final long fineCents;
+        
+        Record(byte type, long opId, int userId, int bookId, int issueId,
+               LocalDate date, LocalDate dueDate, long fineCents) {
+            this.type = type;
+            this.opId = opId;
+            this.userId = userId;
+            this.bookId = bookId;
+            this.issueId = issueId;
+            this.date = date;
+            this.dueDate = dueDate;
+            this.fineCents = fineCents;
+        }
+        
+        public byte getType() { return type; }
+        public long getOpId() { return opId; }
+        public int getUserId() { return userId; }
+        public int getBookId() { return bookId; }
+        public int getIssueId() { return issueId; }
+        public LocalDate getDate() { return date; }
+        public LocalDate getDueDate() { return dueDate; }
+        public double getFine() { return fineCents / 100.0; }
+        
+        public String getTypeName() {
+            return type == TYPE_ISSUE ? "Issue" : "Return";
+        }
+    }
+    
+    /**
+     * Operation that could not be applied on replay
+     */
+    public static class Conflict {
+        private final Record record;
+        private final String reason;
+        
+        Conflict(Record record, String reason) {
+            this.record = record;
+            this.reason = reason;
+        }
+        
+        public Record getRecord() { return record; }
+        public String getReason() { return reason; }
+        
+        @Override
+        public String toString() {
+            Record r = record;
+            return r.getTypeName() + " of book #" + r.bookId + " for user #" + r.userId
+                + " on " + DateUtils.formatForDisplay(r.date) + ": " + reason;
+        }
+    }
+    
+    /**
+     * Outcome of a replay run
+     */
+    public static class ReplayReport {
+        private int applied;
+        private int skipped;
+        private boolean complete = true;
+        private Path conflictFile;
+        private final List<Conflict> conflicts = new ArrayList<>();
+        
+        public int getApplied() { return applied; }
+        public int getSkipped() { return skipped; }
+        public boolean isComplete() { return complete; }
+        public Path getConflictFile() { return conflictFile; }
+        public List<Conflict> getConflicts() { return conflicts; }
+    }
+    
+    private static final List<Consumer<ReplayReport>> listeners = new CopyOnWriteArrayList<>();
+    
+    private static Path directory;
+    private static FileChannel activeChannel;
+    private static MappedByteBuffer active;
+    private static int activeSequence;
+    private static int writeSlot;
+    private static int unflushed;
+    private static boolean started = false;
+    private static volatile boolean replaying = false;
+    private static ScheduledExecutorService worker;
+    
+    private OfflineJournal() {
+        // Utility class - prevent instantiation
+    }
+    
+    /**
+     * Open the journal, recover its tail and start flush and reconnect tasks
+     */
+    public static synchronized void start() {
+        if (started) {
+            return;
+        }
+        
+        try {
+            directory = Paths.get(System.getProperty("user.home"), DatabaseConstants.JOURNAL_DIRECTORY);
+            Files.createDirectories(directory);
+            
+            List<Path> segments = listSegments();
+            activeSequence = segments.isEmpty() ? 0 : sequenceOf(segments.get(segments.size() - 1));
+            openActiveSegment();
+            writeSlot = countValidRecords(active, DatabaseConstants.JOURNAL_SEGMENT_RECORDS);
+        } catch (IOException e) {
+            System.err.println("Offline journal unavailable: " + e.getMessage());
+            e.printStackTrace();
+            return;
+        }
+        
+        started = true;
+        worker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "offline-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        worker.scheduleWithFixedDelay(OfflineJournal::flush,
+            DatabaseConstants.JOURNAL_FSYNC_INTERVAL_MS, DatabaseConstants.JOURNAL_FSYNC_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        worker.scheduleWithFixedDelay(OfflineJournal::tryReplay,
+            0, DatabaseConstants.JOURNAL_RECONNECT_SECONDS, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Register listener notified after each replay run
+     */
+    public static void addListener(Consumer<ReplayReport> listener) {
+        listeners.add(listener);
+    }
+    
+    /**
+     * Check if the journal is accepting records
+     */
+    public static synchronized boolean isAvailable() {
+        return started;
+    }
+    
+    /**
+     * Check if operations are waiting to be replayed
+     */
+    public static synchronized boolean hasPendingRecords() {
+        return started && (writeSlot > 0 || activeSequence > firstSequence());
+    }
+    
+    /**
+     * Journal a book issue
+     * @return operation ID
+     */
+    public static long recordIssue(int userId, int bookId, LocalDate issueDate, LocalDate dueDate) throws IOException {
+        long opId = append(TYPE_ISSUE, userId, bookId, 0, issueDate, dueDate, 0);
+        CirculationMetrics.record(CirculationMetrics.Event.ISSUE);
+        return opId;
+    }
+    
+    /**
+     * Journal a book return
+     * @return operation ID
+     */
+    public static long recordReturn(int issueId, int userId, int bookId, LocalDate returnDate, double fine) throws IOException {
+        long opId = append(TYPE_RETURN, userId, bookId, issueId, returnDate, returnDate, Math.round(fine * 100));
+        CirculationMetrics.record(CirculationMetrics.Event.RETURN);
+        return opId;
+    }
+    
+    /**
+     * Append one record to the active segment
+     */
+    private static synchronized long append(byte type, int userId, int bookId, int issueId,
+                                            LocalDate date, LocalDate dueDate, long fineCents) throws IOException {
+        if (!started) {
+            throw new IOException("Offline journal is not available");
+        }
+        
+        if (writeSlot == DatabaseConstants.JOURNAL_SEGMENT_RECORDS) {
+            rollSegment();
+        }
+        
+        long opId = UUID.randomUUID().getMostSignificantBits();
+        int pos = writeSlot * RECORD_SIZE;
+        active.putLong(pos + OFFSET_OP_ID, opId);
+        active.putInt(pos + OFFSET_USER_ID, userId);
+        active.putInt(pos + OFFSET_BOOK_ID, bookId);
+        active.putInt(pos + OFFSET_ISSUE_ID, issueId);
+        active.putLong(pos + OFFSET_DATE, date.toEpochDay());
+        active.putLong(pos + OFFSET_DUE_DATE, dueDate.toEpochDay());
+        active.putLong(pos + OFFSET_FINE_CENTS, fineCents);
+        active.put(pos + OFFSET_TYPE, type);
+        active.putLong(pos + OFFSET_CHECKSUM, checksum(active, pos));
+        writeSlot++;
+        
+        if (++unflushed >= DatabaseConstants.JOURNAL_FSYNC_BATCH) {
+            active.force();
+            unflushed = 0;
+        }
+        return opId;
+    }
+    
+    /**
+     * Force pending records to disk
+     */
+    private static synchronized void flush() {
+        if (unflushed > 0) {
+            active.force();
+            unflushed = 0;
+        }
+    }
+    
+    /**
+     * Replay when records are pending and the database answers
+     */
+    private static void tryReplay() {
+        if (!hasPendingRecords()) {
+            return;
+        }
+        try (Connection probe = Database.openConnection()) {
+            if (!probe.isValid(DatabaseConstants.VALIDATION_TIMEOUT_SECONDS)) {
+                return;
+            }
+        } catch (SQLException e) {
+            return;
+        }
+        replay();
+    }
+    
+    /**
+     * Replay journaled operations in batched, idempotent transactions
+     * Each operation ID is recorded in journal_replays inside the same
+     * transaction, so a repeated replay skips operations already applied
+     */
+    public static ReplayReport replay() {
+        ReplayReport report = new ReplayReport();
+        if (replaying) {
+            report.complete = false;
+            return report;
+        }
+        replaying = true;
+        
+        try {
+            List<Path> segments;
+            int snapshotSequence;
+            int snapshotSlot;
+            synchronized (OfflineJournal.class) {
+                flush();
+                segments = listSegments();
+                snapshotSequence = activeSequence;
+                snapshotSlot = writeSlot;
+            }
+            
+            try (Connection conn = Database.openConnection()) {
+                conn.setAutoCommit(false);
+                
+                for (Path segment : segments) {
+                    int limit = sequenceOf(segment) == snapshotSequence
+                        ? snapshotSlot : DatabaseConstants.JOURNAL_SEGMENT_RECORDS;
+                    if (!replaySegment(conn, segment, limit, report)) {
+                        report.complete = false;
+                        break;
+                    }
+                }
+                
+                if (report.applied > 0 || !report.conflicts.isEmpty()) {
+                    // Rolled back records may have touched the in-memory hold queues;
+                    // reload on this connection, never the shared one used by the FX thread
+                    try {
+                        conn.setAutoCommit(true);
+                        HoldQueue.reload(conn);
+                    } catch (SQLException e) {
+                        // Replay itself committed; the queues load again on next use
+                        e.printStackTrace();
+                    }
+                }
+            } catch (SQLException | IOException e) {
+                report.complete = false;
+                e.printStackTrace();
+            }
+            
+            if (report.complete) {
+                truncateReplayed(segments, snapshotSequence, snapshotSlot);
+            }
+            if (!report.conflicts.isEmpty()) {
+                writeConflictFile(report);
+            }
+            if (report.complete) {
+                // The database is back; pick up holidays missed while offline
+                LibraryCalendar.reload();
+            }
+            if (report.applied > 0) {
+                DueDateScheduler.reload();
+                ReportCache.invalidateAll();
+            }
+        } finally {
+            replaying = false;
+        }
+        
+        for (Consumer<ReplayReport> listener : listeners) {
+            listener.accept(report);
+        }
+        return report;
+    }
+    
+    /**
+     * Replay one segment up to a record limit
+     * @return false if a batch failed and replay must stop
+     */
+    private static boolean replaySegment(Connection conn, Path segment, int limit, ReplayReport report) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SEGMENT_SIZE);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Read whole segment
+            }
+        }
+        
+        int count = Math.min(limit, countValidRecords(buffer, DatabaseConstants.JOURNAL_SEGMENT_RECORDS));
+        int inBatch = 0;
+        List<Conflict> batchConflicts = new ArrayList<>();
+        List<Record> batchIssues = new ArrayList<>();
+        int batchApplied = 0;
+        int batchSkipped = 0;
+        
+        try {
+            for (int slot = 0; slot < count; slot++) {
+                Record record = readRecord(buffer, slot * RECORD_SIZE);
+                
+                try (PreparedStatement stmt = Database.prepare(conn,
+                        "INSERT IGNORE INTO journal_replays (op_id, op_type) VALUES (?, ?)",
+                        record.opId, record.getTypeName())) {
+                    if (stmt.executeUpdate() == 0) {
+                        batchSkipped++;
+                        continue;
+                    }
+                }
+                
+                Savepoint savepoint = conn.setSavepoint();
+                try {
+                    if (record.type == TYPE_ISSUE) {
+                        CirculationService.issueInTransaction(conn, record.userId, record.bookId, record.date, record.dueDate);
+                        batchIssues.add(record);
+                    } else {
+                        CirculationService.returnInTransaction(conn, resolveIssueId(conn, record),
+                            record.bookId, record.date, record.getFine());
+                    }
+                    batchApplied++;
+                } catch (SQLException e) {
+                    if (Database.isConnectionFailure(e)) {
+                        throw e;
+                    }
+                    // Keep the replay marker so the conflict is reported once
+                    conn.rollback(savepoint);
+                    batchConflicts.add(new Conflict(record, e.getMessage()));
+                }
+                
+                if (++inBatch == DatabaseConstants.JOURNAL_REPLAY_BATCH) {
+                    conn.commit();
+                    report.applied += batchApplied;
+                    report.skipped += batchSkipped;
+                    report.conflicts.addAll(batchConflicts);
+                    recordPopularity(batchIssues);
+                    batchConflicts.clear();
+                    batchApplied = 0;
+                    batchSkipped = 0;
+                    inBatch = 0;
+                }
+            }
+            
+            conn.commit();
+            report.applied += batchApplied;
+            report.skipped += batchSkipped;
+            report.conflicts.addAll(batchConflicts);
+            recordPopularity(batchIssues);
+            return true;
+        } catch (SQLException e) {
+            try {
+                conn.rollback();
+            } catch (SQLException ex) {
+                ex.printStackTrace();
+            }
+            e.printStackTrace();
+            return false;
+        }
+    }
+    
+    /**
+     * Issue ID a journaled return applies to
+     * A loan issued while offline had no ID when it was returned, so the
+     * oldest open loan of the book to the user is used; its issue was
+     * replayed earlier in journal order.
+     */
+    private static int resolveIssueId(Connection conn, Record record) throws SQLException {
+        if (record.issueId > 0) {
+            return record.issueId;
+        }
+        try (PreparedStatement stmt = Database.prepare(conn, """
+                SELECT issue_id FROM book_issues
+                WHERE user_id = ? AND book_id = ? AND is_returned = 0 AND issue_date <= ?
+                ORDER BY issue_date, issue_id
+                LIMIT 1
+                FOR UPDATE
+                """, record.userId, record.bookId, record.date);
+             ResultSet rs = stmt.executeQuery()) {
+            if (!rs.next()) {
+                throw new CirculationService.ConflictException("No open loan of book #" + record.bookId
+                    + " for user #" + record.userId);
+            }
+            return rs.getInt("issue_id");
+        }
+    }
+    
+    /**
+     * Count committed replayed issues in the popularity summaries
+     */
+    private static void recordPopularity(List<Record> issues) {
+        for (Record record : issues) {
+            PopularityTracker.recordIssue(record.bookId, record.date);
+        }
+        issues.clear();
+    }
+    
+    /**
+     * Remove fully replayed segments and reset the active one if nothing was appended meanwhile
+     * The snapshot segment was replayed only up to snapshotSlot, so it is kept
+     * if records were appended after that and the journal has since rolled over
+     */
+    private static synchronized void truncateReplayed(List<Path> segments, int snapshotSequence, int snapshotSlot) {
+        for (Path segment : segments) {
+            int sequence = sequenceOf(segment);
+            boolean fullyReplayed = sequence != snapshotSequence
+                || snapshotSlot == DatabaseConstants.JOURNAL_SEGMENT_RECORDS;
+            if (fullyReplayed && sequence != activeSequence) {
+                try {
+                    Files.deleteIfExists(segment);
+                } catch (IOException e) {
+                    // Replay is idempotent; a leftover segment is skipped next time
+                    e.printStackTrace();
+                }
+            }
+        }
+        
+        if (activeSequence == snapshotSequence && writeSlot == snapshotSlot) {
+            for (int i = 0; i < writeSlot * RECORD_SIZE; i++) {
+                active.put(i, (byte) 0);
+            }
+            active.force();
+            writeSlot = 0;
+            unflushed = 0;
+        }
+    }
+    
+    /**
+     * Write conflicts to a CSV file next to the journal
+     */
+    private static void writeConflictFile(ReplayReport report) {
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path file = directory.resolve("conflicts-" + stamp + ".csv");
+        
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("Operation,Operation ID,User ID,Book ID,Issue ID,Date,Reason");
+            writer.newLine();
+            for (Conflict conflict : report.conflicts) {
+                Record r = conflict.record;
+                writer.write(r.getTypeName() + "," + Long.toUnsignedString(r.opId) + "," + r.userId + ","
+                    + r.bookId + "," + r.issueId + "," + r.date + "," + conflict.reason);
+                writer.newLine();
+            }
+            report.conflictFile = file;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Start a new segment once the active one is full
+     */
+    private static void rollSegment() throws IOException {
+        active.force();
+        activeChannel.close();
+        activeSequence++;
+        openActiveSegment();
+        writeSlot = 0;
+        unflushed = 0;
+    }
+    
+    private static void openActiveSegment() throws IOException {
+        Path file = directory.resolve(String.format("segment-%06d.log", activeSequence));
+        activeChannel = FileChannel.open(file,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        active = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_SIZE);
+    }
+    
+    private static List<Path> listSegments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(p -> p.getFileName().toString().matches("segment-\\d{6}\\.log"))
+                .sorted()
+                .collect(Collectors.toList());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+    
+    private static int firstSequence() {
+        List<Path> segments = listSegments();
+        return segments.isEmpty() ? activeSequence : sequenceOf(segments.get(0));
+    }
+    
+    private static int sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(8, 14));
+    }
+    
+    /**
+     * Count records up to the first empty or torn slot
+     */
+    private static int countValidRecords(ByteBuffer buffer, int maxRecords) {
+        int slot = 0;
+        while (slot < maxRecords) {
+            int pos = slot * RECORD_SIZE;
+            byte type = buffer.get(pos + OFFSET_TYPE);
+            if ((type != TYPE_ISSUE && type != TYPE_RETURN)
+                || buffer.getLong(pos + OFFSET_CHECKSUM) != checksum(buffer, pos)) {
+                break;
+            }
+            slot++;
+        }
+        return slot;
+    }
+    
+    private static Record readRecord(ByteBuffer buffer, int pos) {
+        return new Record(
+            buffer.get(pos + OFFSET_TYPE),
+            buffer.getLong(pos + OFFSET_OP_ID),
+            buffer.getInt(pos + OFFSET_USER_ID),
+            buffer.getInt(pos + OFFSET_BOOK_ID),
+            buffer.getInt(pos + OFFSET_ISSUE_ID),
+            LocalDate.ofEpochDay(buffer.getLong(pos + OFFSET_DATE)),
+            LocalDate.ofEpochDay(buffer.getLong(pos + OFFSET_DUE_DATE)),
+            buffer.getLong(pos + OFFSET_FINE_CENTS)
+        );
+    }
+    
+    private static long checksum(ByteBuffer buffer, int pos) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(pos, OFFSET_CHECKSUM));
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,317 @@
+package com.library.utils;
+
+import com.library.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Most-borrowed books, authors and categories
+ * Each issue updates per-month SpaceSaving summaries in memory; summaries are
+ * snapshotted to popularity_snapshots per month and desk, and reports merge
+ * the snapshots of a period into approximate top-K answers.
+ */
+public class PopularityTracker {
+    
+    /**
+     * Tracked item kinds
+     */
+    public enum Dimension {
+        BOOK("Books"),
+        AUTHOR("Authors"),
+        CATEGORY("Categories");
+        
+        private final String displayName;
+        
+        Dimension(String displayName) {
+            this.displayName = displayName;
+        }
+        
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+    
+    // Live summaries by month start; guarded by the class lock
+    private static final Map<LocalDate, Map<Dimension, SpaceSaving>> months = new HashMap<>();
+    private static final Set<LocalDate> dirtyMonths = new HashSet<>();
+    
+    // Book ID to {title, author, category}; touched only by the tracker thread
+    private static final Map<Integer, String[]> books = new HashMap<>();
+    
+    // Snapshots are kept per desk so desks sharing a database do not overwrite each other
+    private static final String station = Workstation.getName();
+    private static final Object flushLock = new Object();
+    private static ExecutorService tracker;
+    private static Connection lookupConnection;
+    
+    private PopularityTracker() {
+        // Utility class - prevent instantiation
+    }
+    
+    /**
+     * Start the tracker thread and periodic snapshots
+     */
+    public static synchronized void start() {
+        if (tracker != null) {
+            return;
+        }
+        
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "popularity-tracker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(PopularityTracker::flush,
+            DatabaseConstants.POPULARITY_FLUSH_MINUTES, DatabaseConstants.POPULARITY_FLUSH_MINUTES, TimeUnit.MINUTES);
+        tracker = executor;
+        
+        Runtime.getRuntime().addShutdownHook(new Thread(PopularityTracker::flush, "popularity-flush"));
+    }
+    
+    /**
+     * Count an issue; the book lookup and update happen off the caller's thread
+     */
+    public static synchronized void recordIssue(int bookId, LocalDate issueDate) {
+        if (tracker == null) {
+            return;
+        }
+        tracker.execute(() -> {
+            String[] book = lookupBook(bookId);
+            if (book != null) {
+                offer(issueDate.withDayOfMonth(1), bookId, book);
+            }
+        });
+    }
+    
+    /**
+     * Approximate top items for months in [fromMonth, toMonth]
+     * Live counts are snapshotted first so the answer includes them
+     * @param fromMonth first month, or null for all history
+     */
+    public static List<SpaceSaving.Counter> topItems(Dimension dimension, LocalDate fromMonth,
+                                                     LocalDate toMonth, int limit) throws SQLException {
+        flush();
+        
+        List<Object> params = new ArrayList<>();
+        params.add(dimension.name());
+        String query = """
+            SELECT period_start, station, item_key, item_label, item_count, error_bound
+            FROM popularity_snapshots
+            WHERE dimension = ? AND period_start <= ?""";
+        params.add(toMonth.withDayOfMonth(1));
+        if (fromMonth != null) {
+            query += " AND period_start >= ?";
+            params.add(fromMonth.withDayOfMonth(1));
+        }
+        
+        Map<String, SpaceSaving> summaries = new HashMap<>();
+        try (Connection conn = Database.openConnection();
+             PreparedStatement stmt = Database.prepare(conn, query, params.toArray());
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                String summaryKey = rs.getDate("period_start") + "/" + rs.getString("station");
+                summaries.computeIfAbsent(summaryKey, k -> new SpaceSaving(DatabaseConstants.POPULARITY_CAPACITY))
+                    .load(rs.getString("item_key"), rs.getString("item_label"),
+                          rs.getLong("item_count"), rs.getLong("error_bound"));
+            }
+        }
+        return SpaceSaving.merge(new ArrayList<>(summaries.values()), limit);
+    }
+    
+    /**
+     * Write changed monthly summaries to popularity_snapshots
+     */
+    public static void flush() {
+        synchronized (flushLock) {
+            writeDirtyMonths();
+        }
+    }
+    
+    private static void writeDirtyMonths() {
+        Map<LocalDate, Map<Dimension, List<SpaceSaving.Counter>>> snapshot = new HashMap<>();
+        synchronized (PopularityTracker.class) {
+            for (LocalDate month : dirtyMonths) {
+                Map<Dimension, List<SpaceSaving.Counter>> copy = new EnumMap<>(Dimension.class);
+                for (Map.Entry<Dimension, SpaceSaving> entry : months.get(month).entrySet()) {
+                    List<SpaceSaving.Counter> counters = new ArrayList<>();
+                    for (SpaceSaving.Counter counter : entry.getValue().counters()) {
+                        counters.add(new SpaceSaving.Counter(counter.getKey(), counter.getLabel(),
+                                                             counter.getCount(), counter.getError()));
+                    }
+                    copy.put(entry.getKey(), counters);
+                }
+                snapshot.put(month, copy);
+            }
+            dirtyMonths.clear();
+        }
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        
+        try (Connection conn = Database.openConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                for (Map.Entry<LocalDate, Map<Dimension, List<SpaceSaving.Counter>>> month : snapshot.entrySet()) {
+                    writeSnapshot(conn, month.getKey(), month.getValue());
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            synchronized (PopularityTracker.class) {
+                dirtyMonths.addAll(snapshot.keySet());
+            }
+            return;
+        }
+        
+        // Past months rarely change again; reload them from the snapshot if they do
+        synchronized (PopularityTracker.class) {
+            LocalDate current = DayClock.today().withDayOfMonth(1);
+            months.keySet().removeIf(month -> month.isBefore(current) && !dirtyMonths.contains(month));
+        }
+    }
+    
+    private static void writeSnapshot(Connection conn, LocalDate month,
+                                      Map<Dimension, List<SpaceSaving.Counter>> summaries) throws SQLException {
+        try (PreparedStatement stmt = Database.prepare(conn,
+                "DELETE FROM popularity_snapshots WHERE period_start = ? AND station = ?", month, station)) {
+            stmt.executeUpdate();
+        }
+        
+        try (PreparedStatement stmt = conn.prepareStatement("""
+                INSERT INTO popularity_snapshots
+                    (period_start, dimension, station, item_key, item_label, item_count, error_bound)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+                """)) {
+            for (Map.Entry<Dimension, List<SpaceSaving.Counter>> entry : summaries.entrySet()) {
+                for (SpaceSaving.Counter counter : entry.getValue()) {
+                    stmt.setObject(1, month);
+                    stmt.setString(2, entry.getKey().name());
+                    stmt.setString(3, station);
+                    stmt.setString(4, counter.getKey());
+                    stmt.setString(5, counter.getLabel());
+                    stmt.setLong(6, counter.getCount());
+                    stmt.setLong(7, counter.getError());
+                    stmt.addBatch();
+                }
+            }
+            stmt.executeBatch();
+        }
+    }
+    
+    /**
+     * Update the month's summaries, restoring this desk's snapshot on first use
+     */
+    private static void offer(LocalDate month, int bookId, String[] book) {
+        while (true) {
+            synchronized (PopularityTracker.class) {
+                Map<Dimension, SpaceSaving> summaries = months.get(month);
+                if (summaries != null) {
+                    summaries.get(Dimension.BOOK).offer(String.valueOf(bookId), book[0] + " - " + book[1]);
+                    summaries.get(Dimension.AUTHOR).offer(book[1], book[1]);
+                    summaries.get(Dimension.CATEGORY).offer(book[2], book[2]);
+                    dirtyMonths.add(month);
+                    return;
+                }
+            }
+            
+            // Counting from an empty summary would overwrite the stored snapshot
+            Map<Dimension, SpaceSaving> loaded = loadSnapshot(month);
+            if (loaded == null) {
+                return;
+            }
+            synchronized (PopularityTracker.class) {
+                months.putIfAbsent(month, loaded);
+            }
+        }
+    }
+    
+    /**
+     * Read this desk's stored summaries for a month
+     * @return summaries, or null if the snapshot could not be read
+     */
+    private static Map<Dimension, SpaceSaving> loadSnapshot(LocalDate month) {
+        Map<Dimension, SpaceSaving> summaries = emptySummaries();
+        try (PreparedStatement stmt = Database.prepare(lookupConnection(), """
+                SELECT dimension, item_key, item_label, item_count, error_bound
+                FROM popularity_snapshots
+                WHERE period_start = ? AND station = ?
+                """, month, station);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                summaries.get(Dimension.valueOf(rs.getString("dimension")))
+                    .load(rs.getString("item_key"), rs.getString("item_label"),
+                          rs.getLong("item_count"), rs.getLong("error_bound"));
+            }
+            return summaries;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            closeLookupConnection();
+            return null;
+        }
+    }
+    
+    private static Map<Dimension, SpaceSaving> emptySummaries() {
+        Map<Dimension, SpaceSaving> summaries = new EnumMap<>(Dimension.class);
+        for (Dimension dimension : Dimension.values()) {
+            summaries.put(dimension, new SpaceSaving(DatabaseConstants.POPULARITY_CAPACITY));
+        }
+        return summaries;
+    }
+    
+    private static String[] lookupBook(int bookId) {
+        String[] book = books.get(bookId);
+        if (book != null) {
+            return book;
+        }
+        
+        try (PreparedStatement stmt = Database.prepare(lookupConnection(),
+                "SELECT title, author, category FROM books WHERE book_id = ?", bookId);
+             ResultSet rs = stmt.executeQuery()) {
+            if (rs.next()) {
+                book = new String[] { rs.getString("title"), rs.getString("author"), rs.getString("category") };
+                books.put(bookId, book);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            closeLookupConnection();
+        }
+        return book;
+    }
+    
+    private static Connection lookupConnection() throws SQLException {
+        if (lookupConnection == null || lookupConnection.isClosed()) {
+            lookupConnection = Database.openConnection();
+        }
+        return lookupConnection;
+    }
+    
+    private static void closeLookupConnection() {
+        try {
+            if (lookupConnection != null) {
+                lookupConnection.close();
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        lookupConnection = null;
+    }
+}
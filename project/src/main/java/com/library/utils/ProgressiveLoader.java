@@ -0,0 +1,145 @@
+package com.library.utils;
+
+import com.library.Database;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streams query results into the UI while they are still arriving
+ * Rows are read from a server-side cursor and mapped on a background
+ * thread, then handed to the FX thread in batches: the first as soon as a
+ * screenful is ready, the rest about once per frame. Batches that pile up
+ * while the FX thread is busy are merged, so each runLater delivers one
+ * list and the consumer can append it with a single change event.
+ * The task's value is the number of rows delivered.
+ */
+public class ProgressiveLoader<T> extends Task<Integer> {
+    
+    /**
+     * Maps one result set row
+     */
+    public interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+    
+    private final String query;
+    private final Object[] params;
+    private final RowMapper<T> mapper;
+    private final Consumer<List<T>> onBatch;
+    
+    // Rows mapped but not yet delivered; guarded by lock
+    private final Object lock = new Object();
+    private List<T> pending = new ArrayList<>();
+    private boolean deliveryScheduled = false;
+    private volatile Statement statement;
+    
+    /**
+     * @param onBatch called on the FX thread with each batch of rows, in order
+     */
+    public ProgressiveLoader(String query, RowMapper<T> mapper, Consumer<List<T>> onBatch, Object... params) {
+        this.query = query;
+        this.params = params;
+        this.mapper = mapper;
+        this.onBatch = onBatch;
+    }
+    
+    /**
+     * Run the loader on its own daemon thread
+     */
+    public ProgressiveLoader<T> start() {
+        Thread thread = new Thread(this, "progressive-loader");
+        thread.setDaemon(true);
+        thread.start();
+        return this;
+    }
+    
+    @Override
+    protected Integer call() throws Exception {
+        int total = 0;
+        try (Connection conn = Database.openConnection();
+             PreparedStatement stmt = conn.prepareStatement(query,
+                 ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement = stmt;
+            // MySQL streams rows one at a time instead of buffering the whole result
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            
+            List<T> batch = new ArrayList<>();
+            boolean firstSent = false;
+            long lastSent = System.nanoTime();
+            long interval = DatabaseConstants.PROGRESSIVE_BATCH_MS * 1_000_000L;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (isCancelled()) {
+                        return total;
+                    }
+                    batch.add(mapper.map(rs));
+                    total++;
+                    
+                    boolean due = firstSent ? System.nanoTime() - lastSent >= interval
+                                            : batch.size() >= DatabaseConstants.PROGRESSIVE_FIRST_BATCH;
+                    if (due) {
+                        deliver(batch);
+                        batch = new ArrayList<>();
+                        firstSent = true;
+                        lastSent = System.nanoTime();
+                    }
+                }
+            }
+            deliver(batch);
+            return total;
+        } finally {
+            statement = null;
+        }
+    }
+    
+    @Override
+    protected void cancelled() {
+        Statement stmt = statement;
+        if (stmt != null) {
+            try {
+                stmt.cancel();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+    
+    /**
+     * Queue rows for the FX thread, scheduling a delivery if none is waiting
+     */
+    private void deliver(List<T> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        synchronized (lock) {
+            pending.addAll(rows);
+            if (deliveryScheduled) {
+                return;
+            }
+            deliveryScheduled = true;
+        }
+        Platform.runLater(() -> {
+            List<T> ready;
+            synchronized (lock) {
+                ready = pending;
+                pending = new ArrayList<>();
+                deliveryScheduled = false;
+            }
+            if (!isCancelled()) {
+                onBatch.accept(ready);
+            }
+        });
+    }
+}
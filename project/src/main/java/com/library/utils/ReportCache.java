@@ -0,0 +1,99 @@
+package com.library.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory cache of report query results keyed by query and parameters
+ * Entries expire after a TTL, are evicted least-recently-used once the
+ * cached row total exceeds its bound, and are dropped on circulation events
+ */
+public class ReportCache {
+    
+    /**
+     * Cached report rows with the time they were loaded
+     */
+    public static class Entry {
+        private final List<?> rows;
+        private final long loadedAt;
+        
+        Entry(List<?> rows, long loadedAt) {
+            this.rows = rows;
+            this.loadedAt = loadedAt;
+        }
+        
+        public List<?> getRows() { return rows; }
+        public long getLoadedAt() { return loadedAt; }
+    }
+    
+    // Access order gives least-recently-used iteration
+    private static final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private static long cachedRows = 0;
+    
+    private ReportCache() {
+        // Utility class - prevent instantiation
+    }
+    
+    /**
+     * Build a cache key from a query and its parameters
+     */
+    public static String key(String query, List<Object> params) {
+        return query + '\u0000' + params;
+    }
+    
+    /**
+     * Get a live entry, or null if missing or expired
+     */
+    public static synchronized Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - entry.loadedAt > DatabaseConstants.REPORT_CACHE_TTL_SECONDS * 1000L) {
+            remove(key);
+            return null;
+        }
+        return entry;
+    }
+    
+    /**
+     * Cache report rows, evicting least recently used entries to stay in bounds
+     */
+    public static synchronized Entry put(String key, List<?> rows) {
+        Entry entry = new Entry(rows, System.currentTimeMillis());
+        if (rows.size() > DatabaseConstants.REPORT_CACHE_MAX_ROWS) {
+            return entry;
+        }
+        
+        remove(key);
+        entries.put(key, entry);
+        cachedRows += rows.size();
+        
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (cachedRows > DatabaseConstants.REPORT_CACHE_MAX_ROWS && it.hasNext()) {
+            Map.Entry<String, Entry> eldest = it.next();
+            if (eldest.getValue() != entry) {
+                cachedRows -= eldest.getValue().rows.size();
+                it.remove();
+            }
+        }
+        return entry;
+    }
+    
+    /**
+     * Drop all cached results after circulation changes
+     */
+    public static synchronized void invalidateAll() {
+        entries.clear();
+        cachedRows = 0;
+    }
+    
+    private static void remove(String key) {
+        Entry old = entries.remove(key);
+        if (old != null) {
+            cachedRows -= old.rows.size();
+        }
+    }
+}
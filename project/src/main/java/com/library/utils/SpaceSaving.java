@@ -0,0 +1,159 @@
+package com.library.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * SpaceSaving heavy-hitter summary
+ * Monitors at most capacity items; an unmonitored item replaces the
+ * smallest counter and inherits its count as error. Any item seen more
+ * than total / capacity times is monitored, and each count overestimates
+ * the true count by at most its error.
+ */
+public class SpaceSaving {
+    
+    /**
+     * Monitored item with its estimated count and overestimation bound
+     */
+    public static class Counter {
+        private final String key;
+        private String label;
+        private long count;
+        private long error;
+        
+        Counter(String key, String label, long count, long error) {
+            this.key = key;
+            this.label = label;
+            this.count = count;
+            this.error = error;
+        }
+        
+        public String getKey() { return key; }
+        public String getLabel() { return label; }
+        public long getCount() { return count; }
+        public long getError() { return error; }
+        
+        /**
+         * Lower bound on the true count
+         */
+        public long getGuaranteed() {
+            return count - error;
+        }
+    }
+    
+    private static final Comparator<Counter> BY_COUNT =
+        Comparator.comparingLong((Counter c) -> c.count).thenComparing(c -> c.key);
+    
+    private final int capacity;
+    private final Map<String, Counter> counters = new HashMap<>();
+    
+    // Ordered smallest first so the replacement victim is first()
+    private final TreeSet<Counter> ordered = new TreeSet<>(BY_COUNT);
+    
+    public SpaceSaving(int capacity) {
+        this.capacity = capacity;
+    }
+    
+    /**
+     * Count one occurrence of an item
+     */
+    public void offer(String key, String label) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            ordered.remove(counter);
+            counter.count++;
+            counter.label = label;
+            ordered.add(counter);
+            return;
+        }
+        
+        if (counters.size() < capacity) {
+            counter = new Counter(key, label, 1, 0);
+        } else {
+            Counter victim = ordered.pollFirst();
+            counters.remove(victim.key);
+            counter = new Counter(key, label, victim.count + 1, victim.count);
+        }
+        counters.put(key, counter);
+        ordered.add(counter);
+    }
+    
+    /**
+     * Restore a counter from a snapshot
+     */
+    public void load(String key, String label, long count, long error) {
+        Counter existing = counters.remove(key);
+        if (existing != null) {
+            ordered.remove(existing);
+        }
+        Counter counter = new Counter(key, label, count, error);
+        counters.put(key, counter);
+        ordered.add(counter);
+        while (counters.size() > capacity) {
+            counters.remove(ordered.pollFirst().key);
+        }
+    }
+    
+    /**
+     * Smallest monitored count once the summary is full, otherwise 0
+     * Any unmonitored item occurred at most this many times
+     */
+    public long floor() {
+        return counters.size() < capacity || ordered.isEmpty() ? 0 : ordered.first().count;
+    }
+    
+    /**
+     * Monitored counters in no particular order
+     */
+    public Collection<Counter> counters() {
+        return counters.values();
+    }
+    
+    /**
+     * Up to n counters, largest first
+     */
+    public List<Counter> top(int n) {
+        List<Counter> result = new ArrayList<>(Math.min(n, counters.size()));
+        for (Counter counter : ordered.descendingSet()) {
+            if (result.size() == n) {
+                break;
+            }
+            result.add(counter);
+        }
+        return result;
+    }
+    
+    /**
+     * Combine summaries of disjoint streams into top-n estimates
+     * An item missing from a full summary may still have occurred up to that
+     * summary's floor, which is added to both its count and its error
+     */
+    public static List<Counter> merge(List<SpaceSaving> summaries, int n) {
+        long floorTotal = 0;
+        Map<String, Counter> merged = new HashMap<>();
+        for (SpaceSaving summary : summaries) {
+            long floor = summary.floor();
+            floorTotal += floor;
+            for (Counter counter : summary.counters.values()) {
+                Counter total = merged.computeIfAbsent(counter.key,
+                    key -> new Counter(key, counter.label, 0, 0));
+                // Cancel this summary's floor, added below for every item
+                total.count += counter.count - floor;
+                total.error += counter.error - floor;
+            }
+        }
+        
+        List<Counter> result = new ArrayList<>(merged.values());
+        for (Counter counter : result) {
+            counter.count += floorTotal;
+            counter.error += floorTotal;
+        }
+        result.sort(Comparator.comparingLong(Counter::getCount).thenComparingLong(Counter::getGuaranteed).reversed());
+        return result.size() > n ? new ArrayList<>(result.subList(0, n)) : result;
+    }
+}
@@ -0,0 +1,62 @@
+package com.library.utils;
+
+import java.time.Instant;
+
+/**
+ * Startup phase timings
+ * Each phase is logged with its own duration and the time since the
+ * process was launched, so phases that run in parallel can be told apart
+ * and a slow desk PC shows which phase to look at.
+ */
+public class StartupTimer {
+    
+    private static final long launchMillis = ProcessHandle.current().info().startInstant()
+        .map(Instant::toEpochMilli)
+        .orElse(System.currentTimeMillis());
+    
+    private StartupTimer() {
+        // Utility class - prevent instantiation
+    }
+    
+    /**
+     * Start timing a phase
+     * @return token to pass to finish()
+     */
+    public static long start() {
+        return System.nanoTime();
+    }
+    
+    /**
+     * Log a phase started with start()
+     */
+    public static void finish(String phase, long started) {
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        System.out.println("Startup: " + phase + " took " + millis + " ms (" + sinceLaunch() + " ms after launch)");
+    }
+    
+    /**
+     * Log a point in startup measured from process launch
+     */
+    public static void mark(String phase) {
+        System.out.println("Startup: " + phase + " at " + sinceLaunch() + " ms after launch");
+    }
+    
+    /**
+     * Log the login screen's first frame, warning when it missed the target
+     */
+    public static void ready() {
+        long elapsed = sinceLaunch();
+        mark("login screen ready");
+        if (elapsed > DatabaseConstants.STARTUP_TARGET_MS) {
+            System.err.println("Startup: login screen took " + elapsed + " ms, over the "
+                + DatabaseConstants.STARTUP_TARGET_MS + " ms target");
+        }
+    }
+    
+    /**
+     * Milliseconds since the process was launched
+     */
+    public static long sinceLaunch() {
+        return System.currentTimeMillis() - launchMillis;
+    }
+}
@@ -0,0 +1,143 @@
+package com.library.utils;
+
+import com.library.Database;
+import com.library.models.User;
+import com.library.models.UserRole;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Paged, prefix-searchable user directory
+ * Users are listed by first name, last name and ID, one keyset page at a
+ * time. A search runs one index range per matched column (first name, last
+ * name, full name, username and email) and merges the branches with UNION,
+ * so each page reads only about a page of rows from each index. Passwords
+ * are never selected.
+ */
+public class UserDirectory {
+    
+    private static final String COLUMNS =
+        "user_id, username, first_name, last_name, email, phone_number, role, is_active";
+    private static final String ORDER = " ORDER BY first_name, last_name, user_id";
+    
+    private UserDirectory() {
+        // Utility class - prevent instantiation
+    }
+    
+    /**
+     * Fetch the page of users after a given user
+     * @param text prefix of a first name, last name, "first last", username or email; blank lists everyone
+     * @param after last user of the previous page, or null for the first page
+     */
+    public static List<User> search(String text, boolean activeOnly, User after, int limit) throws SQLException {
+        String prefix = text == null ? "" : text.trim();
+        List<Object> params = new ArrayList<>();
+        StringBuilder query = new StringBuilder();
+        
+        if (prefix.isEmpty()) {
+            appendBranch(query, params, null, null, activeOnly, after, limit);
+        } else {
+            String like = escapeLike(prefix) + "%";
+            query.append("SELECT * FROM (");
+            appendBranch(query, params, "first_name LIKE ?", like, activeOnly, after, limit);
+            query.append(" UNION ");
+            appendBranch(query, params, "last_name LIKE ?", like, activeOnly, after, limit);
+            query.append(" UNION ");
+            appendBranch(query, params, "username LIKE ?", like, activeOnly, after, limit);
+            query.append(" UNION ");
+            appendBranch(query, params, "email LIKE ?", like, activeOnly, after, limit);
+            
+            // "Jane Do" matches first name Jane and last names starting with Do
+            int space = prefix.indexOf(' ');
+            if (space > 0) {
+                query.append(" UNION ");
+                params.add(prefix.substring(0, space));
+                appendBranch(query, params, "first_name = ? AND last_name LIKE ?",
+                    escapeLike(prefix.substring(space + 1).trim()) + "%", activeOnly, after, limit);
+            }
+            query.append(") matches").append(ORDER).append(" LIMIT ").append(limit);
+        }
+        
+        List<User> users = new ArrayList<>();
+        ResultSet rs = Database.executeQuery(query.toString(), params.toArray());
+        if (rs == null) {
+            throw new SQLException("Database is not available.");
+        }
+        while (rs.next()) {
+            users.add(mapUser(rs));
+        }
+        return users;
+    }
+    
+    /**
+     * Look up one user by ID, or null if there is none
+     */
+    public static User findById(int userId) throws SQLException {
+        ResultSet rs = Database.executeQuery("SELECT " + COLUMNS + " FROM users WHERE user_id = ?", userId);
+        return rs != null && rs.next() ? mapUser(rs) : null;
+    }
+    
+    /**
+     * Users added or changed at or after a given database server time
+     */
+    public static List<User> changedSince(Timestamp since) throws SQLException {
+        ResultSet rs = Database.executeQuery("SELECT " + COLUMNS + " FROM users WHERE updated_at >= ?", since);
+        if (rs == null) {
+            throw new SQLException("Database is not available.");
+        }
+        List<User> users = new ArrayList<>();
+        while (rs.next()) {
+            users.add(mapUser(rs));
+        }
+        return users;
+    }
+    
+    /**
+     * One parenthesized, ordered and limited SELECT of the union
+     */
+    private static void appendBranch(StringBuilder query, List<Object> params, String condition, String like,
+                                     boolean activeOnly, User after, int limit) {
+        List<String> conditions = new ArrayList<>();
+        if (condition != null) {
+            conditions.add(condition);
+            params.add(like);
+        }
+        if (activeOnly) {
+            conditions.add("is_active = 1");
+        }
+        if (after != null) {
+            conditions.add("(first_name, last_name, user_id) > (?, ?, ?)");
+            params.add(after.getFirstName());
+            params.add(after.getLastName());
+            params.add(after.getUserId());
+        }
+        
+        query.append("(SELECT ").append(COLUMNS).append(" FROM users");
+        if (!conditions.isEmpty()) {
+            query.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        query.append(ORDER).append(" LIMIT ").append(limit).append(")");
+    }
+    
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+    
+    private static User mapUser(ResultSet rs) throws SQLException {
+        return new User(
+            rs.getInt("user_id"),
+            rs.getString("username"),
+            "", // Passwords stay in the database
+            rs.getString("first_name"),
+            rs.getString("last_name"),
+            rs.getString("email"),
+            rs.getString("phone_number"),
+            UserRole.fromString(rs.getString("role")),
+            rs.getBoolean("is_active")
+        );
+    }
+}
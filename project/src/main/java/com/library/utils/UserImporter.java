@@ -0,0 +1,455 @@
+package com.library.utils;
+
+import com.library.Database;
+import com.library.models.UserRole;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bulk user import from CSV
+ * The file is read one chunk of records at a time and each chunk is
+ * validated in parallel, then checked for duplicate usernames and emails
+ * against the database and the rows already read. Accepted rows are
+ * inserted as one batch per transaction on a writer thread while the next
+ * chunk is being read, so memory stays bounded by the chunk size.
+ */
+public class UserImporter {
+    
+    private static final String[] REQUIRED_COLUMNS = { "username", "password", "first_name", "last_name", "email" };
+    private static final String[] REPORT_COLUMNS = { "username", "first_name", "last_name", "email", "phone_number", "role" };
+    
+    private static final String INSERT_USER = """
+        INSERT INTO users (username, password, first_name, last_name,
+                         email, phone_number, role, is_active)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+    
+    /**
+     * Record that could not be imported
+     */
+    public static class Rejection {
+        private final long line;
+        private final String reason;
+        private final Map<String, String> values;
+        
+        Rejection(long line, String reason, Map<String, String> values) {
+            this.line = line;
+            this.reason = reason;
+            this.values = values;
+        }
+        
+        public long getLine() { return line; }
+        public String getReason() { return reason; }
+        
+        public String getValue(String column) {
+            return values.getOrDefault(column, "");
+        }
+    }
+    
+    /**
+     * Outcome of one import
+     */
+    public static class Result {
+        private final long imported;
+        private final List<Rejection> rejected;
+        private final long elapsedMillis;
+        
+        Result(long imported, List<Rejection> rejected, long elapsedMillis) {
+            this.imported = imported;
+            this.rejected = rejected;
+            this.elapsedMillis = elapsedMillis;
+        }
+        
+        public long getImported() { return imported; }
+        public List<Rejection> getRejected() { return rejected; }
+        public long getElapsedMillis() { return elapsedMillis; }
+    }
+    
+    /**
+     * Validated user ready to insert
+     */
+    private static class Row {
+        final long line;
+        final Map<String, String> values;
+        final UserRole role;
+        final boolean active;
+        
+        Row(long line, Map<String, String> values, UserRole role, boolean active) {
+            this.line = line;
+            this.values = values;
+            this.role = role;
+            this.active = active;
+        }
+    }
+    
+    /**
+     * Raw CSV record with the line it starts on
+     */
+    private static class Record {
+        final long line;
+        final List<String> fields;
+        
+        Record(long line, List<String> fields) {
+            this.line = line;
+            this.fields = fields;
+        }
+    }
+    
+    private UserImporter() {
+        // Utility class - prevent instantiation
+    }
+    
+    /**
+     * Import users from a CSV file with a header row
+     * Required columns are username, password, first_name, last_name and
+     * email; phone_number, role and is_active are optional.
+     * @param progress optional counter advanced for every record processed
+     */
+    public static Result importFile(Path file, LongAdder progress) throws IOException, SQLException, InterruptedException {
+        long started = System.currentTimeMillis();
+        List<Rejection> rejected = Collections.synchronizedList(new ArrayList<>());
+        LongAdder imported = new LongAdder();
+        
+        ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "user-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        try (Connection conn = Database.openConnection();
+             BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Set<String> usernames = new HashSet<>();
+            Set<String> emails = new HashSet<>();
+            loadExisting(conn, usernames, emails);
+            
+            CsvReader csv = new CsvReader(reader);
+            Record header = csv.next();
+            if (header == null) {
+                throw new IOException("The file is empty.");
+            }
+            List<String> columns = new ArrayList<>();
+            for (String column : header.fields) {
+                columns.add(column.trim().toLowerCase(Locale.ROOT));
+            }
+            for (String required : REQUIRED_COLUMNS) {
+                if (!columns.contains(required)) {
+                    throw new IOException("Missing required column: " + required);
+                }
+            }
+            
+            Future<?> pending = null;
+            while (true) {
+                List<Record> chunk = new ArrayList<>(DatabaseConstants.IMPORT_CHUNK_ROWS);
+                Record record;
+                while (chunk.size() < DatabaseConstants.IMPORT_CHUNK_ROWS && (record = csv.next()) != null) {
+                    chunk.add(record);
+                }
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                
+                // Validation needs no shared state, so records are checked in parallel
+                List<Object> checked = chunk.parallelStream()
+                    .map(r -> validate(r, columns))
+                    .toList();
+                
+                List<Row> rows = new ArrayList<>(checked.size());
+                for (Object result : checked) {
+                    if (result instanceof Rejection rejection) {
+                        rejected.add(rejection);
+                        continue;
+                    }
+                    Row row = (Row) result;
+                    String username = row.values.get("username").toLowerCase(Locale.ROOT);
+                    String email = row.values.get("email").toLowerCase(Locale.ROOT);
+                    if (usernames.contains(username)) {
+                        rejected.add(new Rejection(row.line, "Username already exists", row.values));
+                    } else if (emails.contains(email)) {
+                        rejected.add(new Rejection(row.line, "Email already exists", row.values));
+                    } else {
+                        usernames.add(username);
+                        emails.add(email);
+                        rows.add(row);
+                    }
+                }
+                
+                // Keep one chunk in flight while the next is read
+                if (pending != null) {
+                    await(pending);
+                }
+                pending = writer.submit(() -> {
+                    insert(conn, rows, rejected, imported);
+                    return null;
+                });
+                if (progress != null) {
+                    progress.add(chunk.size());
+                }
+            }
+            if (pending != null) {
+                await(pending);
+            }
+        } finally {
+            writer.shutdownNow();
+        }
+        
+        List<Rejection> report = new ArrayList<>(rejected);
+        report.sort(Comparator.comparingLong(Rejection::getLine));
+        return new Result(imported.sum(), report, System.currentTimeMillis() - started);
+    }
+    
+    /**
+     * Write rejected records with their line numbers and reasons
+     */
+    public static void writeRejections(Path file, List<Rejection> rejected) throws IOException {
+        try (CsvExporter out = new CsvExporter(file)) {
+            out.raw("line,reason," + String.join(",", REPORT_COLUMNS) + "\n");
+            for (Rejection rejection : rejected) {
+                out.field(rejection.line).field(rejection.reason);
+                for (String column : REPORT_COLUMNS) {
+                    out.field(rejection.getValue(column));
+                }
+                out.endRow();
+            }
+        }
+    }
+    
+    private static void loadExisting(Connection conn, Set<String> usernames, Set<String> emails) throws SQLException {
+        try (PreparedStatement stmt = Database.prepare(conn, "SELECT username, email FROM users");
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                usernames.add(rs.getString("username").toLowerCase(Locale.ROOT));
+                emails.add(rs.getString("email").toLowerCase(Locale.ROOT));
+            }
+        }
+    }
+    
+    /**
+     * Check one record, returning a Row or a Rejection
+     */
+    private static Object validate(Record record, List<String> columns) {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < columns.size() && i < record.fields.size(); i++) {
+            values.put(columns.get(i), record.fields.get(i).trim());
+        }
+        if (record.fields.size() != columns.size()) {
+            return new Rejection(record.line, "Expected " + columns.size() + " columns but found "
+                + record.fields.size(), values);
+        }
+        
+        for (String required : REQUIRED_COLUMNS) {
+            if (values.getOrDefault(required, "").isEmpty()) {
+                return new Rejection(record.line, "Missing " + required.replace('_', ' '), values);
+            }
+        }
+        if (values.get("password").length() > 255) {
+            return new Rejection(record.line, "Password is longer than 255 characters", values);
+        }
+        if (values.get("username").length() > 50) {
+            return new Rejection(record.line, "Username is longer than 50 characters", values);
+        }
+        if (values.get("first_name").length() > 100 || values.get("last_name").length() > 100) {
+            return new Rejection(record.line, "Name is longer than 100 characters", values);
+        }
+        
+        // Same rule as the user form
+        String email = values.get("email");
+        if (!email.contains("@") || !email.contains(".") || email.length() > 150) {
+            return new Rejection(record.line, "Invalid email address", values);
+        }
+        if (values.getOrDefault("phone_number", "").length() > 20) {
+            return new Rejection(record.line, "Phone number is longer than 20 characters", values);
+        }
+        
+        UserRole role = UserRole.STUDENT;
+        String roleText = values.getOrDefault("role", "");
+        if (!roleText.isEmpty()) {
+            // fromString falls back to Student, so confirm the name actually matched
+            role = UserRole.fromString(roleText);
+            if (!role.getDisplayName().equalsIgnoreCase(roleText)) {
+                return new Rejection(record.line, "Unknown role: " + roleText, values);
+            }
+        }
+        
+        String activeText = values.getOrDefault("is_active", "").toLowerCase(Locale.ROOT);
+        boolean active = !(activeText.equals("0") || activeText.equals("false") || activeText.equals("no"));
+        return new Row(record.line, values, role, active);
+    }
+    
+    /**
+     * Insert a chunk in one transaction, falling back to single rows if the
+     * batch fails so only the offending rows are rejected
+     * Only a lost connection or transaction aborts the import.
+     */
+    private static void insert(Connection conn, List<Row> rows, List<Rejection> rejected, LongAdder imported) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        
+        conn.setAutoCommit(false);
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_USER)) {
+            try {
+                for (Row row : rows) {
+                    bind(stmt, row);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+                imported.add(rows.size());
+                registerAll(rows);
+                return;
+            } catch (SQLException e) {
+                if (Database.isConnectionFailure(e)) {
+                    throw e;
+                }
+                conn.rollback();
+                stmt.clearBatch();
+            }
+            
+            List<Row> inserted = new ArrayList<>();
+            for (Row row : rows) {
+                bind(stmt, row);
+                try {
+                    stmt.executeUpdate();
+                    inserted.add(row);
+                } catch (SQLException e) {
+                    if (Database.isConnectionFailure(e)) {
+                        throw e;
+                    }
+                    rejected.add(new Rejection(row.line, "Rejected by database: " + e.getMessage(), row.values));
+                }
+            }
+            conn.commit();
+            imported.add(inserted.size());
+            registerAll(inserted);
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+    
+    private static void bind(PreparedStatement stmt, Row row) throws SQLException {
+        String phone = row.values.getOrDefault("phone_number", "");
+        stmt.setString(1, row.values.get("username"));
+        stmt.setString(2, row.values.get("password")); // Stored the same way as the user form
+        stmt.setString(3, row.values.get("first_name"));
+        stmt.setString(4, row.values.get("last_name"));
+        stmt.setString(5, row.values.get("email"));
+        stmt.setString(6, phone.isEmpty() ? null : phone);
+        stmt.setString(7, row.role.getDisplayName());
+        stmt.setBoolean(8, row.active);
+    }
+    
+    private static void registerAll(List<Row> rows) {
+        for (Row row : rows) {
+            UserRegistry.add(row.values.get("username"), row.values.get("email"));
+        }
+    }
+    
+    private static void await(Future<?> future) throws SQLException, InterruptedException {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof SQLException ? (SQLException) cause : new SQLException(cause);
+        }
+    }
+    
+    /**
+     * Minimal RFC 4180 reader: quoted fields may contain commas, doubled
+     * quotes and line breaks
+     */
+    private static class CsvReader {
+        private final BufferedReader reader;
+        private long line = 0;
+        
+        CsvReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+        
+        /**
+         * Next non-blank record, or null at end of file
+         */
+        Record next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+                if (text == null) {
+                    return null;
+                }
+                if (line == 1 && text.startsWith("\uFEFF")) {
+                    text = text.substring(1);
+                }
+            } while (text.isBlank());
+            
+            long start = line;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == text.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    // Line break inside a quoted field
+                    String more = reader.readLine();
+                    if (more == null) {
+                        break;
+                    }
+                    line++;
+                    field.append('\n');
+                    text = more;
+                    i = 0;
+                    continue;
+                }
+                char c = text.charAt(i++);
+                if (quoted) {
+                    if (c == '"') {
+                        if (i < text.length() && text.charAt(i) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return new Record(start, fields);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.library.utils;
+
+import com.library.Database;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * In-memory registry of taken usernames and emails
+ * A Bloom filter answers most "available" checks without touching the
+ * hash sets; names that pass the filter are confirmed against the sets.
+ * Callers consult the database only when a value may be taken.
+ * Values compare case-insensitively, matching MySQL's collation.
+ */
+public class UserRegistry {
+    
+    /**
+     * Result of an availability check
+     */
+    public enum Availability {
+        AVAILABLE,
+        TAKEN,
+        UNKNOWN // Registry not loaded yet
+    }
+    
+    /**
+     * Bit array probed at several positions derived from one 64-bit hash
+     */
+    private static class BloomFilter {
+        private final long[] bits;
+        private final int bitCount;
+        private final int hashes;
+        
+        BloomFilter(int expected) {
+            // About 1% false positives: 9.6 bits and 7 probes per value
+            int n = Math.max(expected, 1024);
+            this.bitCount = (int) Math.min(Integer.MAX_VALUE - 63L, (long) Math.ceil(n * 9.6));
+            this.bits = new long[(bitCount + 63) / 64];
+            this.hashes = 7;
+        }
+        
+        void add(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashes; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bitCount);
+                bits[bit >>> 6] |= 1L << bit;
+            }
+        }
+        
+        boolean mightContain(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashes; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        // 64-bit FNV-1a over UTF-8 bytes
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b & 0xFF;
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+    }
+    
+    /**
+     * Filter and sets published together
+     */
+    private static class Snapshot {
+        private final BloomFilter filter;
+        private final Set<String> usernames;
+        private final Set<String> emails;
+        
+        Snapshot(BloomFilter filter, Set<String> usernames, Set<String> emails) {
+            this.filter = filter;
+            this.usernames = usernames;
+            this.emails = emails;
+        }
+    }
+    
+    private static volatile Snapshot snapshot;
+    private static volatile boolean loading = false;
+    
+    private UserRegistry() {
+        // Utility class - prevent instantiation
+    }
+    
+    /**
+     * Load or reload the registry on a background thread
+     */
+    public static synchronized void loadAsync() {
+        if (loading) {
+            return;
+        }
+        loading = true;
+        
+        Thread loader = new Thread(() -> {
+            try {
+                load();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            } finally {
+                loading = false;
+            }
+        }, "user-registry");
+        loader.setDaemon(true);
+        loader.start();
+    }
+    
+    public static boolean isLoaded() {
+        return snapshot != null;
+    }
+    
+    public static Availability checkUsername(String username) {
+        return check(username, "u:", false);
+    }
+    
+    public static Availability checkEmail(String email) {
+        return check(email, "e:", true);
+    }
+    
+    /**
+     * Register a newly saved user
+     */
+    public static synchronized void add(String username, String email) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        String user = normalize(username);
+        String mail = normalize(email);
+        current.usernames.add(user);
+        current.emails.add(mail);
+        current.filter.add("u:" + user);
+        current.filter.add("e:" + mail);
+    }
+    
+    /**
+     * Replace a user's username and email after an update
+     */
+    public static synchronized void rename(String oldUsername, String oldEmail, String username, String email) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        // Stale filter bits only cost a set lookup
+        current.usernames.remove(normalize(oldUsername));
+        current.emails.remove(normalize(oldEmail));
+        add(username, email);
+    }
+    
+    private static Availability check(String value, String prefix, boolean email) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return Availability.UNKNOWN;
+        }
+        String key = normalize(value);
+        if (!current.filter.mightContain(prefix + key)) {
+            return Availability.AVAILABLE;
+        }
+        synchronized (UserRegistry.class) {
+            Set<String> values = email ? current.emails : current.usernames;
+            return values.contains(key) ? Availability.TAKEN : Availability.AVAILABLE;
+        }
+    }
+    
+    private static void load() throws SQLException {
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        try (Connection conn = Database.openConnection();
+             PreparedStatement stmt = Database.prepare(conn, "SELECT username, email FROM users");
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                usernames.add(normalize(rs.getString("username")));
+                emails.add(normalize(rs.getString("email")));
+            }
+        }
+        
+        BloomFilter filter = new BloomFilter(2 * (usernames.size() + emails.size()));
+        for (String username : usernames) {
+            filter.add("u:" + username);
+        }
+        for (String email : emails) {
+            filter.add("e:" + email);
+        }
+        
+        synchronized (UserRegistry.class) {
+            snapshot = new Snapshot(filter, usernames, emails);
+        }
+    }
+    
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
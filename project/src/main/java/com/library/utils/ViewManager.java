@@ -0,0 +1,205 @@
+package com.library.utils;
+
+import com.library.Main;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import javafx.stage.WindowEvent;
+import javafx.util.Duration;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache of the dashboard's management windows
+ * Each view is parsed once, ahead of time by preload() or on first open,
+ * and its stage is reused from then on. Opening a view that is already
+ * showing brings it to the front; showing a cached view asks its controller
+ * to catch up on changes instead of rebuilding it. Controllers start their
+ * timers and listeners in resume(), not in initialize(), so a preloaded
+ * view stays idle until it is first shown. The cache is cleared on
+ * logout so the next user gets views built for their role.
+ * All methods must be called on the FX thread.
+ */
+public class ViewManager {
+    
+    /**
+     * Lifecycle hooks for controllers of cached views
+     */
+    public interface Refreshable {
+        /**
+         * Bring the view up to date before its cached window is shown
+         */
+        void refresh();
+        
+        /**
+         * Start timers and listeners each time the window is shown, including the first time
+         */
+        default void resume() {
+        }
+        
+        /**
+         * Stop background work while the window is hidden
+         */
+        default void suspend() {
+        }
+        
+        /**
+         * Release everything when the cached view is discarded
+         */
+        default void dispose() {
+            suspend();
+        }
+    }
+    
+    /**
+     * Windows opened from the dashboard
+     */
+    public enum View {
+        BOOKS("/fxml/BookTable.fxml", "Books Management", 1000, 700),
+        USERS("/fxml/UserForm.fxml", "Users Management", 800, 600),
+        ISSUE_RETURN("/fxml/IssueReturn.fxml", "Issue & Return Books", 900, 650),
+        REPORTS("/fxml/Report.fxml", "Reports", 1000, 700);
+        
+        private final String fxml;
+        private final String title;
+        private final double width;
+        private final double height;
+        
+        View(String fxml, String title, double width, double height) {
+            this.fxml = fxml;
+            this.title = title;
+            this.width = width;
+            this.height = height;
+        }
+        
+        public String getTitle() {
+            return title;
+        }
+    }
+    
+    /**
+     * A parsed view and its reusable stage
+     */
+    private static class CachedView {
+        private final Stage stage;
+        private final Object controller;
+        
+        CachedView(Stage stage, Object controller) {
+            this.stage = stage;
+            this.controller = controller;
+        }
+    }
+    
+    private static final Map<View, CachedView> cache = new EnumMap<>(View.class);
+    private static final Deque<View> preloadQueue = new ArrayDeque<>();
+    
+    // Bumped by clear() so preloads scheduled for the previous user are dropped
+    private static int generation = 0;
+    
+    private ViewManager() {
+        // Utility class - prevent instantiation
+    }
+    
+    /**
+     * Build views in the background of the FX thread, one per pulse
+     * Starts after a short delay so the dashboard paints first.
+     * Controllers initialize against the shared connection, so views are
+     * parsed on the FX thread rather than on a worker.
+     */
+    public static void preload(List<View> views) {
+        preloadQueue.addAll(views);
+        
+        int scheduled = generation;
+        PauseTransition delay = new PauseTransition(Duration.millis(DatabaseConstants.VIEW_PRELOAD_DELAY_MS));
+        delay.setOnFinished(e -> preloadNext(scheduled));
+        delay.play();
+    }
+    
+    /**
+     * Show a view's single window, building it if it is not cached yet
+     */
+    public static void show(View view) throws IOException {
+        CachedView cached = cache.get(view);
+        boolean built = cached == null;
+        if (built) {
+            preloadQueue.remove(view);
+            cached = build(view);
+        }
+        
+        if (cached.stage.isShowing()) {
+            cached.stage.toFront();
+            return;
+        }
+        if (cached.controller instanceof Refreshable refreshable) {
+            if (!built) {
+                refreshable.refresh();
+            }
+            refreshable.resume();
+        }
+        cached.stage.show();
+    }
+    
+    /**
+     * Close and discard every cached view, e.g. on logout
+     */
+    public static void clear() {
+        generation++;
+        preloadQueue.clear();
+        for (CachedView cached : cache.values()) {
+            cached.stage.close();
+            if (cached.controller instanceof Refreshable refreshable) {
+                refreshable.dispose();
+            }
+        }
+        cache.clear();
+    }
+    
+    private static void preloadNext(int scheduled) {
+        if (scheduled != generation) {
+            return;
+        }
+        View view = preloadQueue.poll();
+        if (view == null) {
+            return;
+        }
+        
+        if (!cache.containsKey(view)) {
+            try {
+                build(view);
+            } catch (IOException e) {
+                // Built again on first open, which reports the error
+                e.printStackTrace();
+            }
+        }
+        Platform.runLater(() -> preloadNext(scheduled));
+    }
+    
+    private static CachedView build(View view) throws IOException {
+        FXMLLoader loader = new FXMLLoader(ViewManager.class.getResource(view.fxml));
+        Parent root = loader.load();
+        Object controller = loader.getController();
+        
+        Stage stage = new Stage();
+        stage.setTitle(view.title);
+        stage.initModality(Modality.WINDOW_MODAL);
+        stage.initOwner(Main.getPrimaryStage());
+        stage.setScene(new Scene(root, view.width, view.height));
+        
+        if (controller instanceof Refreshable refreshable) {
+            stage.addEventHandler(WindowEvent.WINDOW_HIDDEN, e -> refreshable.suspend());
+        }
+        
+        CachedView cached = new CachedView(stage, controller);
+        cache.put(view, cached);
+        return cached;
+    }
+}
@@ -0,0 +1,31 @@
+package com.library.utils;
+
+import java.net.InetAddress;
+
+/**
+ * Identity of the desk this application runs on
+ */
+public class Workstation {
+    
+    private static final String NAME = resolveName();
+    
+    private Workstation() {
+        // Utility class - prevent instantiation
+    }
+    
+    /**
+     * Host name, at most 64 characters, or "desk" if it cannot be resolved
+     */
+    public static String getName() {
+        return NAME;
+    }
+    
+    private static String resolveName() {
+        try {
+            String host = InetAddress.getLocalHost().getHostName();
+            return host.length() > 64 ? host.substring(0, 64) : host;
+        } catch (Exception e) {
+            return "desk";
+        }
+    }
+}
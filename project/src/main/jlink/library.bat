@@ -0,0 +1,16 @@
+@echo off
+rem Library Management System launcher
+rem The first run records an AppCDS archive of the classes it loaded when the
+rem application exits; later runs map that archive in instead of loading and
+rem verifying those classes again. Delete lib\app.jsa after an upgrade.
+setlocal
+set "DIR=%~dp0"
+set "ARCHIVE=%DIR%..\lib\app.jsa"
+
+if exist "%ARCHIVE%" (
+    set "CDS=-XX:SharedArchiveFile=%ARCHIVE%"
+) else (
+    set "CDS=-XX:ArchiveClassesAtExit=%ARCHIVE%"
+)
+
+start "" "%DIR%javaw.exe" "%CDS%" -cp "%DIR%..\lib\app\*" -m library.management.system/com.library.Main %*
@@ -0,0 +1,16 @@
+-- Library Management System - Holiday Calendar
+-- Days the library is closed; no overdue fines are charged for them
+
+CREATE TABLE IF NOT EXISTS library_holidays (
+    holiday_date DATE PRIMARY KEY,
+    description VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+ALTER TABLE library_holidays COMMENT = 'Holidays and other closures excluded from due dates and fines';
+
+-- Sample closures (weekly closures are configured in DatabaseConstants)
+INSERT IGNORE INTO library_holidays (holiday_date, description) VALUES
+('2025-01-01', 'New Year\'s Day'),
+('2025-12-25', 'Christmas Day'),
+('2025-12-26', 'Boxing Day');
@@ -0,0 +1,52 @@
+-- Library Management System - Book Reservations
+-- Per-book hold queues; returned copies are set aside for the oldest waiting hold
+
+-- Reservations table (promoted from the future enhancement placeholder)
+-- Active    : waiting in the book's queue until expiry_date
+-- Ready     : a returned copy is on the hold shelf until expiry_date
+-- Fulfilled : the held copy was issued to the user
+CREATE TABLE IF NOT EXISTS book_reservations (
+    reservation_id INT AUTO_INCREMENT PRIMARY KEY,
+    user_id INT NOT NULL,
+    book_id INT NOT NULL,
+    reservation_date DATE NOT NULL,
+    expiry_date DATE NOT NULL,
+    status ENUM('Active', 'Ready', 'Fulfilled', 'Expired', 'Cancelled') DEFAULT 'Active',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    
+    FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE,
+    FOREIGN KEY (book_id) REFERENCES books(book_id) ON DELETE CASCADE,
+    
+    -- Queue order per book, and expiry sweeps
+    INDEX idx_book_queue (book_id, status, reservation_date, reservation_id),
+    INDEX idx_status_expiry (status, expiry_date)
+);
+
+ALTER TABLE book_reservations COMMENT = 'FIFO holds on books with no copies on the shelf';
+
+-- Allow issuing a copy that is set aside for the borrower's ready hold
+DROP TRIGGER IF EXISTS tr_check_availability;
+
+DELIMITER //
+CREATE TRIGGER tr_check_availability
+    BEFORE INSERT ON book_issues
+    FOR EACH ROW
+BEGIN
+    DECLARE available_count INT;
+    DECLARE ready_count INT;
+    
+    SELECT available_copies INTO available_count
+    FROM books 
+    WHERE book_id = NEW.book_id AND is_active = TRUE;
+    
+    SELECT COUNT(*) INTO ready_count
+    FROM book_reservations
+    WHERE book_id = NEW.book_id AND user_id = NEW.user_id AND status IN ('Ready', 'Fulfilled');
+    
+    IF available_count <= 0 AND ready_count = 0 THEN
+        SIGNAL SQLSTATE '45000' 
+        SET MESSAGE_TEXT = 'No copies of this book are available for issue';
+    END IF;
+END//
+
+DELIMITER ;
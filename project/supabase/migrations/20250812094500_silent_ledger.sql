@@ -0,0 +1,11 @@
+-- Library Management System - Offline Journal Replay
+-- Operation IDs of journaled offline circulation already applied,
+-- written in the same transaction as the operation so replay is idempotent
+
+CREATE TABLE IF NOT EXISTS journal_replays (
+    op_id BIGINT PRIMARY KEY,
+    op_type ENUM('Issue', 'Return') NOT NULL,
+    replayed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+ALTER TABLE journal_replays COMMENT = 'Offline circulation operations replayed from the workstation journal';
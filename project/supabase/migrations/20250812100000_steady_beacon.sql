@@ -0,0 +1,148 @@
+-- Library Management System - Dashboard Counters
+-- Single-row counters kept current by triggers so the dashboard reads one
+-- row instead of scanning books, users and book_issues
+
+CREATE TABLE IF NOT EXISTS library_stats (
+    stats_id TINYINT PRIMARY KEY,
+    total_books INT NOT NULL DEFAULT 0,
+    available_copies INT NOT NULL DEFAULT 0,
+    total_users INT NOT NULL DEFAULT 0,
+    active_issues INT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    CONSTRAINT chk_single_row CHECK (stats_id = 1)
+);
+
+ALTER TABLE library_stats COMMENT = 'Materialized dashboard counters maintained by triggers';
+
+-- Seed counters from current data
+INSERT INTO library_stats (stats_id, total_books, available_copies, total_users, active_issues)
+SELECT 1,
+    (SELECT COUNT(*) FROM books WHERE is_active = TRUE),
+    (SELECT COALESCE(SUM(available_copies), 0) FROM books WHERE is_active = TRUE),
+    (SELECT COUNT(*) FROM users WHERE is_active = TRUE),
+    (SELECT COUNT(*) FROM book_issues WHERE is_returned = FALSE)
+ON DUPLICATE KEY UPDATE
+    total_books = VALUES(total_books),
+    available_copies = VALUES(available_copies),
+    total_users = VALUES(total_users),
+    active_issues = VALUES(active_issues);
+
+-- Overdue loans are time-based and counted from this index instead
+CREATE INDEX idx_open_due_date ON book_issues(is_returned, due_date);
+
+DELIMITER //
+
+-- Book counters
+CREATE TRIGGER tr_stats_book_insert
+    AFTER INSERT ON books
+    FOR EACH ROW
+BEGIN
+    IF NEW.is_active = TRUE THEN
+        UPDATE library_stats
+        SET total_books = total_books + 1,
+            available_copies = available_copies + NEW.available_copies
+        WHERE stats_id = 1;
+    END IF;
+END//
+
+CREATE TRIGGER tr_stats_book_update
+    AFTER UPDATE ON books
+    FOR EACH ROW
+BEGIN
+    IF OLD.is_active <> NEW.is_active OR OLD.available_copies <> NEW.available_copies THEN
+        UPDATE library_stats
+        SET total_books = total_books + IF(NEW.is_active, 1, 0) - IF(OLD.is_active, 1, 0),
+            available_copies = available_copies
+                + IF(NEW.is_active, NEW.available_copies, 0)
+                - IF(OLD.is_active, OLD.available_copies, 0)
+        WHERE stats_id = 1;
+    END IF;
+END//
+
+CREATE TRIGGER tr_stats_book_delete
+    AFTER DELETE ON books
+    FOR EACH ROW
+BEGIN
+    IF OLD.is_active = TRUE THEN
+        UPDATE library_stats
+        SET total_books = total_books - 1,
+            available_copies = available_copies - OLD.available_copies
+        WHERE stats_id = 1;
+    END IF;
+END//
+
+-- User counters
+CREATE TRIGGER tr_stats_user_insert
+    AFTER INSERT ON users
+    FOR EACH ROW
+BEGIN
+    IF NEW.is_active = TRUE THEN
+        UPDATE library_stats SET total_users = total_users + 1 WHERE stats_id = 1;
+    END IF;
+END//
+
+CREATE TRIGGER tr_stats_user_update
+    AFTER UPDATE ON users
+    FOR EACH ROW
+BEGIN
+    IF OLD.is_active <> NEW.is_active THEN
+        UPDATE library_stats
+        SET total_users = total_users + IF(NEW.is_active, 1, -1)
+        WHERE stats_id = 1;
+    END IF;
+END//
+
+CREATE TRIGGER tr_stats_user_delete
+    AFTER DELETE ON users
+    FOR EACH ROW
+BEGIN
+    IF OLD.is_active = TRUE THEN
+        UPDATE library_stats SET total_users = total_users - 1 WHERE stats_id = 1;
+    END IF;
+END//
+
+-- Loan counters
+CREATE TRIGGER tr_stats_issue_insert
+    AFTER INSERT ON book_issues
+    FOR EACH ROW
+BEGIN
+    IF NEW.is_returned = FALSE THEN
+        UPDATE library_stats SET active_issues = active_issues + 1 WHERE stats_id = 1;
+    END IF;
+END//
+
+CREATE TRIGGER tr_stats_issue_update
+    AFTER UPDATE ON book_issues
+    FOR EACH ROW
+BEGIN
+    IF OLD.is_returned <> NEW.is_returned THEN
+        UPDATE library_stats
+        SET active_issues = active_issues + IF(NEW.is_returned, -1, 1)
+        WHERE stats_id = 1;
+    END IF;
+END//
+
+CREATE TRIGGER tr_stats_issue_delete
+    AFTER DELETE ON book_issues
+    FOR EACH ROW
+BEGIN
+    IF OLD.is_returned = FALSE THEN
+        UPDATE library_stats SET active_issues = active_issues - 1 WHERE stats_id = 1;
+    END IF;
+END//
+
+-- Library statistics now read the counter row
+DROP PROCEDURE IF EXISTS sp_get_library_stats//
+CREATE PROCEDURE sp_get_library_stats()
+BEGIN
+    SELECT 
+        s.total_books,
+        s.available_copies,
+        s.total_users,
+        s.active_issues,
+        (SELECT COUNT(*) FROM book_issues WHERE is_returned = FALSE AND due_date < CURDATE()) as overdue_issues
+    FROM library_stats s
+    WHERE s.stats_id = 1;
+END//
+
+DELIMITER ;
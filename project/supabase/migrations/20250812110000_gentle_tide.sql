@@ -0,0 +1,38 @@
+-- Library Management System - Daily Circulation Rollup
+-- Issues, returns, late returns and fines per day, book category and user role,
+-- updated by the issue and return transactions
+
+CREATE TABLE IF NOT EXISTS circulation_daily_rollup (
+    rollup_date DATE NOT NULL,
+    category VARCHAR(100) NOT NULL,
+    role ENUM('Student', 'Faculty', 'Librarian') NOT NULL,
+    issues INT NOT NULL DEFAULT 0,
+    returns INT NOT NULL DEFAULT 0,
+    overdue_returns INT NOT NULL DEFAULT 0,
+    fines DECIMAL(12,2) NOT NULL DEFAULT 0.00,
+    PRIMARY KEY (rollup_date, category, role)
+);
+
+ALTER TABLE circulation_daily_rollup COMMENT = 'Daily circulation totals per category and role for reporting';
+
+-- Backfill from existing history (the Summary report can rebuild it later)
+INSERT INTO circulation_daily_rollup (rollup_date, category, role, issues)
+SELECT bi.issue_date, b.category, u.role, COUNT(*)
+FROM book_issues bi
+JOIN books b ON bi.book_id = b.book_id
+JOIN users u ON bi.user_id = u.user_id
+GROUP BY bi.issue_date, b.category, u.role
+ON DUPLICATE KEY UPDATE issues = VALUES(issues);
+
+INSERT INTO circulation_daily_rollup (rollup_date, category, role, returns, overdue_returns, fines)
+SELECT bi.return_date, b.category, u.role, COUNT(*),
+       SUM(bi.return_date > bi.due_date), SUM(bi.fine_amount)
+FROM book_issues bi
+JOIN books b ON bi.book_id = b.book_id
+JOIN users u ON bi.user_id = u.user_id
+WHERE bi.is_returned = TRUE
+GROUP BY bi.return_date, b.category, u.role
+ON DUPLICATE KEY UPDATE
+    returns = VALUES(returns),
+    overdue_returns = VALUES(overdue_returns),
+    fines = VALUES(fines);
@@ -0,0 +1,59 @@
+-- Library Management System - Popularity Snapshots
+-- Monthly SpaceSaving summaries of most-borrowed books, authors and categories,
+-- one per desk (station); reports merge them into approximate top-K answers
+
+CREATE TABLE IF NOT EXISTS popularity_snapshots (
+    period_start DATE NOT NULL,
+    dimension ENUM('BOOK', 'AUTHOR', 'CATEGORY') NOT NULL,
+    station VARCHAR(64) NOT NULL,
+    item_key VARCHAR(255) NOT NULL,
+    item_label VARCHAR(520) NOT NULL,
+    item_count BIGINT NOT NULL,
+    error_bound BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (period_start, dimension, station, item_key),
+    INDEX idx_dimension_period (dimension, period_start)
+);
+
+ALTER TABLE popularity_snapshots COMMENT = 'Per-month heavy-hitter summaries written by each desk';
+
+-- Seed exact counts from existing history under a separate station, keeping
+-- the top 1000 items per month to match the in-memory summary capacity
+INSERT INTO popularity_snapshots (period_start, dimension, station, item_key, item_label, item_count, error_bound)
+SELECT period_start, 'BOOK', 'history', item_key, item_label, item_count, 0
+FROM (
+    SELECT DATE_FORMAT(bi.issue_date, '%Y-%m-01') AS period_start,
+           CAST(b.book_id AS CHAR) AS item_key,
+           CONCAT(b.title, ' - ', b.author) AS item_label,
+           COUNT(*) AS item_count,
+           ROW_NUMBER() OVER (PARTITION BY DATE_FORMAT(bi.issue_date, '%Y-%m-01') ORDER BY COUNT(*) DESC) AS item_rank
+    FROM book_issues bi
+    JOIN books b ON bi.book_id = b.book_id
+    GROUP BY period_start, b.book_id, b.title, b.author
+) ranked
+WHERE item_rank <= 1000;
+
+INSERT INTO popularity_snapshots (period_start, dimension, station, item_key, item_label, item_count, error_bound)
+SELECT period_start, 'AUTHOR', 'history', author, author, item_count, 0
+FROM (
+    SELECT DATE_FORMAT(bi.issue_date, '%Y-%m-01') AS period_start,
+           b.author,
+           COUNT(*) AS item_count,
+           ROW_NUMBER() OVER (PARTITION BY DATE_FORMAT(bi.issue_date, '%Y-%m-01') ORDER BY COUNT(*) DESC) AS item_rank
+    FROM book_issues bi
+    JOIN books b ON bi.book_id = b.book_id
+    GROUP BY period_start, b.author
+) ranked
+WHERE item_rank <= 1000;
+
+INSERT INTO popularity_snapshots (period_start, dimension, station, item_key, item_label, item_count, error_bound)
+SELECT period_start, 'CATEGORY', 'history', category, category, item_count, 0
+FROM (
+    SELECT DATE_FORMAT(bi.issue_date, '%Y-%m-01') AS period_start,
+           b.category,
+           COUNT(*) AS item_count,
+           ROW_NUMBER() OVER (PARTITION BY DATE_FORMAT(bi.issue_date, '%Y-%m-01') ORDER BY COUNT(*) DESC) AS item_rank
+    FROM book_issues bi
+    JOIN books b ON bi.book_id = b.book_id
+    GROUP BY period_start, b.category
+) ranked
+WHERE item_rank <= 1000;
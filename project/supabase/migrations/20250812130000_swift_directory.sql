@@ -0,0 +1,14 @@
+-- Library Management System - User Directory Indexes
+-- The user directory lists users by first name, last name and ID one page at a
+-- time and searches by prefix; these indexes serve both without a filesort
+
+-- All users, and first name prefix search
+CREATE INDEX idx_users_name ON users(first_name, last_name, user_id);
+
+-- Active users only, as offered for issues, returns and holds
+CREATE INDEX idx_users_active_name ON users(is_active, first_name, last_name, user_id);
+
+-- Last name prefix search
+CREATE INDEX idx_users_last_name ON users(last_name, first_name, user_id);
+
+-- Username and email prefixes use the existing unique indexes
@@ -0,0 +1,9 @@
+-- Library Management System - Change Tracking Indexes
+-- Cached windows catch up on reopen by fetching only the rows whose
+-- updated_at is at or after the time of their previous load
+
+CREATE INDEX idx_books_updated ON books(updated_at);
+
+CREATE INDEX idx_users_updated ON users(updated_at);
+
+CREATE INDEX idx_book_issues_updated ON book_issues(updated_at);
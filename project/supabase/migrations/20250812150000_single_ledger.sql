@@ -0,0 +1,37 @@
+-- Library Management System - Loan Stock Ownership
+-- CirculationService moves books.available_copies itself so that copies set
+-- aside for holds stay off the shelf; the original counter triggers would
+-- apply every issue and return a second time
+
+DROP TRIGGER IF EXISTS tr_book_issued;
+
+DROP TRIGGER IF EXISTS tr_book_returned;
+
+-- Availability check for the issue row, which is inserted before the copy is
+-- taken off the shelf. Only a hold that is still Ready allows issuing without
+-- a shelf copy; a Fulfilled hold has already been collected.
+DROP TRIGGER IF EXISTS tr_check_availability;
+
+DELIMITER //
+CREATE TRIGGER tr_check_availability
+    BEFORE INSERT ON book_issues
+    FOR EACH ROW
+BEGIN
+    DECLARE available_count INT;
+    DECLARE ready_count INT;
+    
+    SELECT available_copies INTO available_count
+    FROM books 
+    WHERE book_id = NEW.book_id AND is_active = TRUE;
+    
+    SELECT COUNT(*) INTO ready_count
+    FROM book_reservations
+    WHERE book_id = NEW.book_id AND user_id = NEW.user_id AND status = 'Ready';
+    
+    IF available_count <= 0 AND ready_count = 0 THEN
+        SIGNAL SQLSTATE '45000' 
+        SET MESSAGE_TEXT = 'No copies of this book are available for issue';
+    END IF;
+END//
+
+DELIMITER ;